@@ -0,0 +1,106 @@
+package org.fxmisc.richtext.benchmark;
+
+import java.util.Random;
+
+import org.fxmisc.richtext.model.ReadOnlyStyledDocument;
+import org.fxmisc.richtext.model.ReadOnlyStyledDocumentBuilder;
+import org.fxmisc.richtext.model.SegmentOps;
+import org.fxmisc.richtext.model.StyleSpans;
+import org.fxmisc.richtext.model.StyleSpansBuilder;
+import org.fxmisc.richtext.model.TextOps;
+
+/**
+ * Creates the text and the documents that the benchmarks work on. The same size and span density always
+ * produce the same document, so that the results of different commits can be compared.
+ */
+final class BenchmarkDocuments {
+
+    /** The length of each line of the generated text, including its line terminator */
+    static final int LINE_LENGTH = 80;
+
+    static final TextOps<String, String> SEGMENT_OPS = SegmentOps.styledTextOps();
+
+    /** One style span per paragraph */
+    static final String PLAIN = "plain";
+    /** One style span per word or space */
+    static final String WORD = "word";
+    /** One style span per character */
+    static final String CHAR = "char";
+
+    private static final String[] WORDS = {
+            "public", "class", "void", "return", "if", "else", "for", "int", "String", "new",
+            "final", "static", "this", "null", "true", "while", "import", "package", "x", "value"
+    };
+
+    private static final String[] STYLES = { "keyword", "identifier", "literal", "comment" };
+
+    private BenchmarkDocuments() {}
+
+    /**
+     * Returns text of the given length made of lines of {@link #LINE_LENGTH} characters.
+     */
+    static String text(int length) {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder(length);
+        int lineStart = 0;
+        while (sb.length() < length) {
+            if (sb.length() - lineStart >= LINE_LENGTH - 1) {
+                sb.append('\n');
+                lineStart = sb.length();
+            } else {
+                if (sb.length() > lineStart) {
+                    sb.append(' ');
+                }
+                sb.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+        }
+        sb.setLength(length);
+        return sb.toString();
+    }
+
+    /**
+     * Returns the style spans of the given text for the given span density.
+     */
+    static StyleSpans<String> spans(String text, String density) {
+        StyleSpansBuilder<String> builder = new StyleSpansBuilder<>();
+        switch (density) {
+            case PLAIN:
+                builder.add(STYLES[0], text.length());
+                break;
+            case WORD:
+                int start = 0;
+                int spanCount = 0;
+                for (int i = 1; i <= text.length(); i++) {
+                    if (i == text.length() || (text.charAt(i) == ' ') != (text.charAt(start) == ' ')) {
+                        builder.add(STYLES[spanCount++ % STYLES.length], i - start);
+                        start = i;
+                    }
+                }
+                break;
+            case CHAR:
+                for (int i = 0; i < text.length(); i++) {
+                    builder.add(STYLES[i % STYLES.length], 1);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown span density: " + density);
+        }
+        if (text.isEmpty()) {
+            builder.add(STYLES[0], 0);
+        }
+        return builder.create();
+    }
+
+    /**
+     * Returns a document of the given length, whose paragraphs are styled with the given span density.
+     */
+    static ReadOnlyStyledDocument<String, String, String> document(int length, String density) {
+        String[] lines = text(length).split("\n", -1);
+        ReadOnlyStyledDocumentBuilder<String, String, String> builder =
+                new ReadOnlyStyledDocumentBuilder<>(SEGMENT_OPS, "", lines.length);
+        for (String line : lines) {
+            builder.addParagraph(line, spans(line, density));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,67 @@
+package org.fxmisc.richtext.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.fxmisc.richtext.model.Codec;
+import org.fxmisc.richtext.model.ReadOnlyStyledDocument;
+import org.fxmisc.richtext.model.StyledDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the {@link Codec} that copy and paste use to transfer styled documents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CodecBenchmark {
+
+    /** The length of the document: 1 KB, 1 MB and 100 MB */
+    @Param({ "1024", "1048576", "104857600" })
+    public int size;
+
+    @Param({ BenchmarkDocuments.PLAIN, BenchmarkDocuments.WORD, BenchmarkDocuments.CHAR })
+    public String density;
+
+    private Codec<StyledDocument<String, String, String>> codec;
+    private ReadOnlyStyledDocument<String, String, String> document;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        codec = ReadOnlyStyledDocument.codec(
+                Codec.STRING_CODEC, Codec.styledTextCodec(Codec.STRING_CODEC), BenchmarkDocuments.SEGMENT_OPS);
+        document = BenchmarkDocuments.document(size, density);
+        encoded = encode();
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        codec.encode(new DataOutputStream(bytes), document);
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return codec.decode(new DataInputStream(new ByteArrayInputStream(encoded)));
+    }
+
+    @Benchmark
+    public Object roundTrip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        codec.encode(new DataOutputStream(bytes), document);
+        return codec.decode(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}
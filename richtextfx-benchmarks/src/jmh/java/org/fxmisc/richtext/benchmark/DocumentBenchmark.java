@@ -0,0 +1,79 @@
+package org.fxmisc.richtext.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.fxmisc.richtext.model.ReadOnlyStyledDocument;
+import org.fxmisc.richtext.model.Replacement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.reactfx.util.Tuple2;
+
+/**
+ * Benchmarks the operations of {@link ReadOnlyStyledDocument} that every edit of an area goes through.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DocumentBenchmark {
+
+    /** The length of the document: 1 KB, 1 MB and 100 MB */
+    @Param({ "1024", "1048576", "104857600" })
+    public int size;
+
+    @Param({ BenchmarkDocuments.PLAIN, BenchmarkDocuments.WORD, BenchmarkDocuments.CHAR })
+    public String density;
+
+    private ReadOnlyStyledDocument<String, String, String> document;
+    private ReadOnlyStyledDocument<String, String, String> insertion;
+    private ReadOnlyStyledDocument<String, String, String> left;
+    private ReadOnlyStyledDocument<String, String, String> right;
+    private List<Replacement<String, String, String>> replacements;
+    private int middle;
+
+    @Setup
+    public void setup() {
+        document = BenchmarkDocuments.document(size, density);
+        insertion = BenchmarkDocuments.document(100, density);
+        middle = size / 2;
+
+        Tuple2<ReadOnlyStyledDocument<String, String, String>, ReadOnlyStyledDocument<String, String, String>> halves =
+                document.split(middle);
+        left = halves._1;
+        right = halves._2;
+
+        // from the end of the document to its start, so that each replacement is not moved by the previous ones
+        replacements = new ArrayList<>();
+        for (int i = 15; i >= 0; i--) {
+            int start = (int) ((long) size * i / 16);
+            replacements.add(new Replacement<>(start, Math.min(start + 10, size), insertion));
+        }
+    }
+
+    @Benchmark
+    public Object replace() {
+        return document.replace(middle, middle + 10, removed -> insertion)._1;
+    }
+
+    @Benchmark
+    public Object replaceMulti() {
+        return document.replaceMulti(replacements)._1;
+    }
+
+    @Benchmark
+    public Object split() {
+        return document.split(middle);
+    }
+
+    @Benchmark
+    public Object concat() {
+        return left.concat(right);
+    }
+}
@@ -0,0 +1,44 @@
+package org.fxmisc.richtext.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.fxmisc.richtext.model.ReadOnlyStyledDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks {@link ReadOnlyStyledDocument#fromString(String, Object, Object, org.fxmisc.richtext.model.TextOps)},
+ * which every {@code replaceText} and every file load goes through, and its parallel variant for large files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FromStringBenchmark {
+
+    /** The length of the text: 1 KB, 1 MB and 100 MB */
+    @Param({ "1024", "1048576", "104857600" })
+    public int size;
+
+    private String text;
+
+    @Setup
+    public void setup() {
+        text = BenchmarkDocuments.text(size);
+    }
+
+    @Benchmark
+    public Object fromString() {
+        return ReadOnlyStyledDocument.fromString(text, "", "", BenchmarkDocuments.SEGMENT_OPS);
+    }
+
+    @Benchmark
+    public Object fromStringInParallel() {
+        return ReadOnlyStyledDocument.fromStringInParallel(text, "", "", BenchmarkDocuments.SEGMENT_OPS);
+    }
+}
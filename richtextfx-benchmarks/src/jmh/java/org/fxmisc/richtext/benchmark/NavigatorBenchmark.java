@@ -0,0 +1,50 @@
+package org.fxmisc.richtext.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.fxmisc.richtext.model.TwoDimensional.Bias;
+import org.fxmisc.richtext.model.TwoLevelNavigator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks {@link TwoLevelNavigator#offsetToPosition(int, Bias)} on documents made of lines of
+ * {@link BenchmarkDocuments#LINE_LENGTH} characters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NavigatorBenchmark {
+
+    /** The length of the document: 1 KB, 1 MB and 100 MB */
+    @Param({ "1024", "1048576", "104857600" })
+    public int size;
+
+    private TwoLevelNavigator navigator;
+    private int[] offsets;
+    private int next;
+
+    @Setup
+    public void setup() {
+        int lineCount = (size + BenchmarkDocuments.LINE_LENGTH - 1) / BenchmarkDocuments.LINE_LENGTH;
+        navigator = new TwoLevelNavigator(() -> lineCount, i -> BenchmarkDocuments.LINE_LENGTH);
+        Random random = new Random(42);
+        offsets = new int[1024];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public Object offsetToPosition() {
+        next = (next + 1) & (offsets.length - 1);
+        return navigator.offsetToPosition(offsets[next], Bias.Forward);
+    }
+}
@@ -0,0 +1,60 @@
+package org.fxmisc.richtext.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.fxmisc.richtext.model.Paragraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the operations of a single {@link Paragraph}, whose cost grows with the length of the paragraph
+ * rather than with the length of the document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParagraphBenchmark {
+
+    /** The length of the paragraph: a line of code, a long line and a minified file */
+    @Param({ "80", "8192", "1048576" })
+    public int length;
+
+    @Param({ BenchmarkDocuments.PLAIN, BenchmarkDocuments.WORD, BenchmarkDocuments.CHAR })
+    public String density;
+
+    private Paragraph<String, String, String> paragraph;
+    private Paragraph<String, String, String> other;
+
+    @Setup
+    public void setup() {
+        paragraph = paragraph(length, density);
+        other = paragraph(length / 2, density);
+    }
+
+    private static Paragraph<String, String, String> paragraph(int length, String density) {
+        // a single line, as the generated text's line terminators are replaced
+        String text = BenchmarkDocuments.text(length).replace('\n', ' ');
+        return new Paragraph<>("", BenchmarkDocuments.SEGMENT_OPS, text, BenchmarkDocuments.spans(text, density));
+    }
+
+    @Benchmark
+    public Object restyle() {
+        return paragraph.restyle(length / 3, 2 * length / 3, "highlight");
+    }
+
+    @Benchmark
+    public Object concat() {
+        return paragraph.concat(other);
+    }
+
+    @Benchmark
+    public Object subSequence() {
+        return paragraph.subSequence(length / 4, 3 * length / 4);
+    }
+}
@@ -0,0 +1,55 @@
+package org.fxmisc.richtext.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.fxmisc.richtext.model.StyleSpan;
+import org.fxmisc.richtext.model.StyleSpans;
+import org.fxmisc.richtext.model.StyleSpansBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the creation of {@link StyleSpans}, e.g. by a syntax highlighter, and their overlay.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StyleSpansBenchmark {
+
+    /** The length of the styled text: 1 KB, 1 MB and 100 MB */
+    @Param({ "1024", "1048576", "104857600" })
+    public int size;
+
+    @Param({ BenchmarkDocuments.PLAIN, BenchmarkDocuments.WORD, BenchmarkDocuments.CHAR })
+    public String density;
+
+    private List<StyleSpan<String>> spanList;
+    private StyleSpans<String> spans;
+    private StyleSpans<String> highlights;
+
+    @Setup
+    public void setup() {
+        String text = BenchmarkDocuments.text(size);
+        spans = BenchmarkDocuments.spans(text, density);
+        spanList = spans.stream().collect(Collectors.toList());
+        highlights = BenchmarkDocuments.spans(text, BenchmarkDocuments.WORD);
+    }
+
+    @Benchmark
+    public Object create() {
+        return new StyleSpansBuilder<String>(spanList.size()).addAll(spanList).create();
+    }
+
+    @Benchmark
+    public Object overlay() {
+        return spans.overlay(highlights, (style, highlight) -> highlight);
+    }
+}
@@ -0,0 +1,84 @@
+package org.fxmisc.richtext.benchmark.ui;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.layout.VBox;
+
+import org.fxmisc.richtext.InlineCssTextField;
+import org.fxmisc.richtext.StyleClassedTextField;
+
+/**
+ * Measures how long it takes to create many small fields at once, as in the cells of a table or in a property sheet:
+ * for each kind of field, it creates {@value #FIELD_COUNT} of them, puts them into a scene and lays it out, and prints
+ * the time and the bytes allocated for the construction and for the first CSS and layout pass. It is meant to be
+ * run headless with Monocle via {@code gradlew :richtextfx-benchmarks:fieldStartup}.
+ */
+public final class FieldStartup {
+
+    private static final int FIELD_COUNT = 1000;
+
+    private static final int RUNS = 5;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private FieldStartup() {}
+
+    public static void main(String[] args) throws Exception {
+        Platform.startup(() -> {});
+        try {
+            FrameRecorder.onFxThread(() -> {
+                for (int run = 0; run < RUNS; run++) {
+                    // the first runs warm up the classes, the CSS engine and the JIT
+                    boolean print = run == RUNS - 1;
+                    report(print, measure("StyleClassedTextField", () -> new StyleClassedTextField("value")));
+                    report(print, measure("InlineCssTextField", () -> new InlineCssTextField("value")));
+                }
+            });
+        } finally {
+            Platform.exit();
+        }
+    }
+
+    private static void report(boolean print, String result) {
+        if (print) {
+            System.out.println(result);
+        }
+    }
+
+    private static String measure(String name, Supplier<Node> factory) {
+        long thread = Thread.currentThread().getId();
+        long allocationStart = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+
+        List<Node> fields = new ArrayList<>(FIELD_COUNT);
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            fields.add(factory.get());
+        }
+
+        long constructed = System.nanoTime();
+        long constructionAllocated = THREADS.getThreadAllocatedBytes(thread) - allocationStart;
+
+        VBox root = new VBox();
+        root.getChildren().setAll(fields);
+        Scene scene = new Scene(root, 400, 600);
+        root.applyCss();
+        root.layout();
+
+        long laidOut = System.nanoTime();
+        long allocated = THREADS.getThreadAllocatedBytes(thread) - allocationStart;
+
+        // let the fields be collected before the next measurement
+        scene.setRoot(new VBox());
+        return String.format("%-22s %d fields: constructed in %6.1f ms (%7d B/field), shown in %6.1f ms (%7d B/field)",
+                name, FIELD_COUNT,
+                (constructed - start) / 1e6, constructionAllocated / FIELD_COUNT,
+                (laidOut - start) / 1e6, allocated / FIELD_COUNT);
+    }
+}
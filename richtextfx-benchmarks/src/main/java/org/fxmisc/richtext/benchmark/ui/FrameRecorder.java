@@ -0,0 +1,104 @@
+package org.fxmisc.richtext.benchmark.ui;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+
+/**
+ * Runs the steps of a workload on the JavaFX Application Thread, one step per pulse, and records for each step
+ * how long the CSS and layout passes of the following pulse took, how long it took from the start of the step
+ * to the end of those passes, and how many bytes the JavaFX Application Thread allocated in the meantime.
+ */
+final class FrameRecorder {
+
+    private static final long STEP_TIMEOUT_SECONDS = 60;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final Scene scene;
+
+    // only accessed on the JavaFX Application Thread
+    private long pulseStart;
+    private long stepStart;
+    private long stepAllocationStart;
+    private CountDownLatch pendingStep;
+    private WorkloadResult result;
+
+    private final Runnable preLayout = () -> pulseStart = System.nanoTime();
+    private final Runnable postLayout = this::pulseEnded;
+
+    FrameRecorder(Scene scene) {
+        this.scene = scene;
+    }
+
+    /**
+     * Runs {@code step} for each index from 0 to {@code stepCount} (exclusive), each on its own pulse.
+     */
+    WorkloadResult record(String name, int stepCount, StepAction step) throws InterruptedException {
+        result = new WorkloadResult(name, stepCount);
+        onFxThread(() -> {
+            scene.addPreLayoutPulseListener(preLayout);
+            scene.addPostLayoutPulseListener(postLayout);
+        });
+        try {
+            for (int i = 0; i < stepCount; i++) {
+                int index = i;
+                CountDownLatch done = new CountDownLatch(1);
+                Platform.runLater(() -> {
+                    pendingStep = done;
+                    stepAllocationStart = allocatedBytes();
+                    stepStart = System.nanoTime();
+                    step.run(index);
+                    Platform.requestNextPulse();
+                });
+                if (!done.await(STEP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Step " + index + " of " + name + " did not end with a pulse");
+                }
+            }
+        } finally {
+            onFxThread(() -> {
+                scene.removePreLayoutPulseListener(preLayout);
+                scene.removePostLayoutPulseListener(postLayout);
+            });
+        }
+        return result;
+    }
+
+    private void pulseEnded() {
+        if (pendingStep == null) {
+            return;
+        }
+        long end = System.nanoTime();
+        result.addFrame(end - pulseStart, end - stepStart, allocatedBytes() - stepAllocationStart);
+        pendingStep.countDown();
+        pendingStep = null;
+    }
+
+    private long allocatedBytes() {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Runs the given action on the JavaFX Application Thread and waits for it to finish.
+     */
+    static void onFxThread(Runnable action) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        Platform.runLater(() -> {
+            try {
+                action.run();
+            } finally {
+                done.countDown();
+            }
+        });
+        done.await();
+    }
+
+    @FunctionalInterface
+    interface StepAction {
+        void run(int index);
+    }
+}
@@ -0,0 +1,82 @@
+package org.fxmisc.richtext.benchmark.ui;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import javafx.application.Platform;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.scene.text.Text;
+
+import org.fxmisc.richtext.TextExt;
+
+/**
+ * Compares the per-node footprint of a plain {@link Text} with that of a {@link TextExt}, undecorated and with an
+ * underline, as the segments of an area are: for each kind of node, it creates many of them in a scene, applies
+ * CSS to them and prints the bytes allocated and retained per node. It is meant to be run headless with Monocle via
+ * {@code gradlew :richtextfx-benchmarks:nodeFootprint}.
+ */
+public final class NodeFootprint {
+
+    private static final int NODE_COUNT = 100_000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private NodeFootprint() {}
+
+    public static void main(String[] args) throws Exception {
+        Platform.startup(() -> {});
+        try {
+            FrameRecorder.onFxThread(() -> {
+                // warm up the CSS engine and the classes of the nodes
+                measure("warm-up", () -> new TextExt("token"));
+
+                System.out.println(measure("Text", () -> new Text("token")));
+                System.out.println(measure("TextExt", () -> new TextExt("token")));
+                System.out.println(measure("TextExt (underlined)", () -> {
+                    TextExt text = new TextExt("token");
+                    text.setStyle("-rtfx-underline-color: red; -rtfx-underline-width: 1;");
+                    return text;
+                }));
+            });
+        } finally {
+            Platform.exit();
+        }
+    }
+
+    private static String measure(String name, Supplier<Text> factory) {
+        long retainedStart = usedHeap();
+        long allocationStart = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+
+        List<Text> nodes = new ArrayList<>(NODE_COUNT);
+        for (int i = 0; i < NODE_COUNT; i++) {
+            nodes.add(factory.get());
+        }
+        Group group = new Group(nodes);
+        Scene scene = new Scene(group);
+        group.applyCss();
+
+        long allocated = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocationStart;
+        long retained = usedHeap() - retainedStart;
+        String result = String.format("%-22s allocated %6d B/node, retained %6d B/node",
+                name, allocated / NODE_COUNT, retained / NODE_COUNT);
+
+        // keep the nodes reachable until the retained size was measured
+        scene.setRoot(new Group());
+        nodes.clear();
+        return result;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
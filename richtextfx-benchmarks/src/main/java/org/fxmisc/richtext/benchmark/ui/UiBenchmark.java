@@ -0,0 +1,117 @@
+package org.fxmisc.richtext.benchmark.ui;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+import org.fxmisc.flowless.VirtualizedScrollPane;
+import org.fxmisc.richtext.CodeArea;
+import org.fxmisc.richtext.GenericStyledArea;
+import org.fxmisc.richtext.InlineCssTextArea;
+
+/**
+ * Drives a {@link CodeArea} or an {@link InlineCssTextArea} through the scripted {@link Workloads} and records
+ * the duration of the CSS and layout passes of each frame, the latency of each step and the bytes allocated on
+ * the JavaFX Application Thread. It is meant to be run headless with Monocle via
+ * {@code gradlew :richtextfx-benchmarks:uiBenchmark}.
+ *
+ * <p>Arguments: {@code --area=code} (default) or {@code --area=inline}, {@code --out=<file>} to write the results
+ * as JSON, and optionally the names of the workloads to run (all of them by default). Each workload is run once
+ * to warm up before it is recorded.</p>
+ */
+public final class UiBenchmark {
+
+    private UiBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        String areaKind = "code";
+        Path out = null;
+        List<String> workloadNames = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--area=")) {
+                areaKind = arg.substring("--area=".length());
+            } else if (arg.startsWith("--out=")) {
+                out = Paths.get(arg.substring("--out=".length()));
+            } else {
+                workloadNames.add(arg);
+            }
+        }
+
+        Platform.startup(() -> {});
+        List<WorkloadResult> results;
+        try {
+            results = "inline".equals(areaKind)
+                    ? run(new InlineCssTextArea(), UiBenchmark::inlineStyle, workloadNames)
+                    : run(new CodeArea(), token -> Collections.singletonList(token), workloadNames);
+        } finally {
+            Platform.exit();
+        }
+
+        results.forEach(result -> System.out.println(result.toSummary()));
+        if (out != null) {
+            writeJson(out, areaKind, results);
+        }
+    }
+
+    private static <S> List<WorkloadResult> run(GenericStyledArea<?, String, S> area,
+                                                Function<String, S> styleOfToken,
+                                                List<String> workloadNames) throws InterruptedException {
+        Stage[] stage = new Stage[1];
+        Scene[] scene = new Scene[1];
+        FrameRecorder.onFxThread(() -> {
+            scene[0] = new Scene(new VirtualizedScrollPane<>(area), 800, 600);
+            stage[0] = new Stage();
+            stage[0].setScene(scene[0]);
+            stage[0].show();
+        });
+
+        Workloads<S> workloads = new Workloads<>(area, stage[0], styleOfToken);
+        FrameRecorder recorder = new FrameRecorder(scene[0]);
+        List<WorkloadResult> results = new ArrayList<>();
+        for (Workloads.Workload workload : workloads.all()) {
+            if (!workloadNames.isEmpty() && !workloadNames.contains(workload.getName())) {
+                continue;
+            }
+            for (boolean warmUp : new boolean[] { true, false }) {
+                FrameRecorder.onFxThread(workload.getSetup());
+                WorkloadResult result = recorder.record(workload.getName(), workload.getStepCount(), workload.getStep());
+                if (!warmUp) {
+                    results.add(result);
+                }
+            }
+        }
+
+        FrameRecorder.onFxThread(() -> stage[0].close());
+        return results;
+    }
+
+    private static String inlineStyle(String token) {
+        switch (token) {
+            case "keyword": return "-fx-fill: #7f0055; -fx-font-weight: bold;";
+            case "number":  return "-fx-fill: #1d1dcc;";
+            default:        return "-fx-fill: #3f7f5f; -fx-font-style: italic;";
+        }
+    }
+
+    private static void writeJson(Path out, String areaKind, List<WorkloadResult> results) throws IOException {
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        String json = "{\"area\": \"" + areaKind + "\", \"workloads\": [\n  "
+                + results.stream().map(WorkloadResult::toJson).collect(Collectors.joining(",\n  "))
+                + "\n]}\n";
+        Files.write(out, Arrays.asList(json.split("\n")), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,82 @@
+package org.fxmisc.richtext.benchmark.ui;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * The frames recorded for one workload.
+ */
+final class WorkloadResult {
+
+    private final String name;
+    private final long[] pulseNanos;
+    private final long[] stepNanos;
+    private final long[] allocatedBytes;
+    private int frameCount = 0;
+
+    WorkloadResult(String name, int stepCount) {
+        this.name = name;
+        this.pulseNanos = new long[stepCount];
+        this.stepNanos = new long[stepCount];
+        this.allocatedBytes = new long[stepCount];
+    }
+
+    void addFrame(long pulseNanos, long stepNanos, long allocatedBytes) {
+        this.pulseNanos[frameCount] = pulseNanos;
+        this.stepNanos[frameCount] = stepNanos;
+        this.allocatedBytes[frameCount] = allocatedBytes;
+        frameCount++;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Returns a one-line summary of the frames, in milliseconds and megabytes.
+     */
+    String toSummary() {
+        return String.format(Locale.ROOT,
+                "%-22s frames %5d | pulse ms p50 %7.2f p95 %7.2f p99 %7.2f max %8.2f | step ms p50 %7.2f p99 %8.2f | alloc MB/frame %8.3f",
+                name, frameCount,
+                millis(percentile(pulseNanos, 50)), millis(percentile(pulseNanos, 95)),
+                millis(percentile(pulseNanos, 99)), millis(percentile(pulseNanos, 100)),
+                millis(percentile(stepNanos, 50)), millis(percentile(stepNanos, 99)),
+                mean(allocatedBytes) / (1024.0 * 1024.0));
+    }
+
+    /**
+     * Returns the frames as a JSON object, so that the results of different commits can be compared.
+     */
+    String toJson() {
+        return String.format(Locale.ROOT,
+                "{\"workload\": \"%s\", \"frames\": %d, "
+                        + "\"pulseNanos\": {\"p50\": %d, \"p95\": %d, \"p99\": %d, \"max\": %d, \"mean\": %.1f}, "
+                        + "\"stepNanos\": {\"p50\": %d, \"p95\": %d, \"p99\": %d, \"max\": %d, \"mean\": %.1f}, "
+                        + "\"allocatedBytes\": {\"total\": %d, \"meanPerFrame\": %.1f}}",
+                name, frameCount,
+                percentile(pulseNanos, 50), percentile(pulseNanos, 95), percentile(pulseNanos, 99),
+                percentile(pulseNanos, 100), mean(pulseNanos),
+                percentile(stepNanos, 50), percentile(stepNanos, 95), percentile(stepNanos, 99),
+                percentile(stepNanos, 100), mean(stepNanos),
+                Arrays.stream(allocatedBytes, 0, frameCount).sum(), mean(allocatedBytes));
+    }
+
+    private long percentile(long[] values, int percentile) {
+        if (frameCount == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(values, frameCount);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * frameCount) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private double mean(long[] values) {
+        return Arrays.stream(values, 0, frameCount).average().orElse(0);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,179 @@
+package org.fxmisc.richtext.benchmark.ui;
+
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javafx.stage.Stage;
+
+import org.fxmisc.richtext.GenericStyledArea;
+import org.fxmisc.richtext.NavigationActions.SelectionPolicy;
+import org.fxmisc.richtext.model.StyleSpans;
+import org.fxmisc.richtext.model.StyleSpansBuilder;
+
+/**
+ * The scripted workloads of the {@link UiBenchmark}. Each workload prepares the area without being recorded and
+ * then runs its steps, one per pulse.
+ *
+ * @param <S> the segment style of the area
+ */
+final class Workloads<S> {
+
+    /**
+     * A named sequence of steps.
+     */
+    static final class Workload {
+        private final String name;
+        private final int stepCount;
+        private final Runnable setup;
+        private final FrameRecorder.StepAction step;
+
+        Workload(String name, int stepCount, Runnable setup, FrameRecorder.StepAction step) {
+            this.name = name;
+            this.stepCount = stepCount;
+            this.setup = setup;
+            this.step = step;
+        }
+
+        String getName() { return name; }
+        int getStepCount() { return stepCount; }
+        Runnable getSetup() { return setup; }
+        FrameRecorder.StepAction getStep() { return step; }
+    }
+
+    private static final Pattern TOKEN = Pattern.compile(
+            "(?<KEYWORD>\\b(?:int|return|if|else|for|new|final|static|public|void)\\b)"
+                    + "|(?<NUMBER>\\b\\d+\\b)"
+                    + "|(?<COMMENT>//[^\\n]*)");
+
+    private static final String TYPED = "int x = 42; // typed\n";
+
+    private final GenericStyledArea<?, String, S> area;
+    private final Stage stage;
+    private final Function<String, S> styleOfToken;
+
+    /**
+     * @param styleOfToken the style of a token: "keyword", "number" or "comment"
+     */
+    Workloads(GenericStyledArea<?, String, S> area, Stage stage, Function<String, S> styleOfToken) {
+        this.area = area;
+        this.stage = stage;
+        this.styleOfToken = styleOfToken;
+    }
+
+    Workload[] all() {
+        return new Workload[] { typing(), paging(), resizeWithWrap(), selectAllAndDelete(), rehighlight() };
+    }
+
+    /**
+     * Types a burst of characters, including line breaks, in the middle of a highlighted document.
+     */
+    Workload typing() {
+        return new Workload("typing", 1000,
+                () -> {
+                    load(lines(10_000, 1));
+                    area.setStyleSpans(0, highlight(area.getText()));
+                    area.moveTo(area.getLength() / 2);
+                    area.requestFollowCaret();
+                },
+                i -> area.replaceSelection(String.valueOf(TYPED.charAt(i % TYPED.length()))));
+    }
+
+    /**
+     * Pages down through a document of a million lines.
+     */
+    Workload paging() {
+        return new Workload("paging-1M-lines", 500,
+                () -> {
+                    load(lines(1_000_000, 1));
+                    area.moveTo(0);
+                    area.showParagraphAtTop(0);
+                },
+                i -> area.nextPage(SelectionPolicy.CLEAR));
+    }
+
+    /**
+     * Resizes the window back and forth while long lines are wrapped.
+     */
+    Workload resizeWithWrap() {
+        return new Workload("resize-with-wrap", 200,
+                () -> {
+                    load(lines(10_000, 4));
+                    area.setWrapText(true);
+                    area.showParagraphAtTop(0);
+                },
+                i -> stage.setWidth(400 + (i % 20) * 30));
+    }
+
+    /**
+     * Selects and deletes the whole document, alternating with reloading it.
+     */
+    Workload selectAllAndDelete() {
+        String text = lines(100_000, 1);
+        return new Workload("select-all-delete", 20,
+                () -> {
+                    area.setWrapText(false);
+                    stage.setWidth(800);
+                    load(text);
+                },
+                i -> {
+                    if (i % 2 == 0) {
+                        area.selectAll();
+                        area.deleteText(area.getSelection());
+                    } else {
+                        load(text);
+                    }
+                });
+    }
+
+    /**
+     * Highlights the whole document again, as a syntax highlighter does after each edit.
+     */
+    Workload rehighlight() {
+        return new Workload("full-rehighlight", 50,
+                () -> load(lines(10_000, 1)),
+                i -> area.setStyleSpans(0, highlight(area.getText())));
+    }
+
+    private void load(String text) {
+        area.replaceText(text);
+        area.getUndoManager().forgetHistory();
+    }
+
+    /**
+     * Returns {@code count} lines of code, each made of {@code statementsPerLine} statements.
+     */
+    private static String lines(int count, int statementsPerLine) {
+        StringBuilder sb = new StringBuilder(count * 40 * statementsPerLine);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append('\n');
+            }
+            sb.append("    ");
+            for (int j = 0; j < statementsPerLine; j++) {
+                sb.append("final int value").append(j).append(" = compute(").append(i).append(") + 42; ");
+            }
+            if (i % 5 == 0) {
+                sb.append("// line ").append(i);
+            }
+        }
+        return sb.toString();
+    }
+
+    private StyleSpans<S> highlight(String text) {
+        Matcher matcher = TOKEN.matcher(text);
+        S defaultStyle = area.getInitialTextStyle();
+        StyleSpansBuilder<S> spans = new StyleSpansBuilder<>();
+        int end = 0;
+        while (matcher.find()) {
+            String token = matcher.group("KEYWORD") != null ? "keyword"
+                    : matcher.group("NUMBER") != null ? "number"
+                    : "comment";
+            spans.add(defaultStyle, matcher.start() - end);
+            spans.add(styleOfToken.apply(token), matcher.end() - matcher.start());
+            end = matcher.end();
+        }
+        spans.add(defaultStyle, text.length() - end);
+        return spans.create();
+    }
+}
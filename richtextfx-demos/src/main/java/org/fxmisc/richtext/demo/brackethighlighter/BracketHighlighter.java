@@ -28,6 +28,7 @@ public class BracketHighlighter {
         this.codeArea = codeArea;
 
         this.bracketPairs = new ArrayList<>();
+        this.codeArea.setBracketPairs(BRACKET_PAIRS);
 
         // listen for changes in text or caret position
         this.codeArea.addTextInsertionListener((start, end, text) -> clearBracket());
@@ -76,31 +77,8 @@ public class BracketHighlighter {
      * @return null or position of matching bracket
      */
     private Integer getMatchingBracket(int index) {
-        if (index < 0 || index >= codeArea.getLength()) return null;
-
-        char initialBracket = codeArea.getText(index, index + 1).charAt(0);
-        int bracketTypePosition = BRACKET_PAIRS.indexOf(initialBracket); // "(){}[]<>"
-        if (bracketTypePosition < 0) return null;
-
-        // even numbered bracketTypePositions are opening brackets, and odd positions are closing
-        // if even (opening bracket) then step forwards, otherwise step backwards
-        int stepDirection = ( bracketTypePosition % 2 == 0 ) ? +1 : -1;
-
-        // the matching bracket to look for, the opposite of initialBracket
-        char match = BRACKET_PAIRS.charAt(bracketTypePosition + stepDirection);
-
-        index += stepDirection;
-        int bracketCount = 1;
-
-        while (index > -1 && index < codeArea.getLength()) {
-            char code = codeArea.getText(index, index + 1).charAt(0);
-            if (code == initialBracket) bracketCount++;
-            else if (code == match) bracketCount--;
-            if (bracketCount == 0) return index;
-            else index += stepDirection;
-        }
-
-        return null;
+        int match = codeArea.findMatchingBracket(index);
+        return match == -1 ? null : match;
     }
     
     /**
@@ -0,0 +1,148 @@
+package org.fxmisc.richtext;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javafx.stage.Stage;
+import org.junit.After;
+import org.junit.Test;
+import org.reactfx.EventSource;
+import org.reactfx.Subscription;
+import org.testfx.util.WaitForAsyncUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BoundsCoalescingTests extends InlineCssTextAreaAppTest {
+
+    private final EventSource<Void> invalidations = new EventSource<>();
+    private final AtomicInteger emitted = new AtomicInteger();
+    private Subscription subscription = Subscription.EMPTY;
+
+    @Override
+    public void start(Stage stage) throws Exception {
+        super.start(stage);
+        area.replaceText("first line\nsecond line\nthird line");
+    }
+
+    @After
+    public void unsubscribe() {
+        interact(() -> subscription.unsubscribe());
+    }
+
+    private void observe(GenericStyledArea<?, ?, ?> area) {
+        subscription = area.boundsInvalidations(invalidations).subscribe(any -> emitted.incrementAndGet());
+    }
+
+    /** Waits until a pulse has laid out the scene */
+    private void waitForPulse() {
+        sleep(100);
+        WaitForAsyncUtils.waitForFxEvents();
+    }
+
+    @Test
+    public void without_coalescing_each_invalidation_is_passed_on_immediately() {
+        interact(() -> {
+            observe(area);
+            assertEquals("nothing is emitted on subscription", 0, emitted.get());
+
+            invalidations.push(null);
+            assertEquals(1, emitted.get());
+            invalidations.push(null);
+            invalidations.push(null);
+            assertEquals(3, emitted.get());
+        });
+
+        waitForPulse();
+        assertEquals("nothing is emitted after the pulse", 3, emitted.get());
+    }
+
+    @Test
+    public void with_coalescing_the_invalidations_of_a_pulse_are_emitted_once_after_it() {
+        interact(() -> {
+            area.setCoalesceBoundsUpdates(true);
+            observe(area);
+
+            invalidations.push(null);
+            invalidations.push(null);
+            invalidations.push(null);
+            assertEquals(0, emitted.get());
+        });
+
+        waitForPulse();
+        assertEquals(1, emitted.get());
+
+        interact(() -> invalidations.push(null));
+        waitForPulse();
+        assertEquals(2, emitted.get());
+
+        // no pulse is requested without invalidations
+        waitForPulse();
+        assertEquals(2, emitted.get());
+    }
+
+    @Test
+    public void with_coalescing_the_invalidations_of_an_area_without_scene_are_passed_on_immediately() {
+        interact(() -> {
+            InlineCssTextArea detached = new InlineCssTextArea("text");
+            detached.setCoalesceBoundsUpdates(true);
+            observe(detached);
+
+            invalidations.push(null);
+            invalidations.push(null);
+            assertEquals(2, emitted.get());
+        });
+    }
+
+    @Test
+    public void toggling_coalescing_is_an_invalidation() {
+        interact(() -> {
+            observe(area);
+            area.setCoalesceBoundsUpdates(true);
+            assertEquals(1, emitted.get());
+
+            // the pending invalidation is not lost when coalescing is turned off before the pulse
+            invalidations.push(null);
+            area.setCoalesceBoundsUpdates(false);
+            assertEquals(2, emitted.get());
+
+            invalidations.push(null);
+            assertEquals(3, emitted.get());
+        });
+    }
+
+    @Test
+    public void caret_bounds_are_updated_once_per_pulse_when_coalescing() {
+        AtomicInteger boundsChanges = new AtomicInteger();
+        interact(() -> {
+            area.setCoalesceBoundsUpdates(true);
+            area.caretBoundsProperty().addListener((obs, ov, nv) -> boundsChanges.incrementAndGet());
+        });
+        waitForPulse();
+        boundsChanges.set(0);
+
+        interact(() -> {
+            area.moveTo(1, 2);
+            area.moveTo(2, 4);
+            assertEquals(0, boundsChanges.get());
+        });
+        waitForPulse();
+
+        assertEquals(1, boundsChanges.get());
+        interact(() -> assertTrue(area.getCaretBounds().isPresent()));
+    }
+
+    @Test
+    public void caret_bounds_are_updated_on_each_move_without_coalescing() {
+        AtomicInteger boundsChanges = new AtomicInteger();
+        interact(() -> area.caretBoundsProperty().addListener((obs, ov, nv) -> boundsChanges.incrementAndGet()));
+        waitForPulse();
+        boundsChanges.set(0);
+
+        interact(() -> {
+            area.moveTo(1, 2);
+            assertEquals(1, boundsChanges.get());
+            area.moveTo(2, 4);
+            assertEquals(2, boundsChanges.get());
+        });
+    }
+}
@@ -0,0 +1,140 @@
+package org.fxmisc.richtext;
+
+import javafx.animation.Animation;
+import javafx.animation.Timeline;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CaretBlinkClockTests extends InlineCssTextAreaAppTest {
+
+    // rates that no other caret uses, so that the tests only see the clocks of their carets
+    private static final Duration RATE = Duration.millis(1234);
+    private static final Duration OTHER_RATE = Duration.millis(4321);
+
+    @Override
+    public void start(Stage stage) throws Exception {
+        super.start(stage);
+        area.replaceText("first line\nsecond line");
+    }
+
+    private CaretNode blinkingCaret(InlineCssTextArea area, Duration rate) {
+        CaretNode caret = new CaretNode("blinking caret " + rate, area, 0);
+        caret.setBlinkRate(rate);
+        caret.setShowCaret(Caret.CaretVisibility.ON);
+        return caret;
+    }
+
+    @Test
+    public void carets_with_the_same_rate_share_a_timeline() {
+        interact(() -> {
+            CaretNode first = blinkingCaret(area, RATE);
+            CaretNode second = blinkingCaret(area, RATE);
+            CaretNode other = blinkingCaret(area, OTHER_RATE);
+            assertTrue(area.addCaret(first));
+            assertTrue(area.addCaret(second));
+            assertTrue(area.addCaret(other));
+            area.layout();
+
+            Timeline timeline = CaretBlinkClock.getTimeline(RATE);
+            assertNotNull(timeline);
+            assertEquals(Animation.Status.RUNNING, timeline.getStatus());
+            assertNotNull(CaretBlinkClock.getTimeline(OTHER_RATE));
+            assertNotSame(timeline, CaretBlinkClock.getTimeline(OTHER_RATE));
+
+            assertTrue(area.removeCaret(other));
+            area.layout();
+            assertNull(CaretBlinkClock.getTimeline(OTHER_RATE));
+            assertSame(timeline, CaretBlinkClock.getTimeline(RATE));
+        });
+    }
+
+    @Test
+    public void timeline_is_stopped_and_removed_when_its_last_caret_is_removed() {
+        interact(() -> {
+            CaretNode first = blinkingCaret(area, RATE);
+            CaretNode second = blinkingCaret(area, RATE);
+            assertTrue(area.addCaret(first));
+            assertTrue(area.addCaret(second));
+            area.layout();
+            Timeline timeline = CaretBlinkClock.getTimeline(RATE);
+            assertNotNull(timeline);
+
+            assertTrue(area.removeCaret(first));
+            area.layout();
+            assertSame(timeline, CaretBlinkClock.getTimeline(RATE));
+            assertEquals(Animation.Status.RUNNING, timeline.getStatus());
+
+            assertTrue(area.removeCaret(second));
+            area.layout();
+            assertEquals(Animation.Status.STOPPED, timeline.getStatus());
+            assertNull(CaretBlinkClock.getTimeline(RATE));
+        });
+    }
+
+    @Test
+    public void timeline_is_stopped_when_its_last_caret_stops_blinking() {
+        interact(() -> {
+            CaretNode caret = blinkingCaret(area, RATE);
+            assertTrue(area.addCaret(caret));
+            area.layout();
+            Timeline timeline = CaretBlinkClock.getTimeline(RATE);
+            assertNotNull(timeline);
+
+            caret.setShowCaret(Caret.CaretVisibility.OFF);
+            assertEquals(Animation.Status.STOPPED, timeline.getStatus());
+            assertNull(CaretBlinkClock.getTimeline(RATE));
+            assertFalse(caret.isVisible());
+
+            // blinking again creates a new clock
+            caret.setShowCaret(Caret.CaretVisibility.ON);
+            assertNotNull(CaretBlinkClock.getTimeline(RATE));
+            assertTrue(caret.isVisible());
+        });
+    }
+
+    @Test
+    public void caret_in_a_hidden_window_does_not_blink() {
+        interact(() -> {
+            InlineCssTextArea hiddenArea = new InlineCssTextArea("text");
+            Stage hiddenStage = new Stage();
+            hiddenStage.setScene(new Scene(hiddenArea, 200, 100));
+
+            CaretNode caret = blinkingCaret(hiddenArea, RATE);
+            assertTrue(hiddenArea.addCaret(caret));
+            hiddenArea.layout();
+            assertNull(CaretBlinkClock.getTimeline(RATE));
+            assertFalse(caret.isVisible());
+
+            hiddenStage.show();
+            try {
+                hiddenArea.layout();
+                assertNotNull(CaretBlinkClock.getTimeline(RATE));
+            } finally {
+                hiddenStage.hide();
+            }
+            assertNull(CaretBlinkClock.getTimeline(RATE));
+            assertFalse(caret.isVisible());
+        });
+    }
+
+    @Test
+    public void clocks_can_only_be_used_on_the_fx_thread() {
+        try {
+            CaretBlinkClock.getTimeline(RATE);
+            fail("The clocks should not be accessible from " + Thread.currentThread().getName());
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package org.fxmisc.richtext;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javafx.css.PseudoClass;
+import javafx.stage.Stage;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CellStateDispatcherTests extends InlineCssTextAreaAppTest {
+
+    @Override
+    public void start(Stage stage) throws Exception {
+        super.start(stage);
+        area.replaceText("first\nsecond\nthird");
+    }
+
+    /**
+     * Returns the shown cells of the given paragraph, of which there should be exactly one.
+     */
+    @SuppressWarnings("unchecked")
+    private ParagraphBox<String, String, String> cellOf(int paragraph) {
+        List<ParagraphBox<String, String, String>> boxes = area.lookupAll(".paragraph-box").stream()
+                .map(node -> (ParagraphBox<String, String, String>) node)
+                .filter(box -> box.isVisible() && box.getIndex() == paragraph)
+                .collect(Collectors.toList());
+        assertEquals("cells of paragraph " + paragraph, 1, boxes.size());
+        return boxes.get(0);
+    }
+
+    private boolean has(int paragraph, PseudoClass pseudoClass) {
+        return cellOf(paragraph).getPseudoClassStates().contains(pseudoClass);
+    }
+
+    private boolean shows(int paragraph, CaretNode caret) {
+        return cellOf(paragraph).caretsProperty().contains(caret);
+    }
+
+    private void setLines(int count) {
+        area.replaceText(IntStream.range(0, count).mapToObj(i -> "line " + i).collect(Collectors.joining("\n")));
+    }
+
+    @Test
+    public void first_and_last_cells_have_their_pseudo_classes() {
+        interact(() -> {
+            assertTrue(has(0, CellStateDispatcher.FIRST_PAR));
+            assertFalse(has(0, CellStateDispatcher.LAST_PAR));
+            assertFalse(has(1, CellStateDispatcher.FIRST_PAR));
+            assertFalse(has(1, CellStateDispatcher.LAST_PAR));
+            assertTrue(has(2, CellStateDispatcher.LAST_PAR));
+        });
+    }
+
+    @Test
+    public void adding_and_removing_paragraphs_moves_the_last_paragraph() {
+        interact(() -> {
+            area.appendText("\nfourth");
+            area.layout();
+        });
+        interact(() -> {
+            assertFalse(has(2, CellStateDispatcher.LAST_PAR));
+            assertTrue(has(3, CellStateDispatcher.LAST_PAR));
+        });
+
+        interact(() -> {
+            area.deleteText(area.getAbsolutePosition(1, area.getParagraphLength(1)), area.getLength());
+            area.layout();
+        });
+        interact(() -> {
+            assertTrue(has(0, CellStateDispatcher.FIRST_PAR));
+            assertTrue(has(1, CellStateDispatcher.LAST_PAR));
+            assertFalse(has(0, CellStateDispatcher.LAST_PAR));
+        });
+    }
+
+    @Test
+    public void only_the_current_paragraph_has_the_caret_pseudo_class() {
+        interact(() -> area.moveTo(0));
+        interact(() -> {
+            assertTrue(has(0, CellStateDispatcher.HAS_CARET));
+            assertFalse(has(1, CellStateDispatcher.HAS_CARET));
+        });
+
+        interact(() -> area.moveTo(2, 1));
+        interact(() -> {
+            assertFalse(has(0, CellStateDispatcher.HAS_CARET));
+            assertFalse(has(1, CellStateDispatcher.HAS_CARET));
+            assertTrue(has(2, CellStateDispatcher.HAS_CARET));
+        });
+
+        // an edit before the caret moves it to the next paragraph
+        interact(() -> {
+            area.insertText(0, "new\n");
+            area.layout();
+        });
+        interact(() -> {
+            assertEquals(3, area.getCurrentParagraph());
+            assertFalse(has(2, CellStateDispatcher.HAS_CARET));
+            assertTrue(has(3, CellStateDispatcher.HAS_CARET));
+        });
+    }
+
+    @Test
+    public void added_caret_is_shown_by_the_cell_of_its_paragraph_only() {
+        CaretNode caret = new CaretNode("extra caret", area, area.getAbsolutePosition(1, 2));
+        interact(() -> assertTrue(area.addCaret(caret)));
+        interact(() -> {
+            assertTrue(shows(1, caret));
+            assertFalse(shows(0, caret));
+            assertFalse(shows(2, caret));
+        });
+
+        interact(() -> assertTrue(area.removeCaret(caret)));
+        interact(() -> {
+            assertFalse(shows(0, caret));
+            assertFalse(shows(1, caret));
+            assertFalse(shows(2, caret));
+        });
+    }
+
+    @Test
+    public void carets_follow_their_paragraph_after_edits() {
+        CaretNode caret = new CaretNode("extra caret", area, area.getAbsolutePosition(1, 2));
+        interact(() -> assertTrue(area.addCaret(caret)));
+
+        interact(() -> {
+            area.insertText(0, "new\nlines\n");
+            area.layout();
+        });
+        interact(() -> {
+            assertEquals(3, caret.getParagraphIndex());
+            assertFalse(shows(1, caret));
+            assertTrue(shows(3, caret));
+        });
+
+        interact(() -> {
+            caret.moveTo(0);
+            area.layout();
+        });
+        interact(() -> {
+            assertTrue(shows(0, caret));
+            assertFalse(shows(3, caret));
+        });
+    }
+
+    @Test
+    public void cells_shown_after_scrolling_get_the_state_of_their_paragraph() {
+        interact(() -> setLines(200));
+        CaretNode caret = new CaretNode("extra caret", area, area.getAbsolutePosition(150, 0));
+        interact(() -> {
+            assertTrue(area.addCaret(caret));
+            area.moveTo(151, 0);
+            area.showParagraphAtTop(149);
+            area.layout();
+        });
+        interact(() -> {
+            assertTrue(shows(150, caret));
+            assertFalse(shows(151, caret));
+            assertTrue(has(151, CellStateDispatcher.HAS_CARET));
+            assertFalse(has(150, CellStateDispatcher.HAS_CARET));
+            assertFalse(has(150, CellStateDispatcher.FIRST_PAR));
+        });
+
+        interact(() -> {
+            area.showParagraphAtBottom(199);
+            area.layout();
+        });
+        interact(() -> {
+            assertTrue(has(199, CellStateDispatcher.LAST_PAR));
+            assertFalse(has(198, CellStateDispatcher.LAST_PAR));
+        });
+
+        interact(() -> {
+            area.showParagraphAtTop(0);
+            area.layout();
+        });
+        interact(() -> {
+            assertTrue(has(0, CellStateDispatcher.FIRST_PAR));
+            assertFalse(has(1, CellStateDispatcher.FIRST_PAR));
+            assertFalse(has(0, CellStateDispatcher.HAS_CARET));
+            assertFalse(shows(0, caret));
+        });
+    }
+}
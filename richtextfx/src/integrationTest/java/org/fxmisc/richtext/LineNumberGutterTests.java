@@ -0,0 +1,91 @@
+package org.fxmisc.richtext;
+
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.BorderPane;
+import javafx.stage.Stage;
+import org.fxmisc.flowless.VirtualizedScrollPane;
+import org.junit.Before;
+import org.junit.Test;
+import org.testfx.util.WaitForAsyncUtils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LineNumberGutterTests extends InlineCssTextAreaAppTest {
+
+    private LineNumberGutter gutter;
+
+    @Override
+    public void start(Stage stage) throws Exception {
+        super.start(stage);
+        gutter = new LineNumberGutter(area);
+        BorderPane root = new BorderPane(new VirtualizedScrollPane<>(area));
+        root.setLeft(gutter);
+        scene.setRoot(root);
+        area.requestFocus();
+    }
+
+    @Before
+    public void setup() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            sb.append(i == 0 ? "" : "\n").append("paragraph ").append(i);
+        }
+        interact(() -> area.replaceText(sb.toString()));
+        WaitForAsyncUtils.waitForFxEvents();
+    }
+
+    /** Returns the painted paragraphs, which are painted after the layout of the next pulse */
+    private int[] paintedParagraphs(int count) {
+        WaitForAsyncUtils.waitForFxEvents();
+        int[] painted = gutter.getPaintedParagraphs();
+        assertTrue("only " + painted.length + " rows are painted", painted.length >= count);
+        int[] first = new int[count];
+        System.arraycopy(painted, 0, first, 0, count);
+        return first;
+    }
+
+    @Test
+    public void numbers_follow_the_viewport_when_it_is_scrolled() {
+        assertArrayEquals(new int[] { 0, 1, 2, 3 }, paintedParagraphs(4));
+
+        interact(() -> area.showParagraphAtTop(20));
+        assertArrayEquals(new int[] { 20, 21, 22, 23 }, paintedParagraphs(4));
+
+        interact(() -> area.showParagraphAtTop(0));
+        assertArrayEquals(new int[] { 0, 1, 2, 3 }, paintedParagraphs(4));
+    }
+
+    @Test
+    public void collapsed_paragraphs_are_skipped_and_expanded_by_their_fold_marker() {
+        interact(() -> area.collapseParagraphs(1, 3));
+        assertArrayEquals(new int[] { 0, 1, 4, 5 }, paintedParagraphs(4));
+        assertTrue(gutter.isFoldMarkerPainted(1));
+        assertFalse(gutter.isFoldMarkerPainted(0));
+
+        Point2D marker = interact(() -> {
+            Bounds gutterBounds = gutter.localToScreen(gutter.getBoundsInLocal());
+            Bounds paragraphBounds = area.getParagraphBoundsOnScreen(1).get();
+            return new Point2D(gutterBounds.getMaxX() - 2, paragraphBounds.getCenterY());
+        });
+        moveTo(marker).clickOn(MouseButton.PRIMARY);
+
+        assertFalse(area.isParagraphCollapsed(2));
+        assertArrayEquals(new int[] { 0, 1, 2, 3 }, paintedParagraphs(4));
+        assertFalse(gutter.isFoldMarkerPainted(1));
+    }
+
+    @Test
+    public void paragraphs_folded_by_their_style_are_skipped_without_a_fold_marker() {
+        interact(() -> area.foldParagraphs(1, 3));
+        assertArrayEquals(new int[] { 0, 1, 4, 5 }, paintedParagraphs(4));
+        assertFalse(gutter.isFoldMarkerPainted(1));
+
+        interact(() -> area.unfoldParagraphs(1));
+        assertArrayEquals(new int[] { 0, 1, 2, 3 }, paintedParagraphs(4));
+    }
+}
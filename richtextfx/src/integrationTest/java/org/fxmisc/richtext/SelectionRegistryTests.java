@@ -0,0 +1,158 @@
+package org.fxmisc.richtext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javafx.stage.Stage;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SelectionRegistryTests extends InlineCssTextAreaAppTest {
+
+    private static final int LINES = 200;
+
+    private final List<Selection<String, String, String>> selections = new ArrayList<>();
+
+    @Override
+    public void start(Stage stage) throws Exception {
+        super.start(stage);
+
+        area.replaceText(IntStream.range(0, LINES)
+                .mapToObj(i -> String.format("line %03d", i))
+                .collect(Collectors.joining("\n")));
+
+        // one selection over the text of each line
+        for (int i = 0; i < LINES; i++) {
+            Selection<String, String, String> selection = new SelectionImpl<>("selection-" + i, area);
+            area.addSelection(selection);
+            selection.selectRange(i, 0, i, area.getParagraphLength(i));
+            selections.add(selection);
+        }
+    }
+
+    private void assertSelectsLine(int selection, int paragraph) {
+        Selection<String, String, String> s = selections.get(selection);
+        assertEquals(paragraph, s.getStartParagraphIndex());
+        assertEquals(paragraph, s.getEndParagraphIndex());
+        assertEquals(String.format("line %03d", selection), s.getSelectedText());
+    }
+
+    private boolean hasPath(int selection) {
+        return !area.lookupAll(".selection-" + selection).isEmpty();
+    }
+
+    @Test
+    public void edit_before_all_selections_moves_them_all() {
+        interact(() -> {
+            area.insertText(0, "new\nlines\n");
+
+            for (int i = 0; i < LINES; i++) {
+                assertSelectsLine(i, i + 2);
+            }
+        });
+    }
+
+    @Test
+    public void edit_in_the_middle_only_moves_the_selections_after_it() {
+        interact(() -> {
+            area.insertText(100, 0, "inserted\n");
+
+            for (int i = 0; i < 100; i++) {
+                assertSelectsLine(i, i);
+            }
+            for (int i = 100; i < LINES; i++) {
+                assertSelectsLine(i, i + 1);
+            }
+        });
+    }
+
+    @Test
+    public void removing_lines_collapses_the_selections_they_held() {
+        interact(() -> {
+            area.deleteText(area.getAbsolutePosition(10, 0), area.getAbsolutePosition(20, 0));
+
+            for (int i = 0; i < 10; i++) {
+                assertSelectsLine(i, i);
+            }
+            for (int i = 10; i < 20; i++) {
+                Selection<String, String, String> s = selections.get(i);
+                assertEquals(0, s.getLength());
+                assertEquals(area.getAbsolutePosition(10, 0), s.getStartPosition());
+            }
+            for (int i = 20; i < LINES; i++) {
+                assertSelectsLine(i, i - 10);
+            }
+        });
+    }
+
+    @Test
+    public void edit_inside_a_selection_changes_its_text() {
+        interact(() -> {
+            int space = area.getAbsolutePosition(5, 4);
+            area.replaceText(space, space + 1, "-");
+
+            assertEquals("line-005", selections.get(5).getSelectedText());
+            assertSelectsLine(4, 4);
+            assertSelectsLine(6, 6);
+        });
+    }
+
+    @Test
+    public void selection_removed_from_the_area_still_follows_the_document() {
+        interact(() -> {
+            assertTrue(area.removeSelection(selections.get(50)));
+            area.insertText(0, "new line\n");
+
+            assertSelectsLine(50, 51);
+            assertSelectsLine(49, 50);
+        });
+    }
+
+    @Test
+    public void cells_show_the_paths_of_the_selections_of_their_paragraph() {
+        interact(() -> {
+            area.showParagraphAtTop(0);
+            area.layout();
+            assertTrue(hasPath(0));
+            assertTrue(hasPath(1));
+
+            assertTrue(area.removeSelection(selections.get(1)));
+            area.layout();
+            assertFalse(hasPath(1));
+
+            // selection 0 is moved to the second paragraph, which is still shown
+            area.insertText(0, "new line\n");
+            area.layout();
+            assertTrue(hasPath(0));
+            assertSelectsLine(0, 1);
+        });
+    }
+
+    @Test
+    public void adding_and_removing_many_selections_after_edits() {
+        interact(() -> {
+            for (int i = 0; i < LINES; i += 2) {
+                assertTrue(area.removeSelection(selections.get(i)));
+            }
+            area.insertText(0, "new line\n");
+
+            for (int i = 1; i < LINES; i += 2) {
+                assertSelectsLine(i, i + 1);
+            }
+
+            for (int i = 0; i < LINES; i += 2) {
+                assertTrue(area.addSelection(selections.get(i)));
+            }
+            area.deleteText(0, area.getAbsolutePosition(1, 0));
+
+            for (int i = 0; i < LINES; i++) {
+                assertSelectsLine(i, i);
+            }
+        });
+    }
+}
@@ -0,0 +1,98 @@
+package org.fxmisc.richtext.api;
+
+import javafx.stage.Stage;
+import org.fxmisc.richtext.AreaMetrics;
+import org.fxmisc.richtext.InlineCssTextAreaAppTest;
+import org.junit.Test;
+import org.testfx.util.WaitForAsyncUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AreaMetricsTests extends InlineCssTextAreaAppTest {
+
+    private AreaMetrics metrics;
+
+    @Override
+    public void start(Stage stage) throws Exception {
+        super.start(stage);
+        area.replaceText("hello\nworld");
+        metrics = area.getMetrics();
+    }
+
+    @Test
+    public void edits_made_before_the_metrics_were_requested_are_not_counted() {
+        assertEquals(0, metrics.getEditCount());
+        assertEquals(0, metrics.getReplaceLatency().getCount());
+        assertEquals(2, metrics.getParagraphCount());
+        assertEquals(11, metrics.getCharCount());
+    }
+
+    @Test
+    public void edits_advance_the_edit_count_and_the_replace_latency() {
+        interact(() -> {
+            area.insertText(0, "abc");
+            assertEquals(1, metrics.getEditCount());
+            assertEquals(1, metrics.getReplaceLatency().getCount());
+
+            // style changes are edits too, but not replacements
+            area.setStyle(0, 3, "-fx-fill: red;");
+            assertEquals(2, metrics.getEditCount());
+            assertEquals(1, metrics.getReplaceLatency().getCount());
+
+            // each change of a multi-change is an edit, and the whole multi-change is one replacement
+            area.createMultiChange(2)
+                    .insertText(0, "x")
+                    .deleteText(1, 2)
+                    .commit();
+            assertEquals(4, metrics.getEditCount());
+            assertEquals(2, metrics.getReplaceLatency().getCount());
+        });
+    }
+
+    @Test
+    public void hit_tests_are_counted() {
+        interact(() -> {
+            area.hit(5, 5);
+            area.hit(5, 50);
+            assertEquals(2, metrics.getHitTests());
+        });
+    }
+
+    @Test
+    public void scrolling_to_other_paragraphs_creates_their_cells() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            sb.append(i == 0 ? "" : "\n").append("paragraph ").append(i);
+        }
+        interact(() -> area.replaceText(sb.toString()));
+        WaitForAsyncUtils.waitForFxEvents();
+
+        long created = interact(() -> {
+            metrics.reset();
+            area.showParagraphAtTop(150);
+            area.layout();
+            return metrics.getCellsCreated();
+        });
+        assertTrue(created > 0);
+        assertTrue(metrics.getSegmentNodesCreated() >= created);
+    }
+
+    @Test
+    public void reset_sets_the_counters_to_zero() {
+        interact(() -> {
+            area.insertText(0, "abc");
+            area.hit(5, 5);
+            area.requestLayout();
+            area.layout();
+            assertTrue(metrics.getLayoutPasses() > 0);
+
+            metrics.reset();
+            assertEquals(0, metrics.getEditCount());
+            assertEquals(0, metrics.getCellsCreated());
+            assertEquals(0, metrics.getHitTests());
+            assertEquals(0, metrics.getLayoutPasses());
+            assertEquals(0, metrics.getReplaceLatency().getCount());
+        });
+    }
+}
@@ -0,0 +1,107 @@
+package org.fxmisc.richtext.api;
+
+import javafx.geometry.Bounds;
+import javafx.scene.input.KeyCode;
+import org.fxmisc.richtext.AreaMetrics;
+import org.fxmisc.richtext.InlineCssTextAreaAppTest;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CollapseParagraphsTests extends InlineCssTextAreaAppTest {
+
+    private static final double DELTA = 0.5;
+
+    @Before
+    public void setup() {
+        interact(() -> area.replaceText("0\n1\n2\n3\n4\n5\n6\n7\n8\n9"));
+    }
+
+    private double paragraphTop(int paragraph) {
+        int start = area.getAbsolutePosition(paragraph, 0);
+        Bounds bounds = area.getCharacterBoundsOnScreen(start, start + 1).get();
+        return bounds.getMinY();
+    }
+
+    @Test
+    public void collapsing_visible_paragraphs_moves_the_following_paragraphs_up() {
+        double[] tops = new double[10];
+        interact(() -> {
+            for (int i = 0; i < tops.length; i++) {
+                tops[i] = paragraphTop(i);
+            }
+        });
+
+        interact(() -> area.collapseParagraphs(1, 3));
+        interact(() -> {
+            assertTrue(area.isParagraphCollapsed(2));
+            assertEquals(tops[0], paragraphTop(0), DELTA);
+            assertEquals(tops[1], paragraphTop(1), DELTA);
+            // paragraphs 2 and 3 take no space, so paragraph 4 is where paragraph 2 was
+            assertEquals(tops[2], paragraphTop(4), DELTA);
+            assertEquals(tops[3], paragraphTop(5), DELTA);
+        });
+
+        interact(() -> area.expandParagraphs(1));
+        interact(() -> {
+            for (int i = 0; i < tops.length; i++) {
+                assertEquals(tops[i], paragraphTop(i), DELTA);
+            }
+        });
+    }
+
+    @Test
+    public void collapsed_paragraphs_have_no_cells() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 50_000; i++) {
+            sb.append(i == 0 ? "" : "\n").append(i);
+        }
+        interact(() -> {
+            area.replaceText(sb.toString());
+            AreaMetrics metrics = area.getMetrics();
+
+            area.collapseParagraphs(0, 49_990);
+            area.showParagraphAtBottom(49_999);
+            area.layout();
+
+            // only paragraph 0 and the 9 paragraphs after the collapsed block are shown
+            assertEquals(10, area.getExpandedParagraphCount());
+            assertEquals(10, area.getVisibleParagraphs().size());
+            assertEquals(0, area.visibleParToAllParIndex(0));
+            assertEquals(49_991, area.visibleParToAllParIndex(1));
+            assertTrue(metrics.getCellsCreated() <= 10);
+            assertFalse(area.getParagraphBoundsOnScreen(500).isPresent());
+        });
+    }
+
+    @Test
+    public void moving_down_a_line_skips_the_collapsed_paragraphs() {
+        interact(() -> {
+            area.collapseParagraphs(1, 5);
+            area.moveTo(1, 0);
+        });
+
+        push(KeyCode.DOWN);
+        assertEquals(6, area.getCurrentParagraph());
+
+        push(KeyCode.UP);
+        assertEquals(1, area.getCurrentParagraph());
+    }
+
+    @Test
+    public void editing_inside_a_collapsed_block_keeps_the_indexes_of_the_visible_paragraphs() {
+        interact(() -> {
+            area.collapseParagraphs(1, 5);
+            area.insertText(3, 0, "a\nb\n");
+        });
+        interact(() -> {
+            assertEquals(0, area.visibleParToAllParIndex(0));
+            assertEquals(1, area.visibleParToAllParIndex(1));
+            assertEquals(8, area.visibleParToAllParIndex(2));
+            assertEquals("6", area.getVisibleParagraphs().get(2).getText());
+        });
+    }
+}
@@ -0,0 +1,114 @@
+package org.fxmisc.richtext.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import javafx.scene.control.IndexRange;
+import org.fxmisc.richtext.DocumentSearch;
+import org.fxmisc.richtext.InlineCssTextAreaAppTest;
+import org.junit.Test;
+import org.testfx.util.WaitForAsyncUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class DocumentSearchTests extends InlineCssTextAreaAppTest {
+
+    /** The background searches that were started, which the tests run when they want to */
+    private final List<Runnable> backgroundTasks = new ArrayList<>();
+
+    private DocumentSearch<String, String, String> search;
+
+    private void createSearch(String text) {
+        interact(() -> {
+            area.replaceText(text);
+            area.getUndoManager().forgetHistory();
+            search = new DocumentSearch<>(area, backgroundTasks::add);
+        });
+    }
+
+    private void runBackgroundSearches() {
+        List<Runnable> tasks = new ArrayList<>(backgroundTasks);
+        backgroundTasks.clear();
+        tasks.forEach(Runnable::run);
+        WaitForAsyncUtils.waitForFxEvents();
+    }
+
+    @Test
+    public void replace_all_replaces_every_hit_in_one_undoable_change() {
+        createSearch("a b a\nb a");
+        interact(() -> {
+            search.find("a", true);
+            assertEquals(3, search.replaceAll("xy"));
+            assertEquals("xy b xy\nb xy", area.getText());
+            assertFalse(search.isSearching());
+
+            area.undo();
+            assertEquals("a b a\nb a", area.getText());
+            assertFalse(area.isUndoAvailable());
+        });
+    }
+
+    @Test
+    public void replace_all_expands_the_groups_of_a_regular_expression() {
+        createSearch("x=1, y=22");
+        interact(() -> {
+            search.find(Pattern.compile("(\\w)=(\\d+)"));
+            assertEquals(2, search.replaceAll("$2=$1"));
+            assertEquals("1=x, 22=y", area.getText());
+        });
+    }
+
+    @Test
+    public void hits_are_rebased_across_edits_made_during_a_background_search() {
+        createSearch("foo\nbar\nfoo\nbar");
+        interact(() -> {
+            search.find("foo", true);
+            // the paragraph of the edit is searched again at once, the others once the background search ends
+            area.insertText(0, "foo\n");
+        });
+        runBackgroundSearches();
+
+        interact(() -> {
+            assertFalse(search.isSearching());
+            assertEquals(3, search.getHitCount());
+            assertEquals(new IndexRange(0, 3), search.getHit(0));
+            assertEquals(new IndexRange(4, 7), search.getHit(1));
+            assertEquals(new IndexRange(12, 15), search.getHit(2));
+        });
+    }
+
+    @Test
+    public void restarting_a_search_discards_the_hits_of_the_previous_one() {
+        createSearch("foo\nbar\nfoo\nbar");
+        interact(() -> {
+            search.find("foo", true);
+            search.find("bar", true);
+        });
+        runBackgroundSearches();
+
+        interact(() -> {
+            assertFalse(search.isSearching());
+            assertEquals(2, search.getHitCount());
+            assertEquals(new IndexRange(4, 7), search.getHit(0));
+            assertEquals(new IndexRange(12, 15), search.getHit(1));
+        });
+    }
+
+    @Test
+    public void clearing_a_search_cancels_it() {
+        createSearch("foo\nbar\nfoo\nbar");
+        interact(() -> {
+            search.find("foo", true);
+            search.clear();
+        });
+        runBackgroundSearches();
+
+        interact(() -> {
+            assertFalse(search.isSearching());
+            assertEquals(0, search.getHitCount());
+            assertEquals(0, search.replaceAll("baz"));
+        });
+    }
+}
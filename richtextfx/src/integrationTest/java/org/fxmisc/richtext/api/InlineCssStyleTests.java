@@ -0,0 +1,74 @@
+package org.fxmisc.richtext.api;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.paint.Color;
+import org.fxmisc.richtext.InlineCssTextAreaAppTest;
+import org.fxmisc.richtext.TextExt;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class InlineCssStyleTests extends InlineCssTextAreaAppTest {
+
+    @Before
+    public void setup() {
+        interact(() -> {
+            scene.getStylesheets().add(InlineCssStyleTests.class.getResource("author-text-fill.css").toExternalForm());
+            area.replaceText("red blue");
+            area.setStyle(0, 3, "-fx-fill: red;");
+        });
+    }
+
+    private static void collectTexts(Node node, List<TextExt> texts) {
+        if (node instanceof TextExt) {
+            texts.add((TextExt) node);
+        } else if (node instanceof Parent) {
+            for (Node child : ((Parent) node).getChildrenUnmodifiable()) {
+                collectTexts(child, texts);
+            }
+        }
+    }
+
+    /** Returns the text node that shows the given text */
+    private TextExt textOf(String content) {
+        List<TextExt> texts = new ArrayList<>();
+        collectTexts(area, texts);
+        return texts.stream()
+                .filter(t -> t.getText().contains(content))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No text node shows \"" + content + "\""));
+    }
+
+    @Test
+    public void inline_fill_overrides_an_author_rule_after_a_css_pass() {
+        interact(() -> {
+            area.applyCss();
+            area.layout();
+            assertEquals(Color.RED, textOf("red").getFill());
+            assertEquals(Color.BLUE, textOf(" blue").getFill());
+
+            // the CSS of the text nodes is applied again when the area's style changes
+            area.setStyle("-fx-font-size: 14px;");
+            area.applyCss();
+            area.layout();
+            assertEquals(Color.RED, textOf("red").getFill());
+            assertEquals(Color.BLUE, textOf(" blue").getFill());
+        });
+    }
+
+    @Test
+    public void author_rule_applies_again_once_the_inline_fill_is_removed() {
+        interact(() -> {
+            area.setStyle(0, 3, "");
+            area.applyCss();
+            area.layout();
+            // the text may have been merged with the following text, which has the same style now
+            assertEquals(Color.BLUE, textOf("red").getFill());
+        });
+    }
+}
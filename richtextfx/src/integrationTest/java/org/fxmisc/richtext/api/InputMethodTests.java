@@ -0,0 +1,47 @@
+package org.fxmisc.richtext.api;
+
+import javafx.application.ConditionalFeature;
+import javafx.application.Platform;
+import org.fxmisc.richtext.InlineCssTextArea;
+import org.fxmisc.richtext.InlineCssTextAreaAppTest;
+import org.fxmisc.richtext.StyleClassedTextViewer;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assume.assumeTrue;
+
+public class InputMethodTests extends InlineCssTextAreaAppTest {
+
+    @Before
+    public void requireInputMethods() {
+        assumeTrue(Platform.isSupported(ConditionalFeature.INPUT_METHOD));
+    }
+
+    @Test
+    public void input_method_handling_is_installed_before_the_first_focus() {
+        interact(() -> {
+            InlineCssTextArea newArea = new InlineCssTextArea();
+            assertNotNull(newArea.getInputMethodRequests());
+            assertNotNull(newArea.getOnInputMethodTextChanged());
+        });
+    }
+
+    @Test
+    public void focused_area_has_input_method_handling() {
+        interact(() -> {
+            assertNotNull(area.getInputMethodRequests());
+            assertNotNull(area.getOnInputMethodTextChanged());
+        });
+    }
+
+    @Test
+    public void viewer_has_no_input_method_handling() {
+        interact(() -> {
+            StyleClassedTextViewer viewer = new StyleClassedTextViewer();
+            assertNull(viewer.getInputMethodRequests());
+            assertNull(viewer.getOnInputMethodTextChanged());
+        });
+    }
+}
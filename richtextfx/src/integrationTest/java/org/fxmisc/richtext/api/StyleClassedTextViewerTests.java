@@ -0,0 +1,106 @@
+package org.fxmisc.richtext.api;
+
+import java.util.Collections;
+
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import org.fxmisc.richtext.Caret;
+import org.fxmisc.richtext.CaretNode;
+import org.fxmisc.richtext.RichTextFXTestBase;
+import org.fxmisc.richtext.StyleClassedTextArea;
+import org.fxmisc.richtext.StyleClassedTextViewer;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StyleClassedTextViewerTests extends RichTextFXTestBase {
+
+    private static final String TEXT = "hello world\nsecond line";
+
+    private StyleClassedTextViewer viewer;
+    private StyleClassedTextArea area;
+
+    @Override
+    public void start(Stage stage) throws Exception {
+        viewer = new StyleClassedTextViewer();
+        // an editable area next to the viewer, which has the focus before the viewer is clicked
+        area = new StyleClassedTextArea();
+        stage.setScene(new Scene(new VBox(viewer, area), 400, 400));
+        stage.show();
+        area.requestFocus();
+    }
+
+    @Before
+    public void setup() {
+        interact(() -> viewer.replaceText(TEXT));
+    }
+
+    @Test
+    public void viewer_is_neither_editable_nor_focus_traversable() {
+        assertTrue(viewer.isViewer());
+        assertFalse(viewer.isEditable());
+        assertFalse(viewer.isFocusTraversable());
+        assertFalse(area.isViewer());
+    }
+
+    @Test
+    public void typing_after_clicking_the_viewer_does_not_edit_it() {
+        moveTo(position(viewer, Pos.TOP_LEFT, 5, 5)).clickOn(MouseButton.PRIMARY);
+        type(KeyCode.A, KeyCode.B);
+        push(KeyCode.BACK_SPACE);
+        push(KeyCode.ENTER);
+
+        assertEquals(TEXT, viewer.getText());
+        assertFalse(viewer.isFocused());
+    }
+
+    @Test
+    public void dragging_over_the_viewer_does_not_select() {
+        drag(position(viewer, Pos.TOP_LEFT, 5, 5), MouseButton.PRIMARY)
+                .dropTo(position(viewer, Pos.TOP_LEFT, 60, 5));
+
+        assertEquals(0, viewer.getSelection().getLength());
+    }
+
+    @Test
+    public void undo_manager_does_nothing() {
+        interact(() -> {
+            viewer.replaceText("changed");
+            viewer.setStyleClass(0, 3, "keyword");
+            assertFalse(viewer.isUndoAvailable());
+
+            viewer.undo();
+            assertEquals("changed", viewer.getText());
+            assertEquals(Collections.singletonList("keyword"), viewer.getStyleOfChar(1));
+        });
+    }
+
+    @Test
+    public void caret_is_never_shown() {
+        interact(() -> {
+            CaretNode caret = viewer.getCaretSelectionBind().getUnderlyingCaret();
+            assertEquals(Caret.CaretVisibility.OFF, caret.getShowCaret());
+
+            viewer.requestFocus();
+            viewer.moveTo(3);
+            assertFalse(caret.isVisible());
+        });
+    }
+
+    @Test
+    public void document_can_still_be_changed_programmatically() {
+        interact(() -> {
+            viewer.replaceText(0, 5, "howdy");
+            viewer.appendText("!");
+            viewer.deleteText(0, 6);
+            assertEquals("world\nsecond line!", viewer.getText());
+        });
+    }
+}
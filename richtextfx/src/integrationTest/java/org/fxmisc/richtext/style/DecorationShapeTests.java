@@ -0,0 +1,127 @@
+package org.fxmisc.richtext.style;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.fxmisc.richtext.SceneGraphTests;
+import org.junit.Test;
+import org.testfx.util.WaitForAsyncUtils;
+
+import javafx.geometry.Bounds;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Path;
+import javafx.scene.text.Text;
+
+public class DecorationShapeTests extends SceneGraphTests {
+
+    private static final String YELLOW = "-rtfx-background-color: yellow;";
+    private static final String RED = "-rtfx-background-color: red;";
+    private static final String UNDERLINE = "-rtfx-underline-color: blue; -rtfx-underline-width: 1;";
+
+    private static final double TOLERANCE = 1.0;
+    /** The stroke of an underline may extend past the end of its range by half of its width */
+    private static final double UNDERLINE_TOLERANCE = 1.5;
+
+    private static Bounds boundsOf(Path path) {
+        return path.getBoundsInParent();
+    }
+
+    private Path onlyBackgroundPath() {
+        List<Path> paths = getBackgroundPaths(0);
+        assertEquals(1, paths.size());
+        return paths.get(0);
+    }
+
+    @Test
+    public void background_shape_spans_its_ranges_and_follows_a_restyle() {
+        // Text:  |aaa bbb ccc ddd|
+        // Style: |xxx     xxx    |
+        interact(() -> {
+            area.replaceText("aaa bbb ccc ddd");
+            area.setStyle(0, 3, YELLOW);
+            area.setStyle(8, 11, YELLOW);
+        });
+
+        List<Text> texts = getTextNodes(0);
+        Bounds shape = boundsOf(onlyBackgroundPath());
+        assertEquals(texts.get(0).getBoundsInParent().getMinX(), shape.getMinX(), TOLERANCE);
+        assertEquals(texts.get(2).getBoundsInParent().getMaxX(), shape.getMaxX(), TOLERANCE);
+
+        // restyling the last range removes it from the shape
+        interact(() -> area.setStyle(8, 11, ""));
+        texts = getTextNodes(0);
+        shape = boundsOf(onlyBackgroundPath());
+        assertEquals(texts.get(0).getBoundsInParent().getMaxX(), shape.getMaxX(), TOLERANCE);
+
+        // a range of another color gets its own shape, with its own fill
+        interact(() -> area.setStyle(4, 7, RED));
+        List<Path> paths = getBackgroundPaths(0);
+        assertEquals(2, paths.size());
+        assertNotEquals(paths.get(0).getFill(), paths.get(1).getFill());
+        assertTrue(paths.stream().anyMatch(path -> Color.RED.equals(path.getFill())));
+
+        // removing all the decorations removes the shapes
+        interact(() -> area.clearStyle(0, area.getLength()));
+        assertEquals(Collections.emptyList(), getBackgroundPaths(0));
+    }
+
+    @Test
+    public void underline_shape_follows_a_restyle_that_keeps_the_same_value() {
+        interact(() -> {
+            area.replaceText("aaa bbb ccc");
+            area.setStyle(0, 3, UNDERLINE);
+        });
+        List<Path> paths = getUnderlinePaths(0);
+        assertEquals(1, paths.size());
+        Path underline = paths.get(0);
+        double maxX = boundsOf(underline).getMaxX();
+
+        // the same underline on a longer range reuses the shape with new elements
+        interact(() -> area.setStyle(0, 7, UNDERLINE));
+        paths = getUnderlinePaths(0);
+        assertEquals(1, paths.size());
+        assertTrue(boundsOf(paths.get(0)).getMaxX() > maxX + UNDERLINE_TOLERANCE);
+        Text underlined = getTextNodes(0).stream()
+                .filter(t -> t.getText().endsWith("bbb"))
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+        assertEquals(underlined.getBoundsInParent().getMaxX(), boundsOf(paths.get(0)).getMaxX(), UNDERLINE_TOLERANCE);
+    }
+
+    @Test
+    public void shapes_are_recomputed_when_the_wrap_width_changes() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            text.append("word ");
+        }
+        interact(() -> {
+            area.setWrapText(true);
+            area.replaceText(text.toString());
+            area.setStyle(0, area.getLength(), YELLOW);
+        });
+
+        Text textNode = getTextNodes(0).get(0);
+        Bounds wide = boundsOf(onlyBackgroundPath());
+        assertEquals(textNode.getBoundsInParent().getMaxY(), wide.getMaxY(), TOLERANCE);
+
+        // a narrower area wraps the text into more lines, which the shape must cover
+        interact(() -> stage.setWidth(stage.getWidth() / 2));
+        WaitForAsyncUtils.waitForFxEvents();
+
+        textNode = getTextNodes(0).get(0);
+        Bounds narrow = boundsOf(onlyBackgroundPath());
+        assertTrue(narrow.getHeight() > wide.getHeight() + TOLERANCE);
+        assertEquals(textNode.getBoundsInParent().getMaxY(), narrow.getMaxY(), TOLERANCE);
+
+        // and back again
+        interact(() -> stage.setWidth(stage.getWidth() * 2));
+        WaitForAsyncUtils.waitForFxEvents();
+
+        Bounds wideAgain = boundsOf(onlyBackgroundPath());
+        assertEquals(wide.getHeight(), wideAgain.getHeight(), TOLERANCE);
+    }
+}
@@ -94,9 +94,9 @@ public class StylingTests extends SceneGraphTests {
         Text fifth = textNodes.get(4);
         assertEquals(AND_MOON, fifth.getText());
 
-        // determine the underline paths - need to be two of them!
+        // determine the underline paths - both ranges have the same underline, so they share one path
         List<Path> underlineNodes = getUnderlinePaths(0);
-        assertEquals(2, underlineNodes.size());
+        assertEquals(1, underlineNodes.size());
     }
 
     @Test
@@ -175,7 +175,7 @@ public class StylingTests extends SceneGraphTests {
     }
 
     @Test
-    public void unconsecutive_background_styles_should_each_be_rendered_with_their_own_shape() {
+    public void unconsecutive_background_styles_that_are_the_same_are_rendered_with_one_shape() {
         String style = "-rtfx-background-color: #ccc;";
         interact(() -> {
             // Text:  |aba abba|
@@ -188,6 +188,6 @@ public class StylingTests extends SceneGraphTests {
             area.setStyle(7, 8, style);
         });
         List<Path> paths = getBackgroundPaths(0);
-        assertEquals(4, paths.size());
+        assertEquals(1, paths.size());
     }
 }
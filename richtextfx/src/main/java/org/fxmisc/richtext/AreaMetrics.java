@@ -0,0 +1,196 @@
+package org.fxmisc.richtext;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.ReadOnlyLongWrapper;
+
+import org.fxmisc.richtext.model.DocumentSummary;
+import org.fxmisc.richtext.model.Paragraph;
+import org.fxmisc.richtext.model.StyleSpan;
+import org.reactfx.Subscription;
+import org.reactfx.util.ToSemigroup;
+
+/**
+ * Runtime metrics of a {@link GenericStyledArea}, e.g. for a diagnostics overlay or for a metrics registry
+ * that polls them. It is created by {@link GenericStyledArea#getMetrics()} and only counts what happens after
+ * its creation; an area whose metrics were never requested does not count anything.
+ *
+ * <p>The counters are observable properties. The {@link #getReplaceLatency() replace latency} is a
+ * {@link Histogram} that is read on demand. The retained document size is read from the document: the number of
+ * style spans is kept up to date incrementally, whereas the number of distinct styles is computed on each call.</p>
+ */
+public final class AreaMetrics {
+
+    /**
+     * A histogram of durations, in nanoseconds, whose buckets are powers of two.
+     */
+    public static final class Histogram {
+
+        private final long[] buckets = new long[64];
+        private long count = 0;
+        private long total = 0;
+        private long max = 0;
+
+        void record(long nanos) {
+            long value = Math.max(0, nanos);
+            buckets[63 - Long.numberOfLeadingZeros(value | 1)]++;
+            count++;
+            total += value;
+            max = Math.max(max, value);
+        }
+
+        void reset() {
+            Arrays.fill(buckets, 0);
+            count = 0;
+            total = 0;
+            max = 0;
+        }
+
+        public long getCount() { return count; }
+
+        public long getTotalNanos() { return total; }
+
+        public long getMaxNanos() { return max; }
+
+        public double getMeanNanos() { return count == 0 ? 0 : (double) total / count; }
+
+        /**
+         * Returns an upper bound of the given percentile (between 0 and 100) of the recorded durations, which is
+         * at most twice the actual percentile.
+         */
+        public long getPercentileNanos(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(percentile / 100 * count);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= Math.max(1, rank)) {
+                    return i == 62 ? max : Math.min(max, (1L << (i + 1)) - 1);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Returns the number of durations in each bucket: bucket {@code i} counts the durations from
+         * {@code 2^i} (0 for the first bucket) to {@code 2^(i+1) - 1} nanoseconds.
+         */
+        public long[] getBucketCounts() { return buckets.clone(); }
+    }
+
+    private static final ToSemigroup<Paragraph<?, ?, ?>, Integer> SPAN_COUNT = new ToSemigroup<Paragraph<?, ?, ?>, Integer>() {
+        @Override
+        public Integer apply(Paragraph<?, ?, ?> paragraph) {
+            return paragraph.getStyleSpans().getSpanCount();
+        }
+
+        @Override
+        public Integer reduce(Integer left, Integer right) {
+            return left + right;
+        }
+    };
+
+    private final GenericStyledArea<?, ?, ?> area;
+    private final DocumentSummary<Integer> spanCount;
+    private final Subscription editSubscription;
+
+    private final ReadOnlyLongWrapper editCount = new ReadOnlyLongWrapper(this, "editCount");
+    /** Number of changes applied to the document, including style changes */
+    public final ReadOnlyLongProperty editCountProperty() { return editCount.getReadOnlyProperty(); }
+    public final long getEditCount() { return editCount.get(); }
+
+    private final ReadOnlyLongWrapper cellsCreated = new ReadOnlyLongWrapper(this, "cellsCreated");
+    /**
+     * Number of paragraph cells created by the viewport. The cells are not reused, so a cell is created
+     * whenever a paragraph scrolls into view or is changed.
+     */
+    public final ReadOnlyLongProperty cellsCreatedProperty() { return cellsCreated.getReadOnlyProperty(); }
+    public final long getCellsCreated() { return cellsCreated.get(); }
+
+    private final ReadOnlyLongWrapper segmentNodesCreated = new ReadOnlyLongWrapper(this, "segmentNodesCreated");
+    /** Number of nodes created for segments, i.e. the {@link TextExt} nodes for text segments */
+    public final ReadOnlyLongProperty segmentNodesCreatedProperty() { return segmentNodesCreated.getReadOnlyProperty(); }
+    public final long getSegmentNodesCreated() { return segmentNodesCreated.get(); }
+
+    private final ReadOnlyLongWrapper layoutPasses = new ReadOnlyLongWrapper(this, "layoutPasses");
+    /** Number of layouts of the area */
+    public final ReadOnlyLongProperty layoutPassesProperty() { return layoutPasses.getReadOnlyProperty(); }
+    public final long getLayoutPasses() { return layoutPasses.get(); }
+
+    private final ReadOnlyLongWrapper hitTests = new ReadOnlyLongWrapper(this, "hitTests");
+    /** Number of calls of {@link GenericStyledArea#hit(double, double)} */
+    public final ReadOnlyLongProperty hitTestsProperty() { return hitTests.getReadOnlyProperty(); }
+    public final long getHitTests() { return hitTests.get(); }
+
+    private final Histogram replaceLatency = new Histogram();
+    /**
+     * Gets the durations of the replacements made through the area, from the call of
+     * {@link GenericStyledArea#replace(int, int, org.fxmisc.richtext.model.StyledDocument)} (or of a
+     * {@link MultiChangeBuilder}) until the document, its listeners, the carets and the selections are updated.
+     */
+    public Histogram getReplaceLatency() { return replaceLatency; }
+
+    AreaMetrics(GenericStyledArea<?, ?, ?> area) {
+        this.area = area;
+        this.spanCount = area.getContent().addSummary(SPAN_COUNT);
+        this.editSubscription = area.multiRichChanges().subscribe(changes -> editCount.set(editCount.get() + changes.size()));
+    }
+
+    public int getParagraphCount() {
+        return area.getParagraphs().size();
+    }
+
+    public int getCharCount() {
+        return area.getLength();
+    }
+
+    public int getSpanCount() {
+        return spanCount.getTotal();
+    }
+
+    /**
+     * Counts the distinct styles of the segments of the document, in O(n) time, where n is the number of
+     * style spans of the document.
+     */
+    public int computeDistinctStyleCount() {
+        Set<Object> styles = new HashSet<>();
+        for (Paragraph<?, ?, ?> paragraph : area.getParagraphs()) {
+            for (StyleSpan<?> span : paragraph.getStyleSpans()) {
+                styles.add(span.getStyle());
+            }
+        }
+        return styles.size();
+    }
+
+    /**
+     * Sets all counters to 0 and clears the histogram.
+     */
+    public void reset() {
+        editCount.set(0);
+        cellsCreated.set(0);
+        segmentNodesCreated.set(0);
+        layoutPasses.set(0);
+        hitTests.set(0);
+        replaceLatency.reset();
+    }
+
+    void cellCreated() { cellsCreated.set(cellsCreated.get() + 1); }
+
+    void segmentNodeCreated() { segmentNodesCreated.set(segmentNodesCreated.get() + 1); }
+
+    void layoutPass() { layoutPasses.set(layoutPasses.get() + 1); }
+
+    void hitTest() { hitTests.set(hitTests.get() + 1); }
+
+    void replaced(long nanos) { replaceLatency.record(nanos); }
+
+    void dispose() {
+        editSubscription.unsubscribe();
+        spanCount.dispose();
+    }
+}
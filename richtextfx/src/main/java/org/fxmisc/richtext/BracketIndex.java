@@ -0,0 +1,233 @@
+package org.fxmisc.richtext;
+
+import java.util.Optional;
+
+import org.fxmisc.richtext.model.DocumentSummary;
+import org.fxmisc.richtext.model.EditableStyledDocument;
+import org.fxmisc.richtext.model.Paragraph;
+import org.reactfx.util.BiIndex;
+import org.reactfx.util.Either;
+import org.reactfx.util.ToSemigroup;
+
+/**
+ * Finds the bracket that matches a given bracket without scanning the text between them. For each kind of bracket,
+ * the index keeps, per paragraph, the bracket depth at the end of the paragraph relative to its start (the
+ * {@link BracketCounts#net net} count) and the lowest depth reached within it (the {@link BracketCounts#min minimum}
+ * depth). These counts are kept as a {@link DocumentSummary} of the document, so that the paragraph in which the
+ * depth first drops below the depth of a bracket is found without scanning the paragraphs in between: in O(log n)
+ * time for a closing match, which descends the tree of summaries forwards with
+ * {@link DocumentSummary#locate(int, java.util.function.BiFunction, int) locate}, and in O(log&sup2; n) time for an
+ * opening match, which binary-searches the summaries of ranges ending at the bracket's paragraph, where n is the
+ * number of paragraphs. Only the paragraph of the bracket and the paragraph of its match are scanned.
+ *
+ * <p>Brackets of one kind are matched regardless of the brackets of other kinds, and regardless of whether they
+ * are in comments or string literals.</p>
+ *
+ * <p>The index follows the edits of the document until it is {@link #dispose() disposed}.</p>
+ */
+final class BracketIndex {
+
+    /**
+     * The bracket counts of a range of text, for each kind of bracket.
+     */
+    static final class BracketCounts {
+        /** Number of opening brackets minus number of closing brackets */
+        private final int[] net;
+        /** Lowest value of {@link #net} among the prefixes of the range, which is 0 or less */
+        private final int[] min;
+
+        BracketCounts(int[] net, int[] min) {
+            this.net = net;
+            this.min = min;
+        }
+    }
+
+    private final ToSemigroup<Paragraph<?, ?, ?>, BracketCounts> summarizer = new ToSemigroup<Paragraph<?, ?, ?>, BracketCounts>() {
+
+        @Override
+        public BracketCounts apply(Paragraph<?, ?, ?> paragraph) {
+            return count(paragraph.getText());
+        }
+
+        @Override
+        public BracketCounts reduce(BracketCounts left, BracketCounts right) {
+            int kinds = left.net.length;
+            int[] net = new int[kinds];
+            int[] min = new int[kinds];
+            for (int k = 0; k < kinds; k++) {
+                net[k] = left.net[k] + right.net[k];
+                min[k] = Math.min(left.min[k], left.net[k] + right.min[k]);
+            }
+            return new BracketCounts(net, min);
+        }
+    };
+
+    private final String pairs;
+    private final EditableStyledDocument<?, ?, ?> document;
+    private final DocumentSummary<BracketCounts> summary;
+
+    /**
+     * @param pairs the brackets, as a string of opening and closing bracket pairs, e.g. {@code "(){}[]"}
+     * @param document the indexed document
+     */
+    BracketIndex(String pairs, EditableStyledDocument<?, ?, ?> document) {
+        if (pairs.length() % 2 != 0) {
+            throw new IllegalArgumentException("Brackets must come in pairs: " + pairs);
+        }
+        this.pairs = pairs;
+        this.document = document;
+        this.summary = document.addSummary(summarizer);
+    }
+
+    String getPairs() {
+        return pairs;
+    }
+
+    /**
+     * Stops following the edits of the document.
+     */
+    void dispose() {
+        summary.dispose();
+    }
+
+    /**
+     * Returns the paragraph ({@code major}) and column ({@code minor}) of the bracket that matches the bracket
+     * at the given column of the given paragraph, if the latter is a bracket and has a match.
+     */
+    Optional<BiIndex> findMatchingBracket(int paragraph, int column) {
+        String text = document.getText(paragraph);
+        if (column < 0 || column >= text.length()) {
+            return Optional.empty();
+        }
+        int kind = pairs.indexOf(text.charAt(column));
+        if (kind == -1) {
+            return Optional.empty();
+        }
+        return kind % 2 == 0
+                ? findClosing(kind / 2, paragraph, column)
+                : findOpening(kind / 2, paragraph, column);
+    }
+
+    /* ********************************************************************** *
+     *                                                                        *
+     * Private methods                                                        *
+     *                                                                        *
+     * ********************************************************************** */
+
+    private Optional<BiIndex> findClosing(int kind, int paragraph, int column) {
+        char open = pairs.charAt(2 * kind);
+        char close = pairs.charAt(2 * kind + 1);
+
+        // depth relative to the depth right after the opening bracket; the match is where it drops to -1
+        String text = document.getText(paragraph);
+        int depth = 0;
+        for (int i = column + 1; i < text.length(); i++) {
+            depth += delta(text.charAt(i), open, close);
+            if (depth == -1) {
+                return Optional.of(new BiIndex(paragraph, i));
+            }
+        }
+
+        if (paragraph + 1 == summary.getParagraphCount()) {
+            return Optional.empty();
+        }
+        BracketCounts total = summary.getSummaryBetween(paragraph + 1, summary.getParagraphCount()).get();
+        if (depth + total.min[kind] > -1) {
+            return Optional.empty();
+        }
+
+        // the "position" that is navigated is the depth at the start of the visited subtree
+        BiIndex at = summary.locate(paragraph + 1,
+                (counts, d) -> d + counts.min[kind] <= -1 ? Either.left(d) : Either.right(d + counts.net[kind]),
+                depth);
+        int matchParagraph = at.major;
+        text = document.getText(matchParagraph);
+        depth = at.minor;
+        for (int i = 0; i < text.length(); i++) {
+            depth += delta(text.charAt(i), open, close);
+            if (depth == -1) {
+                return Optional.of(new BiIndex(matchParagraph, i));
+            }
+        }
+        throw new AssertionError("Unreachable code");
+    }
+
+    private Optional<BiIndex> findOpening(int kind, int paragraph, int column) {
+        char open = pairs.charAt(2 * kind);
+        char close = pairs.charAt(2 * kind + 1);
+
+        // depth relative to the depth right before the closing bracket, going backwards;
+        // the match is where it drops to -1
+        String text = document.getText(paragraph);
+        int depth = 0;
+        for (int i = column - 1; i >= 0; i--) {
+            depth -= delta(text.charAt(i), open, close);
+            if (depth == -1) {
+                return Optional.of(new BiIndex(paragraph, i));
+            }
+        }
+        if (paragraph == 0) {
+            return Optional.empty();
+        }
+
+        // The match is in the last paragraph L before this one that contains a point whose depth, relative to the
+        // start of this paragraph, is 'threshold' or less. Such points are found in the paragraphs [L, paragraph)
+        // if the lowest depth of that range, relative to its end, is low enough: binary search for L. Each step
+        // computes the summary of a range, which takes O(log n) time, as there is no backwards 'locate'.
+        int threshold = -depth - 1;
+        if (!reachesThreshold(kind, 0, paragraph, threshold)) {
+            return Optional.empty();
+        }
+        int lo = 0;
+        int hi = paragraph - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (reachesThreshold(kind, mid, paragraph, threshold)) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        int matchParagraph = lo;
+
+        // scan the paragraph backwards, starting from the depth at its end
+        int endDepth = summary.getSummaryBetween(matchParagraph + 1, paragraph).map(c -> -c.net[kind]).orElse(0);
+        text = document.getText(matchParagraph);
+        depth = endDepth;
+        for (int i = text.length() - 1; i >= 0; i--) {
+            depth -= delta(text.charAt(i), open, close);
+            if (depth <= threshold) {
+                return Optional.of(new BiIndex(matchParagraph, i));
+            }
+        }
+        throw new AssertionError("Unreachable code");
+    }
+
+    /**
+     * Returns whether the paragraphs from {@code from} (inclusive) to {@code to} (exclusive) contain a point
+     * whose depth relative to the start of {@code to} is {@code threshold} or less.
+     */
+    private boolean reachesThreshold(int kind, int from, int to, int threshold) {
+        BracketCounts counts = summary.getSummaryBetween(from, to).get();
+        return counts.min[kind] - counts.net[kind] <= threshold;
+    }
+
+    private static int delta(char c, char open, char close) {
+        return c == open ? 1 : c == close ? -1 : 0;
+    }
+
+    private BracketCounts count(String text) {
+        int kinds = pairs.length() / 2;
+        int[] net = new int[kinds];
+        int[] min = new int[kinds];
+        for (int i = 0; i < text.length(); i++) {
+            int kind = pairs.indexOf(text.charAt(i));
+            if (kind != -1) {
+                int k = kind / 2;
+                net[k] += kind % 2 == 0 ? 1 : -1;
+                min[k] = Math.min(min[k], net[k]);
+            }
+        }
+        return new BracketCounts(net, min);
+    }
+}
@@ -0,0 +1,139 @@
+package org.fxmisc.richtext;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.util.Duration;
+
+import org.reactfx.EventStream;
+import org.reactfx.EventStreamBase;
+import org.reactfx.Subscription;
+
+/**
+ * A timeline that makes all the blinking carets with the same blink rate blink, in all areas. A window with many
+ * areas and carets therefore runs one timer per blink rate instead of one per caret, and runs none at all when
+ * no caret is blinking.
+ *
+ * <p>Each caret keeps its own visibility, so that it can be shown immediately when it moves: a caret is visible
+ * after a restart impulse and toggles on each tick of the clock, skipping the ticks that happen less than a blink
+ * period after the impulse. It is thus shown for one to two periods after it moved, instead of exactly one.</p>
+ */
+final class CaretBlinkClock {
+
+    /**
+     * The running clocks by blink rate in milliseconds. Only used on the JavaFX Application Thread, which
+     * {@link #checkFxThread()} enforces.
+     */
+    private static final Map<Long, CaretBlinkClock> CLOCKS = new HashMap<>();
+
+    /**
+     * Returns a stream that emits whether a caret blinking at the given rate is visible, which starts with
+     * {@code true} and emits {@code true} again on each event of {@code restartImpulse}. The caret is driven by the
+     * shared clock of its rate while the stream is observed.
+     */
+    static EventStream<Boolean> blink(Duration rate, EventStream<?> restartImpulse) {
+        return new BlinkStream(toMillis(rate), restartImpulse);
+    }
+
+    /**
+     * Returns the timeline of the clock of the given blink rate, or {@code null} if no caret blinks at this rate.
+     * Only meant for tests.
+     */
+    static Timeline getTimeline(Duration rate) {
+        checkFxThread();
+        CaretBlinkClock clock = CLOCKS.get(toMillis(rate));
+        return clock != null ? clock.timeline : null;
+    }
+
+    private static long toMillis(Duration rate) {
+        return Math.max(1, Math.round(rate.toMillis()));
+    }
+
+    /**
+     * Throws an {@link IllegalStateException} if not called on the JavaFX Application Thread, which the carets
+     * only start or stop blinking on once they are in a showing window.
+     */
+    private static void checkFxThread() {
+        if (!Platform.isFxApplicationThread()) {
+            throw new IllegalStateException("Carets can only start or stop blinking on the JavaFX Application Thread;"
+                    + " currentThread = " + Thread.currentThread().getName());
+        }
+    }
+
+    private final long millis;
+    private final Timeline timeline;
+    private final Set<BlinkStream> carets = new LinkedHashSet<>();
+
+    private CaretBlinkClock(long millis) {
+        this.millis = millis;
+        this.timeline = new Timeline(new KeyFrame(Duration.millis(millis), e -> tick()));
+        this.timeline.setCycleCount(Animation.INDEFINITE);
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        // copied, since a caret may be hidden or removed in reaction to its visibility change
+        for (BlinkStream caret : carets.toArray(new BlinkStream[0])) {
+            caret.tick(now);
+        }
+    }
+
+    private static void add(BlinkStream caret) {
+        checkFxThread();
+        CaretBlinkClock clock = CLOCKS.computeIfAbsent(caret.millis, CaretBlinkClock::new);
+        clock.carets.add(caret);
+        if (clock.carets.size() == 1) {
+            clock.timeline.play();
+        }
+    }
+
+    private static void remove(BlinkStream caret) {
+        checkFxThread();
+        CaretBlinkClock clock = CLOCKS.get(caret.millis);
+        if (clock != null && clock.carets.remove(caret) && clock.carets.isEmpty()) {
+            clock.timeline.stop();
+            CLOCKS.remove(clock.millis);
+        }
+    }
+
+    private static final class BlinkStream extends EventStreamBase<Boolean> {
+        private final long millis;
+        private final EventStream<?> restartImpulse;
+
+        private boolean visible;
+        private long restartedAt;
+
+        BlinkStream(long millis, EventStream<?> restartImpulse) {
+            this.millis = millis;
+            this.restartImpulse = restartImpulse;
+        }
+
+        @Override
+        protected Subscription observeInputs() {
+            restart();
+            Subscription restarts = restartImpulse.subscribe(any -> restart());
+            add(this);
+            return restarts.and(() -> remove(this));
+        }
+
+        private void restart() {
+            restartedAt = System.nanoTime();
+            visible = true;
+            emit(true);
+        }
+
+        private void tick(long now) {
+            if (now - restartedAt < millis * 1_000_000L) {
+                return;
+            }
+            visible = !visible;
+            emit(visible);
+        }
+    }
+}
@@ -7,12 +7,13 @@ import javafx.css.StyleConverter;
 import javafx.css.Styleable;
 import javafx.css.StyleableObjectProperty;
 import javafx.geometry.Bounds;
+import javafx.scene.Scene;
 import javafx.scene.shape.Path;
+import javafx.stage.Window;
 import org.fxmisc.richtext.model.PlainTextChange;
 import org.fxmisc.richtext.model.TwoDimensional;
 import org.reactfx.EventStream;
 import org.reactfx.EventStreams;
-import org.reactfx.StateMachine;
 import org.reactfx.Subscription;
 import org.reactfx.Suspendable;
 import org.reactfx.SuspendableNo;
@@ -21,7 +22,6 @@ import org.reactfx.value.Val;
 import org.reactfx.value.Var;
 
 import java.text.BreakIterator;
-import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -175,18 +175,23 @@ public class CaretNode extends Path implements Caret, Comparable<CaretNode> {
                 invalidationsOf(area.getParagraphs())
         );
 
-        // The caret is visible in periodic intervals,
-        // but only when blinkCaret is true.
+        // whether the caret is in a cell of a showing window; otherwise, it does not blink at all
+        Val<Boolean> showing = Val.flatMap(sceneProperty(), Scene::windowProperty)
+                .flatMap(Window::showingProperty)
+                .orElseConst(false);
+
+        // The caret is visible in periodic intervals, driven by the blink clock shared by all carets
+        // with the same blink rate, but only when blinkCaret is true.
         EventStream<javafx.util.Duration> nonNullBlinkRates = EventStreams.valuesOf(blinkRate).filter(i -> i != null);
         manageSubscription(
-                EventStreams.combine(blinkCaret, nonNullBlinkRates)
+                EventStreams.combine(blinkCaret, nonNullBlinkRates, showing.values())
                         .flatMap(tuple -> {
                             Boolean blink = tuple.get1();
                             javafx.util.Duration rate = tuple.get2();
-                            if(blink) {
+                            if (blink && tuple.get3()) {
                                 return rate.lessThanOrEqualTo(ZERO)
                                         ? Val.constant(true).values()
-                                        : booleanPulse(rate, dirty);
+                                        : CaretBlinkClock.blink(rate, dirty);
                             } else {
                                 return Val.constant(false).values();
                             }
@@ -196,7 +201,7 @@ public class CaretNode extends Path implements Caret, Comparable<CaretNode> {
 
         bounds = Val.create(
                 () -> area.getCaretBoundsOnScreen(this),
-                invalidationsOf(paragraphIndex)
+                area.boundsInvalidations(invalidationsOf(paragraphIndex))
         ).suspendable();
 
         lineIndex = Val.create(
@@ -216,10 +221,12 @@ public class CaretNode extends Path implements Caret, Comparable<CaretNode> {
     }
 
     private void handleContentChange(List<PlainTextChange> list) {
+        Object event = ViewEvents.beginRebase();
         int newPosition = new CaretPositionChange().apply(getPosition(), list);
         if (newPosition != getPosition()) {
             moveTo(newPosition);
         }
+        ViewEvents.commitRebase(event, "caret", area.getLength(), list.size());
     }
 
     /* ********************************************************************** *
@@ -324,15 +331,6 @@ public class CaretNode extends Path implements Caret, Comparable<CaretNode> {
         subscriptions = subscriptions.and(s);
     }
 
-    private static EventStream<Boolean> booleanPulse(javafx.util.Duration javafxDuration, EventStream<?> restartImpulse) {
-        Duration duration = Duration.ofMillis(Math.round(javafxDuration.toMillis()));
-        EventStream<?> ticks = EventStreams.restartableTicks(duration, restartImpulse);
-        return StateMachine.init(false)
-                .on(restartImpulse.withDefaultEvent(null)).transition((state, impulse) -> true)
-                .on(ticks).transition((state, tick) -> !state)
-                .toStateStream();
-    }
-
     /**
      * Helper method for reducing duplicate code
      * @param numOfBreaks the number of breaks
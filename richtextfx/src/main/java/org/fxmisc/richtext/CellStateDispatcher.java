@@ -0,0 +1,134 @@
+package org.fxmisc.richtext;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javafx.css.PseudoClass;
+
+import org.reactfx.EventStreams;
+import org.reactfx.Subscription;
+
+/**
+ * Keeps the paragraph-dependent state of the cells of a {@link GenericStyledArea}'s viewport up to date: the
+ * {@code :first-paragraph}, {@code :last-paragraph} and {@code :has-caret} pseudo-classes and the carets shown by
+ * each cell. Instead of each cell observing the number of paragraphs, the current paragraph and the paragraph of
+ * each caret, the area observes each of them once and only updates the cells whose paragraph was affected
+ * by the change, e.g. the cells of the old and the new last paragraph when paragraphs are added.
+ *
+ * @param <PS> paragraph style type
+ * @param <SEG> segment type
+ * @param <S> segment style type
+ */
+final class CellStateDispatcher<PS, SEG, S> {
+
+    static final PseudoClass HAS_CARET = PseudoClass.getPseudoClass("has-caret");
+    static final PseudoClass FIRST_PAR = PseudoClass.getPseudoClass("first-paragraph");
+    static final PseudoClass LAST_PAR  = PseudoClass.getPseudoClass("last-paragraph");
+
+    private final GenericStyledArea<PS, SEG, S> area;
+    private final Collection<ParagraphBox<PS, SEG, S>> cells;
+    private final Subscription subscription;
+
+    /** The paragraph of each caret, as last dispatched to the cells */
+    private final Map<CaretNode, Integer> caretParagraphs = new LinkedHashMap<>();
+    private int lastParagraph;
+    private int currentParagraph;
+
+    /**
+     * @param area the area whose cells are updated
+     * @param cells the cells currently used by the area's viewport
+     */
+    CellStateDispatcher(GenericStyledArea<PS, SEG, S> area, Collection<ParagraphBox<PS, SEG, S>> cells) {
+        this.area = area;
+        this.cells = cells;
+        this.lastParagraph = area.getParagraphs().size() - 1;
+        this.currentParagraph = area.getCurrentParagraph();
+
+        Subscription lastParagraphChanges = EventStreams.valuesOf(area.getParagraphs().sizeProperty())
+                .subscribe(size -> {
+                    int oldLast = lastParagraph;
+                    lastParagraph = size - 1;
+                    if (oldLast != lastParagraph) {
+                        updateCells(oldLast, lastParagraph, box -> box.pseudoClassStateChanged(LAST_PAR, false),
+                                box -> box.pseudoClassStateChanged(LAST_PAR, true));
+                    }
+                });
+        Subscription currentParagraphChanges = EventStreams.nonNullValuesOf(area.currentParagraphProperty())
+                .subscribe(par -> {
+                    int oldCurrent = currentParagraph;
+                    currentParagraph = par;
+                    if (oldCurrent != currentParagraph) {
+                        updateCells(oldCurrent, currentParagraph, box -> box.pseudoClassStateChanged(HAS_CARET, false),
+                                box -> box.pseudoClassStateChanged(HAS_CARET, true));
+                    }
+                });
+        this.subscription = lastParagraphChanges.and(currentParagraphChanges);
+    }
+
+    /**
+     * Starts showing the given caret in the cell of its paragraph. Meant to be used with
+     * {@link org.fxmisc.richtext.util.SubscribeableContentsObsSet#addSubscriber(java.util.function.Function)},
+     * so that the returned subscription removes it from the cells when it is removed from the area.
+     */
+    Subscription register(CaretNode caret) {
+        Subscription paragraphChanges = EventStreams.nonNullValuesOf(caret.paragraphIndexProperty())
+                .subscribe(par -> {
+                    Integer oldPar = caretParagraphs.put(caret, par);
+                    if (!par.equals(oldPar)) {
+                        updateCells(oldPar == null ? -1 : oldPar, par, box -> box.caretsProperty().remove(caret),
+                                box -> box.caretsProperty().add(caret));
+                    }
+                });
+
+        return paragraphChanges.and(() -> {
+            Integer par = caretParagraphs.remove(caret);
+            if (par != null) {
+                updateCells(par, -1, box -> box.caretsProperty().remove(caret), box -> {});
+            }
+        });
+    }
+
+    /**
+     * Called when the given cell got a new paragraph index: sets all of its state from scratch.
+     */
+    void cellIndexChanged(ParagraphBox<PS, SEG, S> box) {
+        int idx = box.getIndex();
+        box.pseudoClassStateChanged(FIRST_PAR, idx == 0);
+        box.pseudoClassStateChanged(LAST_PAR, idx == lastParagraph);
+        box.pseudoClassStateChanged(HAS_CARET, idx == currentParagraph);
+        for (Map.Entry<CaretNode, Integer> entry : caretParagraphs.entrySet()) {
+            if (entry.getValue() == idx) {
+                box.caretsProperty().add(entry.getKey());
+            } else {
+                box.caretsProperty().remove(entry.getKey());
+            }
+        }
+    }
+
+    void dispose() {
+        subscription.unsubscribe();
+        caretParagraphs.clear();
+    }
+
+    /**
+     * Applies {@code leave} to the cell of the {@code from} paragraph and then {@code enter} to the cell of the
+     * {@code to} paragraph, if these paragraphs are visible.
+     */
+    private void updateCells(int from, int to, Consumer<ParagraphBox<PS, SEG, S>> leave,
+                             Consumer<ParagraphBox<PS, SEG, S>> enter) {
+        for (ParagraphBox<PS, SEG, S> box : cells) {
+            int idx = box.getIndex();
+            if (idx == -1) {
+                continue;
+            }
+            if (idx == from) {
+                leave.accept(box);
+            }
+            if (idx == to) {
+                enter.accept(box);
+            }
+        }
+    }
+}
@@ -6,6 +6,8 @@ import java.util.regex.Pattern;
 
 import javafx.beans.NamedArg;
 import org.fxmisc.richtext.model.EditableStyledDocument;
+import org.fxmisc.richtext.model.TwoDimensional.Bias;
+import org.fxmisc.richtext.model.TwoDimensional.Position;
 
 /**
  * A convenience subclass of {@link StyleClassedTextArea} with fixed-width font and an undo manager that observes
@@ -13,11 +15,13 @@ import org.fxmisc.richtext.model.EditableStyledDocument;
  */
 public class CodeArea extends StyleClassedTextArea {
 
+    private static final String STYLESHEET = CodeArea.class.getResource("code-area.css").toExternalForm();
+
     {
         getStyleClass().add("code-area");
 
         // load the default style that defines a fixed-width font
-        getStylesheets().add(CodeArea.class.getResource("code-area.css").toExternalForm());
+        getStylesheets().add(STYLESHEET);
 
         // don't apply preceding style to typed text
         setUseInitialStyleForInsertion(true);
@@ -144,4 +148,61 @@ public class CodeArea extends StyleClassedTextArea {
             }
         }
     }
+
+    private String bracketPairs = "(){}[]";
+    private BracketIndex bracketIndex;
+
+    /**
+     * Sets the brackets matched by {@link #findMatchingBracket(int)}, as a string of opening and closing
+     * bracket pairs. The default is {@code "(){}[]"}.
+     */
+    public void setBracketPairs( String pairs )
+    {
+        if ( pairs.length() % 2 != 0 ) {
+            throw new IllegalArgumentException( "Brackets must come in pairs: " + pairs );
+        }
+        bracketPairs = pairs;
+        if ( bracketIndex != null ) {
+            bracketIndex.dispose();
+            bracketIndex = null;
+        }
+    }
+
+    public String getBracketPairs()
+    {
+        return bracketPairs;
+    }
+
+    /**
+     * Returns the position of the bracket that matches the bracket at the given position, or -1 if there is no
+     * bracket at that position or if it has no match. Brackets of one kind are matched regardless of the other
+     * kinds of brackets, so e.g. the match of the first bracket of {@code "( [ ) ]"} is the third one.
+     *
+     * <p>The bracket counts of the paragraphs are indexed the first time this method is called and then kept up to
+     * date, so that finding the match of an opening bracket takes O(log n) time, and finding the match of a closing
+     * bracket takes O(log&sup2; n) time, where n is the number of paragraphs, plus the time needed to scan the
+     * paragraphs of the bracket and of its match.</p>
+     */
+    public int findMatchingBracket( int position )
+    {
+        if ( position < 0 || position >= getLength() ) return -1;
+
+        if ( bracketIndex == null ) {
+            bracketIndex = new BracketIndex( bracketPairs, getContent() );
+        }
+
+        Position pos = offsetToPosition( position, Bias.Forward );
+        return bracketIndex.findMatchingBracket( pos.getMajor(), pos.getMinor() )
+                .map( match -> getAbsolutePosition( match.major, match.minor ) )
+                .orElse( -1 );
+    }
+
+    @Override
+    public void dispose()
+    {
+        if ( bracketIndex != null ) {
+            bracketIndex.dispose();
+        }
+        super.dispose();
+    }
 }
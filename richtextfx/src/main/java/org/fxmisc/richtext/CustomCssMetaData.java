@@ -14,16 +14,32 @@ import java.util.function.Function;
 public class CustomCssMetaData<S extends Styleable, V> extends CssMetaData<S, V> {
 
     private final Function<S, StyleableObjectProperty<V>> property;
+    private final Function<S, StyleableObjectProperty<V>> createdProperty;
 
     CustomCssMetaData(String property, StyleConverter<?, V> converter, V initialValue,
                       Function<S, StyleableObjectProperty<V>> getStyleableProperty) {
+        this(property, converter, initialValue, getStyleableProperty, getStyleableProperty);
+    }
+
+    /**
+     * Creates the metadata of a property that is created lazily.
+     *
+     * @param getStyleableProperty returns the property, creating it if needed
+     * @param getCreatedStyleableProperty returns the property if it was created, or else {@code null}, so that the
+     *                                    CSS engine can check whether the property is settable without creating it
+     */
+    CustomCssMetaData(String property, StyleConverter<?, V> converter, V initialValue,
+                      Function<S, StyleableObjectProperty<V>> getStyleableProperty,
+                      Function<S, StyleableObjectProperty<V>> getCreatedStyleableProperty) {
         super(property, converter, initialValue);
         this.property = getStyleableProperty;
+        this.createdProperty = getCreatedStyleableProperty;
     }
 
     @Override
     public boolean isSettable(S styleable) {
-        return !property.apply(styleable).isBound();
+        StyleableObjectProperty<V> prop = createdProperty.apply(styleable);
+        return prop == null || !prop.isBound();
     }
 
     @Override
@@ -0,0 +1,358 @@
+package org.fxmisc.richtext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+import javafx.scene.control.IndexRange;
+
+import org.reactfx.EventSource;
+import org.reactfx.EventStream;
+import org.reactfx.SuspendableEventStream;
+import org.reactfx.util.BiIndex;
+import org.reactfx.util.FingerTree;
+import org.reactfx.util.FingerTree.NonEmptyFingerTree;
+import org.reactfx.util.ToSemigroup;
+
+/**
+ * Styles that are painted over ranges of a {@link GenericStyledArea}'s text without being part of its document,
+ * e.g. search hits, spell-check squiggles or compiler diagnostics. Adding or removing decorations does not change
+ * the document: it neither emits a {@link org.fxmisc.richtext.model.RichTextChange}, nor creates an undo entry,
+ * nor recreates the area's cells. Only the text nodes of the visible paragraphs whose decorations changed are
+ * rebuilt, with the decoration styles combined with the document's styles through the area's
+ * {@link GenericStyledArea#setDecorationStyleCombiner(java.util.function.BiFunction) style combiner}.
+ *
+ * <p>Decorations are stored per paragraph, in a {@link FingerTree} that also mirrors the paragraph lengths, so
+ * adding a decoration and moving the decorations on an edit take O(log n) time, where n is the number of
+ * paragraphs. Decorations move with the text like selections do: text inserted inside a decoration extends it,
+ * text inserted at its boundaries does not, and a decoration whose text is removed is removed too.
+ * Decorations never span paragraph boundaries; one that is added over several paragraphs is split.</p>
+ *
+ * <p>Use {@link #batch(Runnable)} to add or remove many decorations with a single repaint.</p>
+ *
+ * @param <S> segment style type
+ */
+public final class DecorationLayer<S> {
+
+    /**
+     * A style painted from {@link #getStart() start} (inclusive) to {@link #getEnd() end} (exclusive)
+     * column of a paragraph.
+     */
+    public static final class Decoration<S> {
+        private final int start;
+        private final int end;
+        private final S style;
+
+        Decoration(int start, int end, S style) {
+            this.start = start;
+            this.end = end;
+            this.style = style;
+        }
+
+        public int getStart() { return start; }
+        public int getEnd() { return end; }
+        public S getStyle() { return style; }
+
+        @Override
+        public String toString() {
+            return "Decoration[" + start + ", " + end + ", " + style + "]";
+        }
+    }
+
+    /**
+     * The decorations of one paragraph, sorted by start column, along with the length of the paragraph.
+     */
+    private static final class Line<S> {
+        private final int length;
+        private final List<Decoration<S>> decorations;
+
+        Line(int length, List<Decoration<S>> decorations) {
+            this.length = length;
+            this.decorations = decorations;
+        }
+    }
+
+    private static final class Summary {
+        private final int paragraphCount;
+        /** Number of characters, including one line terminator per paragraph */
+        private final int charCount;
+        private final int decorationCount;
+
+        Summary(int paragraphCount, int charCount, int decorationCount) {
+            this.paragraphCount = paragraphCount;
+            this.charCount = charCount;
+            this.decorationCount = decorationCount;
+        }
+    }
+
+    private static final ToSemigroup<Line<?>, Summary> SUMMARY_PROVIDER = new ToSemigroup<Line<?>, Summary>() {
+
+        @Override
+        public Summary apply(Line<?> line) {
+            return new Summary(1, line.length + 1, line.decorations.size());
+        }
+
+        @Override
+        public Summary reduce(Summary left, Summary right) {
+            return new Summary(
+                    left.paragraphCount + right.paragraphCount,
+                    left.charCount + right.charCount,
+                    left.decorationCount + right.decorationCount);
+        }
+    };
+
+    private FingerTree<Line<S>, Summary> tree;
+
+    private final EventSource<IndexRange> changeSource = new EventSource<>();
+    private final SuspendableEventStream<IndexRange> changes = changeSource.reducible((a, b) -> new IndexRange(
+            Math.min(a.getStart(), b.getStart()),
+            Math.max(a.getEnd(), b.getEnd())));
+
+    /**
+     * Emits the range of paragraphs (start inclusive, end exclusive) whose decorations changed.
+     */
+    public EventStream<IndexRange> changes() { return changes; }
+
+    /**
+     * @param paragraphCount the number of paragraphs of the document
+     * @param paragraphLength the length of each paragraph of the document
+     */
+    DecorationLayer(int paragraphCount, IntUnaryOperator paragraphLength) {
+        List<Line<S>> lines = new ArrayList<>(paragraphCount);
+        for (int i = 0; i < paragraphCount; i++) {
+            lines.add(new Line<>(paragraphLength.applyAsInt(i), Collections.emptyList()));
+        }
+        tree = mkTree(lines);
+    }
+
+    /**
+     * Returns the number of paragraphs of the document, as known to this layer.
+     */
+    public int getParagraphCount() {
+        return summaryOf(tree).paragraphCount;
+    }
+
+    /**
+     * Returns the total number of decorations.
+     */
+    public int size() {
+        return summaryOf(tree).decorationCount;
+    }
+
+    /**
+     * Returns the decorations of the given paragraph, sorted by start column.
+     */
+    public List<Decoration<S>> getDecorations(int paragraph) {
+        checkIndex(paragraph);
+        return nonEmpty(tree).getLeaf(paragraph).decorations;
+    }
+
+    /**
+     * Paints the given style over the text from {@code start} (inclusive) to {@code end} (exclusive).
+     * Does nothing if the range is empty.
+     */
+    public void add(int start, int end, S style) {
+        if (start >= end) {
+            return;
+        }
+        BiIndex from = locate(start);
+        BiIndex to = locate(end);
+        for (int paragraph = from.major; paragraph <= to.major; paragraph++) {
+            Line<S> line = nonEmpty(tree).getLeaf(paragraph);
+            int startColumn = paragraph == from.major ? from.minor : 0;
+            int endColumn = paragraph == to.major ? to.minor : line.length;
+            if (startColumn < endColumn) {
+                List<Decoration<S>> decorations = new ArrayList<>(line.decorations.size() + 1);
+                decorations.addAll(line.decorations);
+                decorations.add(insertionPoint(decorations, startColumn), new Decoration<>(startColumn, endColumn, style));
+                setLine(paragraph, new Line<>(line.length, Collections.unmodifiableList(decorations)));
+            }
+        }
+        changeSource.push(new IndexRange(from.major, to.major + 1));
+    }
+
+    /**
+     * Removes the decorations that overlap the text from {@code start} (inclusive) to {@code end} (exclusive).
+     */
+    public void remove(int start, int end) {
+        BiIndex from = locate(start);
+        BiIndex to = locate(end);
+        int firstChanged = Integer.MAX_VALUE;
+        int lastChanged = -1;
+        for (int paragraph = from.major; paragraph <= to.major; paragraph++) {
+            Line<S> line = nonEmpty(tree).getLeaf(paragraph);
+            int startColumn = paragraph == from.major ? from.minor : 0;
+            int endColumn = paragraph == to.major ? to.minor : line.length + 1;
+            List<Decoration<S>> kept = new ArrayList<>(line.decorations.size());
+            for (Decoration<S> d : line.decorations) {
+                boolean overlaps = start == end
+                        ? d.start <= startColumn && startColumn < d.end
+                        : d.start < endColumn && startColumn < d.end;
+                if (!overlaps) {
+                    kept.add(d);
+                }
+            }
+            if (kept.size() != line.decorations.size()) {
+                setLine(paragraph, new Line<>(line.length, immutable(kept)));
+                firstChanged = Math.min(firstChanged, paragraph);
+                lastChanged = paragraph;
+            }
+        }
+        if (firstChanged <= lastChanged) {
+            changeSource.push(new IndexRange(firstChanged, lastChanged + 1));
+        }
+    }
+
+    /**
+     * Removes all the decorations.
+     */
+    public void clear() {
+        if (size() == 0) {
+            return;
+        }
+        int paragraphCount = summaryOf(tree).paragraphCount;
+        List<Line<S>> lines = new ArrayList<>(paragraphCount);
+        for (int i = 0; i < paragraphCount; i++) {
+            lines.add(new Line<>(nonEmpty(tree).getLeaf(i).length, Collections.emptyList()));
+        }
+        tree = mkTree(lines);
+        changeSource.push(new IndexRange(0, paragraphCount));
+    }
+
+    /**
+     * Runs the given action, which may add or remove any number of decorations, and only repaints the affected
+     * paragraphs once it is done.
+     */
+    public void batch(Runnable action) {
+        changes.suspendWhile(action);
+    }
+
+    /**
+     * Moves the decorations for the replacement of {@code removedLength} characters at {@code position} by text
+     * made of {@code insertedParagraphCount} paragraphs, whose lengths are given by {@code insertedParagraphLength}.
+     * Only the lengths are needed, so that the removed and inserted text never has to be created.
+     */
+    void replace(int position, int removedLength, int insertedParagraphCount, IntUnaryOperator insertedParagraphLength) {
+        BiIndex at = locate(position);
+        int firstParagraph = at.major;
+        int column = at.minor;
+        int lastParagraph = locate(position + removedLength).major;
+
+        // collect the affected decorations in coordinates relative to the start of the first paragraph
+        NonEmptyFingerTree<Line<S>, Summary> ne = nonEmpty(tree);
+        List<Decoration<S>> affected = new ArrayList<>();
+        int regionLength = 0;
+        for (int paragraph = firstParagraph; paragraph <= lastParagraph; paragraph++) {
+            Line<S> line = ne.getLeaf(paragraph);
+            for (Decoration<S> d : line.decorations) {
+                affected.add(new Decoration<>(regionLength + d.start, regionLength + d.end, d.style));
+            }
+            regionLength += line.length + 1;
+        }
+        regionLength -= 1; // no line terminator after the last paragraph
+
+        // move them like a selection would be moved
+        int insertedLength = insertedParagraphCount - 1;
+        for (int i = 0; i < insertedParagraphCount; i++) {
+            insertedLength += insertedParagraphLength.applyAsInt(i);
+        }
+        int removalEnd = column + removedLength;
+        int netLength = insertedLength - removedLength;
+        List<Decoration<S>> moved = new ArrayList<>(affected.size());
+        for (Decoration<S> d : affected) {
+            int start = d.start < column ? d.start
+                    : d.start >= removalEnd ? d.start + netLength
+                    : column + insertedLength;
+            int end = d.end <= column ? d.end
+                    : d.end > removalEnd ? d.end + netLength
+                    : column;
+            if (start < end) {
+                moved.add(new Decoration<>(start, end, d.style));
+            }
+        }
+
+        // split the region into the new paragraphs
+        int newRegionLength = regionLength + netLength;
+        List<Line<S>> lines = new ArrayList<>(insertedParagraphCount);
+        int lineStart = 0;
+        for (int i = 0; i < insertedParagraphCount; i++) {
+            int lineEnd = i == insertedParagraphCount - 1 ? newRegionLength
+                    : (i == 0 ? column : lineStart) + insertedParagraphLength.applyAsInt(i);
+            List<Decoration<S>> decorations = new ArrayList<>();
+            for (Decoration<S> d : moved) {
+                int start = Math.max(d.start, lineStart);
+                int end = Math.min(d.end, lineEnd);
+                if (start < end) {
+                    decorations.add(new Decoration<>(start - lineStart, end - lineStart, d.style));
+                }
+            }
+            decorations.sort((a, b) -> Integer.compare(a.start, b.start));
+            lines.add(new Line<>(lineEnd - lineStart, immutable(decorations)));
+            lineStart = lineEnd + 1;
+        }
+
+        tree = tree.split(firstParagraph)._1
+                .join(mkTree(lines))
+                .join(tree.split(lastParagraph + 1)._2);
+
+        // the cells of the new paragraphs may have been created before this update, with the decorations
+        // of the paragraphs that were at their index then
+        if (!affected.isEmpty() || size() > 0) {
+            changeSource.push(new IndexRange(firstParagraph, firstParagraph + lines.size()));
+        }
+    }
+
+    /* ********************************************************************** *
+     *                                                                        *
+     * Private methods                                                        *
+     *                                                                        *
+     * ********************************************************************** */
+
+    /** Returns the paragraph ({@code major}) and column ({@code minor}) of the given position. */
+    private BiIndex locate(int position) {
+        int length = summaryOf(tree).charCount - 1;
+        if (position < 0 || position > length) {
+            throw new IndexOutOfBoundsException("Position " + position + " is out of bounds [0, " + length + "]");
+        }
+        return nonEmpty(tree).locateProgressively(s -> s.charCount, position);
+    }
+
+    private void setLine(int paragraph, Line<S> line) {
+        tree = nonEmpty(tree).updateLeaf(paragraph, line);
+    }
+
+    private void checkIndex(int paragraph) {
+        int paragraphCount = summaryOf(tree).paragraphCount;
+        if (paragraph < 0 || paragraph >= paragraphCount) {
+            throw new IndexOutOfBoundsException("Paragraph " + paragraph + " is out of bounds [0, " + paragraphCount + ")");
+        }
+    }
+
+    private static <S> int insertionPoint(List<Decoration<S>> decorations, int startColumn) {
+        int i = decorations.size();
+        while (i > 0 && decorations.get(i - 1).start > startColumn) {
+            i--;
+        }
+        return i;
+    }
+
+    private static <S> List<Decoration<S>> immutable(List<Decoration<S>> decorations) {
+        return decorations.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(decorations);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static <S> FingerTree<Line<S>, Summary> mkTree(List<Line<S>> lines) {
+        return FingerTree.mkTree(lines, (ToSemigroup) SUMMARY_PROVIDER);
+    }
+
+    private static <S> NonEmptyFingerTree<Line<S>, Summary> nonEmpty(FingerTree<Line<S>, Summary> tree) {
+        return tree.caseEmpty().unify(
+                emptyTree -> { throw new AssertionError("Unreachable code"); },
+                neTree -> neTree);
+    }
+
+    private static Summary summaryOf(FingerTree<?, Summary> tree) {
+        return tree.getSummaryBetween(0, tree.getLeafCount()).orElse(new Summary(0, 0, 0));
+    }
+}
@@ -0,0 +1,398 @@
+package org.fxmisc.richtext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.scene.control.IndexRange;
+
+import org.fxmisc.richtext.model.ReadOnlyStyledDocument;
+import org.fxmisc.richtext.model.TwoDimensional;
+import org.reactfx.EventSource;
+import org.reactfx.EventStream;
+import org.reactfx.Subscription;
+import org.reactfx.util.BiIndex;
+
+/**
+ * Finds all the occurrences of a literal text or of a regular expression in a {@link GenericStyledArea}, keeps them
+ * up to date while the area is edited, and replaces them all in one change.
+ *
+ * <p>When a search is started, the text is searched on a background thread, in an immutable
+ * {@link ReadOnlyStyledDocument} snapshot of the area's document, and the hits are delivered to the JavaFX
+ * Application Thread in chunks of paragraphs as they are found. The hits are kept in an index that is sorted by
+ * position, in which the n-th hit and the hits that follow or precede a position are found in O(log n) time.
+ * When the document is edited, only the paragraphs that were modified are searched again; the hits of the other
+ * paragraphs are just moved, including those that were found in the snapshot after the edit.</p>
+ *
+ * <p>Hits never span several paragraphs and empty matches are ignored. Hit positions are expressed in the area's
+ * current document. All the methods of this class must be called on the JavaFX Application Thread.</p>
+ *
+ * <p>An instance is obtained via {@link GenericStyledArea#getSearch()}.</p>
+ *
+ * @param <PS> paragraph style type
+ * @param <SEG> segment type
+ * @param <S> segment style type
+ */
+public final class DocumentSearch<PS, SEG, S> {
+
+    /** Number of paragraphs searched in the background between two deliveries of hits. */
+    private static final int CHUNK_SIZE = 512;
+
+    private final GenericStyledArea<PS, SEG, S> area;
+    private final Executor executor;
+    private final Subscription paragraphChanges;
+
+    /** Incremented each time a search is started or stopped, so that a background search knows it was cancelled. */
+    private final AtomicInteger generation = new AtomicInteger();
+
+    private Pattern pattern;
+    private boolean literal;
+    private SearchHits hits;
+
+    /** Paragraph modifications {@code [from, removedCount, addedCount]} made since the snapshot was taken. */
+    private final List<int[]> editsSinceSnapshot = new ArrayList<>();
+
+    private final ReadOnlyBooleanWrapper searching = new ReadOnlyBooleanWrapper(this, "searching", false);
+    /** True while a background search is running. */
+    public final ReadOnlyBooleanProperty searchingProperty() { return searching.getReadOnlyProperty(); }
+    public final boolean isSearching() { return searching.get(); }
+
+    private final ReadOnlyIntegerWrapper hitCount = new ReadOnlyIntegerWrapper(this, "hitCount", 0);
+    /** The number of hits found so far. */
+    public final ReadOnlyIntegerProperty hitCountProperty() { return hitCount.getReadOnlyProperty(); }
+    public final int getHitCount() { return hitCount.get(); }
+
+    private final EventSource<IndexRange> hitChanges = new EventSource<>();
+    /**
+     * Emits the range of paragraphs (start inclusive, end exclusive) whose hits changed, e.g. to highlight them.
+     */
+    public final EventStream<IndexRange> hitChanges() { return hitChanges; }
+
+    /**
+     * Creates a search that runs on the {@link ForkJoinPool#commonPool() common pool}.
+     */
+    public DocumentSearch(GenericStyledArea<PS, SEG, S> area) {
+        this(area, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param area the area to search
+     * @param executor the executor on which the background searches run
+     */
+    public DocumentSearch(GenericStyledArea<PS, SEG, S> area, Executor executor) {
+        this.area = area;
+        this.executor = executor;
+        this.paragraphChanges = area.getParagraphs().changes().subscribe(change -> change.getModifications().forEach(
+                mod -> paragraphsReplaced(mod.getFrom(), mod.getRemovedSize(), mod.getAddedSize())
+        ));
+    }
+
+    /**
+     * Starts searching for the given text, replacing the current search.
+     *
+     * @param matchCase whether the case of the letters must match
+     */
+    public void find(String text, boolean matchCase) {
+        int flags = Pattern.LITERAL | (matchCase ? 0 : Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        start(Pattern.compile(text, flags), true);
+    }
+
+    /**
+     * Starts searching for the given regular expression, replacing the current search.
+     */
+    public void find(Pattern pattern) {
+        start(pattern, false);
+    }
+
+    /**
+     * Stops the current search and forgets its hits.
+     */
+    public void clear() {
+        if (pattern == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        editsSinceSnapshot.clear();
+        int paragraphCount = hits.getParagraphCount();
+        pattern = null;
+        hits = null;
+        searching.set(false);
+        hitCount.set(0);
+        hitChanges.push(new IndexRange(0, paragraphCount));
+    }
+
+    /**
+     * Returns the start and end positions of the {@code index}-th hit.
+     */
+    public IndexRange getHit(int index) {
+        if (hits == null) {
+            throw new IndexOutOfBoundsException("Hit " + index + " is out of bounds [0, 0)");
+        }
+        BiIndex at = hits.locateHit(index);
+        int[] bounds = hits.getParagraphHits(at.major);
+        int parStart = area.getAbsolutePosition(at.major, 0);
+        return new IndexRange(parStart + bounds[2 * at.minor], parStart + bounds[2 * at.minor + 1]);
+    }
+
+    /**
+     * Returns the start and end columns of the hits of the given paragraph, e.g. to highlight them.
+     */
+    public List<IndexRange> getParagraphHits(int paragraph) {
+        if (hits == null) {
+            return Collections.emptyList();
+        }
+        int[] bounds = hits.getParagraphHits(paragraph);
+        List<IndexRange> result = new ArrayList<>(bounds.length / 2);
+        for (int i = 0; i < bounds.length; i += 2) {
+            result.add(new IndexRange(bounds[i], bounds[i + 1]));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index of the first hit that starts at or after the given position, which is
+     * {@link #getHitCount()} if there is none.
+     */
+    public int getHitIndexAt(int position) {
+        if (hits == null) {
+            return 0;
+        }
+        TwoDimensional.Position pos = area.offsetToPosition(position, TwoDimensional.Bias.Forward);
+        return hits.countHitsBefore(pos.getMajor(), pos.getMinor());
+    }
+
+    /**
+     * Returns the first hit that starts at or after the given position, if any.
+     */
+    public Optional<IndexRange> nextHit(int position) {
+        int index = getHitIndexAt(position);
+        return index < getHitCount() ? Optional.of(getHit(index)) : Optional.empty();
+    }
+
+    /**
+     * Returns the last hit that starts before the given position, if any.
+     */
+    public Optional<IndexRange> previousHit(int position) {
+        int index = getHitIndexAt(position) - 1;
+        return index >= 0 ? Optional.of(getHit(index)) : Optional.empty();
+    }
+
+    /**
+     * Replaces all the hits with the given replacement in one change of the document, which is undone as a whole.
+     * When searching for a regular expression, the replacement may refer to captured groups as in
+     * {@link Matcher#replaceAll(String)}; when searching for a literal text, it is inserted as is.
+     * If the background search is still running, it is completed first on the calling thread.
+     *
+     * @return the number of hits that were replaced
+     */
+    public int replaceAll(String replacement) {
+        if (pattern == null) {
+            return 0;
+        }
+        if (isSearching()) {
+            searchNow();
+        }
+        if (hits.getHitCount() == 0) {
+            return 0;
+        }
+
+        String expandable = literal ? Matcher.quoteReplacement(replacement) : replacement;
+        int hitCount = hits.getHitCount();
+        int[] starts = new int[hitCount];
+        int[] ends = new int[hitCount];
+        String[] texts = new String[hitCount];
+        Matcher matcher = pattern.matcher("");
+        int count = 0;
+        for (int paragraph : hits.getParagraphsWithHits()) {
+            // the hits of a paragraph are exactly its non-empty matches, so they are found again in the same order
+            int parStart = area.getAbsolutePosition(paragraph, 0);
+            matcher.reset(area.getParagraph(paragraph).getText());
+            StringBuilder sb = new StringBuilder();
+            int appended = 0;
+            while (matcher.find()) {
+                if (matcher.end() == matcher.start()) {
+                    continue;
+                }
+                int replacementStart = sb.length() + matcher.start() - appended;
+                matcher.appendReplacement(sb, expandable);
+                appended = matcher.end();
+                starts[count] = parStart + matcher.start();
+                ends[count] = parStart + matcher.end();
+                texts[count] = sb.substring(replacementStart);
+                count++;
+            }
+        }
+
+        // the replacements are added from the last to the first, so that the positions of each of them are
+        // unaffected by those added before it; relative replacements would be rebased on all the previous ones
+        MultiChangeBuilder<PS, SEG, S> builder = area.createMultiChange(count);
+        for (int i = count - 1; i >= 0; i--) {
+            builder.replaceTextAbsolutely(starts[i], ends[i], texts[i]);
+        }
+        builder.commit();
+        return count;
+    }
+
+    /**
+     * Stops the search and stops tracking the area's changes.
+     */
+    public void dispose() {
+        clear();
+        paragraphChanges.unsubscribe();
+    }
+
+    /* ********************************************************************** *
+     *                                                                        *
+     * Private methods                                                        *
+     *                                                                        *
+     * ********************************************************************** */
+
+    private void start(Pattern pattern, boolean literal) {
+        int currentGeneration = generation.incrementAndGet();
+        editsSinceSnapshot.clear();
+        this.pattern = pattern;
+        this.literal = literal;
+        this.hits = new SearchHits(area.getParagraphs().size());
+        hitCount.set(0);
+        searching.set(true);
+        hitChanges.push(new IndexRange(0, hits.getParagraphCount()));
+
+        ReadOnlyStyledDocument<PS, SEG, S> snapshot = area.getContent().snapshot();
+        executor.execute(() -> searchInBackground(snapshot, pattern, currentGeneration));
+    }
+
+    /** Runs on the background thread. */
+    private void searchInBackground(ReadOnlyStyledDocument<PS, SEG, S> snapshot, Pattern pattern, int searchGeneration) {
+        try {
+            Matcher matcher = pattern.matcher("");
+            int paragraphCount = snapshot.getParagraphCount();
+            for (int from = 0; from < paragraphCount; from += CHUNK_SIZE) {
+                if (generation.get() != searchGeneration) {
+                    return;
+                }
+                int to = Math.min(paragraphCount, from + CHUNK_SIZE);
+                List<int[]> chunk = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    chunk.add(findAll(matcher, snapshot.getParagraph(i).getText()));
+                }
+                int chunkStart = from;
+                Platform.runLater(() -> deliver(searchGeneration, chunkStart, chunk));
+            }
+        } finally {
+            Platform.runLater(() -> finish(searchGeneration));
+        }
+    }
+
+    private void deliver(int searchGeneration, int chunkStart, List<int[]> chunk) {
+        if (generation.get() != searchGeneration) {
+            return;
+        }
+        int changedFrom = Integer.MAX_VALUE;
+        int changedTo = -1;
+        for (int i = 0; i < chunk.size(); i++) {
+            int paragraph = rebase(chunkStart + i);
+            if (paragraph != -1) {
+                hits.setParagraphHits(paragraph, chunk.get(i));
+                changedFrom = Math.min(changedFrom, paragraph);
+                changedTo = Math.max(changedTo, paragraph);
+            }
+        }
+        if (changedFrom <= changedTo) {
+            hitCount.set(hits.getHitCount());
+            hitChanges.push(new IndexRange(changedFrom, changedTo + 1));
+        }
+    }
+
+    private void finish(int searchGeneration) {
+        if (generation.get() == searchGeneration) {
+            editsSinceSnapshot.clear();
+            searching.set(false);
+        }
+    }
+
+    /**
+     * Maps the index of a paragraph of the snapshot to its index in the current document,
+     * or returns -1 if the paragraph was modified in the meantime (and thus already searched again).
+     */
+    private int rebase(int paragraph) {
+        for (int[] edit : editsSinceSnapshot) {
+            int from = edit[0];
+            int removedCount = edit[1];
+            if (paragraph >= from + removedCount) {
+                paragraph += edit[2] - removedCount;
+            } else if (paragraph >= from) {
+                return -1;
+            }
+        }
+        return paragraph;
+    }
+
+    private void paragraphsReplaced(int from, int removedCount, int addedCount) {
+        if (pattern == null) {
+            return;
+        }
+
+        Matcher matcher = pattern.matcher("");
+        List<int[]> added = new ArrayList<>(addedCount);
+        for (int i = from; i < from + addedCount; i++) {
+            added.add(findAll(matcher, area.getParagraph(i).getText()));
+        }
+        hits.replace(from, removedCount, added);
+        if (isSearching()) {
+            editsSinceSnapshot.add(new int[] { from, removedCount, addedCount });
+        }
+
+        hitCount.set(hits.getHitCount());
+        hitChanges.push(new IndexRange(from, from + addedCount));
+    }
+
+    /**
+     * Cancels the background search and searches the whole document on the calling thread.
+     */
+    private void searchNow() {
+        generation.incrementAndGet();
+        editsSinceSnapshot.clear();
+        Matcher matcher = pattern.matcher("");
+        int paragraphCount = area.getParagraphs().size();
+        List<int[]> all = new ArrayList<>(paragraphCount);
+        for (int i = 0; i < paragraphCount; i++) {
+            all.add(findAll(matcher, area.getParagraph(i).getText()));
+        }
+        hits.replace(0, hits.getParagraphCount(), all);
+        searching.set(false);
+        hitCount.set(hits.getHitCount());
+        hitChanges.push(new IndexRange(0, paragraphCount));
+    }
+
+    /**
+     * Returns the start and end columns of the non-empty matches in the given text.
+     */
+    private static int[] findAll(Matcher matcher, String text) {
+        matcher.reset(text);
+        int[] bounds = SearchHits.NO_HITS;
+        int size = 0;
+        while (matcher.find()) {
+            if (matcher.end() == matcher.start()) {
+                continue;
+            }
+            if (size == bounds.length) {
+                bounds = Arrays.copyOf(bounds, Math.max(4, 2 * size));
+            }
+            bounds[size++] = matcher.start();
+            bounds[size++] = matcher.end();
+        }
+        return size == bounds.length ? bounds : Arrays.copyOf(bounds, size);
+    }
+}
@@ -0,0 +1,171 @@
+package org.fxmisc.richtext;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javafx.scene.control.IndexRange;
+
+import org.fxmisc.richtext.model.Paragraph;
+import org.reactfx.Subscription;
+import org.reactfx.collection.ListChange;
+import org.reactfx.collection.ListChangeAccumulator;
+import org.reactfx.collection.ListModification;
+import org.reactfx.collection.LiveList;
+import org.reactfx.collection.LiveListBase;
+import org.reactfx.collection.QuasiListModification;
+import org.reactfx.collection.UnmodifiableByDefaultLiveList;
+
+/**
+ * The paragraphs of a {@link GenericStyledArea} that are not collapsed in its {@link FoldModel}, which are the items
+ * of the area's viewport. A collapsed paragraph therefore has no cell, however many paragraphs are collapsed, and
+ * the viewport neither creates nor lays out anything for it when it is scrolled over.
+ *
+ * <p>The list is a view of the document's paragraphs through the fold model: {@link #get(int)} and {@link #size()}
+ * take O(log n) time, where n is the number of runs of the fold model. The fold model is only updated through this
+ * list, which translates each change of the document's paragraphs and of their fold state into the change of the
+ * expanded paragraphs, so that the viewport only hears about the paragraphs it shows.</p>
+ *
+ * @param <PS> paragraph style type
+ * @param <SEG> segment type
+ * @param <S> segment style type
+ */
+final class ExpandedParagraphList<PS, SEG, S>
+extends LiveListBase<Paragraph<PS, SEG, S>>
+implements UnmodifiableByDefaultLiveList<Paragraph<PS, SEG, S>> {
+
+    private final LiveList<Paragraph<PS, SEG, S>> paragraphs;
+    private final FoldModel foldModel;
+
+    ExpandedParagraphList(LiveList<Paragraph<PS, SEG, S>> paragraphs, FoldModel foldModel) {
+        this.paragraphs = paragraphs;
+        this.foldModel = foldModel;
+    }
+
+    @Override
+    public Paragraph<PS, SEG, S> get(int index) {
+        return paragraphs.get(foldModel.fromUnfoldedIndex(index));
+    }
+
+    @Override
+    public int size() {
+        return foldModel.getUnfoldedCount();
+    }
+
+    @Override
+    protected Subscription observeInputs() {
+        // the changes are pushed by the area through paragraphsChanged and setFolded
+        return Subscription.EMPTY;
+    }
+
+    /**
+     * Updates the fold model for the given change of the document's paragraphs, and notifies the observers of the
+     * corresponding change of the expanded paragraphs, if any.
+     */
+    void paragraphsChanged(ListChange<? extends Paragraph<PS, SEG, S>> change) {
+        ListChangeAccumulator<Paragraph<PS, SEG, S>> accumulator = new ListChangeAccumulator<>();
+        for (ListModification<? extends Paragraph<PS, SEG, S>> mod : change.getModifications()) {
+            int from = mod.getFrom();
+            int removedCount = mod.getRemovedSize();
+            int addedCount = mod.getAddedSize();
+
+            int expandedFrom = foldModel.toUnfoldedIndex(from);
+            List<IndexRange> removedRuns = expandedRuns(from, from + removedCount, -from);
+            foldModel.replace(from, removedCount, addedCount);
+            int expandedAdded = foldModel.toUnfoldedIndex(from + addedCount) - expandedFrom;
+
+            List<Paragraph<PS, SEG, S>> removed = inRuns(mod.getRemoved(), removedRuns);
+            if (!removed.isEmpty() || expandedAdded > 0) {
+                accumulator.add(QuasiListModification.create(expandedFrom, removed, expandedAdded));
+            }
+        }
+        if (!accumulator.isEmpty()) {
+            notifyObservers(accumulator.asListChange());
+        }
+    }
+
+    /**
+     * Collapses or expands the paragraphs from {@code from} (inclusive) to {@code to} (exclusive), and notifies the
+     * observers of the expanded paragraphs that were removed or added. Only the paragraphs whose state changes are
+     * part of the change, so the cells of the other paragraphs are kept.
+     */
+    void setFolded(int from, int to, boolean folded) {
+        if (from >= to) {
+            return;
+        }
+
+        ListChangeAccumulator<Paragraph<PS, SEG, S>> accumulator = new ListChangeAccumulator<>();
+        int expandedFrom = foldModel.toUnfoldedIndex(from);
+        if (folded) {
+            // the expanded paragraphs of the range are consecutive among the expanded paragraphs
+            List<IndexRange> removedRuns = expandedRuns(from, to, 0);
+            List<Paragraph<PS, SEG, S>> removed = inRuns(paragraphs, removedRuns);
+            if (!removed.isEmpty()) {
+                accumulator.add(QuasiListModification.create(expandedFrom, removed, 0));
+            }
+        } else {
+            // each collapsed run is inserted where it is among the expanded paragraphs
+            int position = expandedFrom;
+            for (int p = from; p < to; ) {
+                int runEnd = Math.min(foldModel.getRunEnd(p), to);
+                if (foldModel.isFolded(p)) {
+                    accumulator.add(QuasiListModification.create(position, Collections.emptyList(), runEnd - p));
+                }
+                position += runEnd - p;
+                p = runEnd;
+            }
+        }
+        foldModel.setFolded(from, to, folded);
+
+        if (!accumulator.isEmpty()) {
+            notifyObservers(accumulator.asListChange());
+        }
+    }
+
+    /**
+     * Returns the runs of expanded paragraphs from {@code from} (inclusive) to {@code to} (exclusive), moved by
+     * {@code shift}.
+     */
+    private List<IndexRange> expandedRuns(int from, int to, int shift) {
+        List<IndexRange> runs = new ArrayList<>();
+        for (int p = from; p < to; ) {
+            int runEnd = Math.min(foldModel.getRunEnd(p), to);
+            if (!foldModel.isFolded(p)) {
+                runs.add(new IndexRange(p + shift, runEnd + shift));
+            }
+            p = runEnd;
+        }
+        return runs;
+    }
+
+    /**
+     * Returns the elements of the given list that are in the given runs. Unless the runs cover the whole list, the
+     * elements are read from the list on demand, so collapsing a large block does not copy its paragraphs; this is
+     * fine as the removed paragraphs are only read while the observers are notified.
+     */
+    private static <E> List<E> inRuns(List<? extends E> list, List<IndexRange> runs) {
+        if (runs.size() == 1 && runs.get(0).getStart() == 0 && runs.get(0).getEnd() == list.size()) {
+            return Collections.unmodifiableList(list);
+        }
+        int size = runs.stream().mapToInt(IndexRange::getLength).sum();
+        return new AbstractList<E>() {
+            @Override
+            public E get(int index) {
+                int i = index;
+                for (IndexRange run : runs) {
+                    if (i < run.getLength()) {
+                        return list.get(run.getStart() + i);
+                    }
+                    i -= run.getLength();
+                }
+                throw new IndexOutOfBoundsException("Index " + index + " is out of bounds [0, " + size + ")");
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
@@ -0,0 +1,294 @@
+package org.fxmisc.richtext;
+
+import static org.reactfx.util.Tuples.*;
+
+import java.util.Collections;
+import java.util.List;
+
+import javafx.scene.control.IndexRange;
+
+import org.reactfx.EventSource;
+import org.reactfx.EventStream;
+import org.reactfx.util.BiIndex;
+import org.reactfx.util.FingerTree;
+import org.reactfx.util.FingerTree.NonEmptyFingerTree;
+import org.reactfx.util.ToSemigroup;
+import org.reactfx.util.Tuple2;
+import org.reactfx.util.Tuple3;
+
+/**
+ * Keeps track of which paragraphs of a {@link GenericStyledArea} are folded (hidden), independently of the
+ * document's content and paragraph styles. Folding or unfolding a range of paragraphs therefore neither creates a
+ * change in the document nor an entry in the undo history.
+ *
+ * <p>The paragraphs are stored as runs of consecutive paragraphs with the same fold state in a {@link FingerTree},
+ * whose summary counts the paragraphs and the folded paragraphs. Folding or unfolding any number of paragraphs and
+ * looking up the state of a paragraph take O(log n) time, where n is the number of runs. So does mapping a
+ * paragraph index to its index among the unfolded paragraphs (and back), thanks to the prefix sums of the
+ * summaries.</p>
+ *
+ * <p>The model has to be kept in sync with the document's paragraphs through
+ * {@link #replace(int, int, int)}. The area does so through its {@link ExpandedParagraphList}, which also makes all
+ * the changes of the fold state, so that its viewport is told which paragraphs it has to show.</p>
+ */
+final class FoldModel {
+
+    /**
+     * A run of {@code count} consecutive paragraphs that are all folded or all unfolded.
+     */
+    private static final class Run {
+        private final boolean folded;
+        private final int count;
+
+        Run(boolean folded, int count) {
+            assert count > 0;
+            this.folded = folded;
+            this.count = count;
+        }
+    }
+
+    private static final class Summary {
+        private final int paragraphCount;
+        private final int foldedCount;
+
+        Summary(int paragraphCount, int foldedCount) {
+            this.paragraphCount = paragraphCount;
+            this.foldedCount = foldedCount;
+        }
+    }
+
+    private static final ToSemigroup<Run, Summary> SUMMARY_PROVIDER = new ToSemigroup<Run, Summary>() {
+
+        @Override
+        public Summary apply(Run run) {
+            return new Summary(run.count, run.folded ? run.count : 0);
+        }
+
+        @Override
+        public Summary reduce(Summary left, Summary right) {
+            return new Summary(
+                    left.paragraphCount + right.paragraphCount,
+                    left.foldedCount + right.foldedCount);
+        }
+    };
+
+    private FingerTree<Run, Summary> tree;
+
+    private final EventSource<IndexRange> foldChanges = new EventSource<>();
+
+    /**
+     * Emits the range of paragraphs whose fold state was set through {@link #setFolded(int, int, boolean)}.
+     */
+    EventStream<IndexRange> foldChanges() { return foldChanges; }
+
+    /**
+     * Creates a model of the given number of unfolded paragraphs.
+     */
+    FoldModel(int paragraphCount) {
+        tree = mkTree(Collections.singletonList(new Run(false, paragraphCount)));
+    }
+
+    int getParagraphCount() {
+        return summaryOf(tree).paragraphCount;
+    }
+
+    int getFoldedCount() {
+        return summaryOf(tree).foldedCount;
+    }
+
+    boolean isFolded(int paragraph) {
+        checkIndex(paragraph);
+        NonEmptyFingerTree<Run, Summary> ne = nonEmpty(tree);
+        return ne.getLeaf(ne.locateProgressively(s -> s.paragraphCount, paragraph).major).folded;
+    }
+
+    /**
+     * Returns the index right after the last paragraph of the run of paragraphs that have the same fold state as
+     * the given paragraph and that starts at or before it.
+     */
+    int getRunEnd(int paragraph) {
+        NonEmptyFingerTree<Run, Summary> ne = nonEmpty(tree);
+        BiIndex at = ne.locateProgressively(s -> s.paragraphCount, paragraph);
+        return paragraph - at.minor + ne.getLeaf(at.major).count;
+    }
+
+    int getUnfoldedCount() {
+        Summary summary = summaryOf(tree);
+        return summary.paragraphCount - summary.foldedCount;
+    }
+
+    /**
+     * Returns the number of unfolded paragraphs that precede the given paragraph, i.e. the index it has among
+     * the unfolded paragraphs if it is itself unfolded.
+     */
+    int toUnfoldedIndex(int paragraph) {
+        if (paragraph == getParagraphCount()) {
+            return getUnfoldedCount();
+        }
+        checkIndex(paragraph);
+        NonEmptyFingerTree<Run, Summary> ne = nonEmpty(tree);
+        BiIndex at = ne.locateProgressively(s -> s.paragraphCount, paragraph);
+        int unfoldedBefore = ne.getSummaryBetween(0, at.major)
+                .map(s -> s.paragraphCount - s.foldedCount)
+                .orElse(0);
+        return ne.getLeaf(at.major).folded ? unfoldedBefore : unfoldedBefore + at.minor;
+    }
+
+    /**
+     * Returns the index of the paragraph that is the {@code unfoldedIndex}-th unfolded paragraph.
+     */
+    int fromUnfoldedIndex(int unfoldedIndex) {
+        if (unfoldedIndex < 0 || unfoldedIndex >= getUnfoldedCount()) {
+            throw new IndexOutOfBoundsException("Unfolded paragraph " + unfoldedIndex + " is out of bounds [0, " + getUnfoldedCount() + ")");
+        }
+        NonEmptyFingerTree<Run, Summary> ne = nonEmpty(tree);
+        // folded runs have a zero length in this metric, so they are skipped
+        BiIndex at = ne.locateProgressively(s -> s.paragraphCount - s.foldedCount, unfoldedIndex);
+        int paragraphsBefore = ne.getSummaryBetween(0, at.major)
+                .map(s -> s.paragraphCount)
+                .orElse(0);
+        return paragraphsBefore + at.minor;
+    }
+
+    /**
+     * Returns the given paragraph if it is unfolded, otherwise the closest unfolded paragraph after
+     * ({@code forward}) or before it, or -1 if there is none.
+     */
+    int nextUnfolded(int paragraph, boolean forward) {
+        checkIndex(paragraph);
+        NonEmptyFingerTree<Run, Summary> ne = nonEmpty(tree);
+        BiIndex at = ne.locateProgressively(s -> s.paragraphCount, paragraph);
+        Run run = ne.getLeaf(at.major);
+        if (!run.folded) {
+            return paragraph;
+        }
+
+        // adjacent runs are always merged, so the runs around a folded one are unfolded
+        int runStart = paragraph - at.minor;
+        int next = forward ? runStart + run.count : runStart - 1;
+        return next < getParagraphCount() ? next : -1;
+    }
+
+    /**
+     * Folds or unfolds the paragraphs from {@code from} (inclusive) to {@code to} (exclusive).
+     */
+    void setFolded(int from, int to, boolean folded) {
+        if (from >= to) {
+            return;
+        }
+
+        Tuple2<FingerTree<Run, Summary>, FingerTree<Run, Summary>> lr = splitAt(tree, from);
+        Tuple2<FingerTree<Run, Summary>, FingerTree<Run, Summary>> mr = splitAt(lr._2, to - from);
+        tree = concat(concat(lr._1, mkTree(Collections.singletonList(new Run(folded, to - from)))), mr._2);
+
+        foldChanges.push(new IndexRange(from, to));
+    }
+
+    /**
+     * Updates this model for the replacement of {@code removedCount} paragraphs at {@code from} by
+     * {@code addedCount} paragraphs. The first added paragraph keeps the state of the first removed one;
+     * the others are only folded if all the removed paragraphs were part of a folded block.
+     */
+    void replace(int from, int removedCount, int addedCount) {
+        boolean firstFolded;
+        boolean restFolded;
+        if (removedCount > 0) {
+            firstFolded = isFolded(from);
+            restFolded = firstFolded && isFolded(from + removedCount - 1);
+        } else {
+            // paragraphs inserted between two others are folded if they are inserted inside a folded block
+            firstFolded = from > 0 && from < getParagraphCount() && isFolded(from - 1) && isFolded(from);
+            restFolded = firstFolded;
+        }
+
+        Tuple2<FingerTree<Run, Summary>, FingerTree<Run, Summary>> lr = splitAt(tree, from);
+        Tuple2<FingerTree<Run, Summary>, FingerTree<Run, Summary>> mr = splitAt(lr._2, removedCount);
+
+        FingerTree<Run, Summary> added = mkTree(Collections.emptyList());
+        if (addedCount > 0) {
+            added = concat(added, mkTree(Collections.singletonList(new Run(firstFolded, 1))));
+        }
+        if (addedCount > 1) {
+            added = concat(added, mkTree(Collections.singletonList(new Run(restFolded, addedCount - 1))));
+        }
+        tree = concat(concat(lr._1, added), mr._2);
+    }
+
+    /* ********************************************************************** *
+     *                                                                        *
+     * Private methods                                                        *
+     *                                                                        *
+     * ********************************************************************** */
+
+    private void checkIndex(int paragraph) {
+        if (paragraph < 0 || paragraph >= getParagraphCount()) {
+            throw new IndexOutOfBoundsException("Paragraph " + paragraph + " is out of bounds [0, " + getParagraphCount() + ")");
+        }
+    }
+
+    private static FingerTree<Run, Summary> mkTree(List<Run> runs) {
+        return FingerTree.mkTree(runs, SUMMARY_PROVIDER);
+    }
+
+    private static NonEmptyFingerTree<Run, Summary> nonEmpty(FingerTree<Run, Summary> tree) {
+        return tree.caseEmpty().unify(
+                emptyTree -> { throw new AssertionError("Unreachable code"); },
+                neTree -> neTree);
+    }
+
+    private static Summary summaryOf(FingerTree<Run, Summary> tree) {
+        return tree.getSummaryBetween(0, tree.getLeafCount()).orElse(new Summary(0, 0));
+    }
+
+    /**
+     * Splits the given tree into the runs of the first {@code paragraphCount} paragraphs and the runs of the
+     * remaining paragraphs, cutting a run in two if necessary.
+     */
+    private static Tuple2<FingerTree<Run, Summary>, FingerTree<Run, Summary>> splitAt(
+            FingerTree<Run, Summary> tree, int paragraphCount) {
+        if (paragraphCount == 0) {
+            return t(mkTree(Collections.emptyList()), tree);
+        } else if (paragraphCount == summaryOf(tree).paragraphCount) {
+            return t(tree, mkTree(Collections.emptyList()));
+        }
+
+        NonEmptyFingerTree<Run, Summary> ne = nonEmpty(tree);
+        BiIndex at = ne.locateProgressively(s -> s.paragraphCount, paragraphCount);
+        Tuple3<FingerTree<Run, Summary>, Run, FingerTree<Run, Summary>> parts = ne.splitAt(at.major);
+        Run run = parts._2;
+        FingerTree<Run, Summary> left;
+        FingerTree<Run, Summary> right;
+        if (at.minor == 0) {
+            left = parts._1;
+            right = parts._3.prepend(run);
+        } else {
+            left = parts._1.append(new Run(run.folded, at.minor));
+            right = parts._3.prepend(new Run(run.folded, run.count - at.minor));
+        }
+        return t(left, right);
+    }
+
+    /**
+     * Joins the two trees, merging the last run of the left one with the first run of the right one
+     * when they have the same state, so that the number of runs stays minimal.
+     */
+    private static FingerTree<Run, Summary> concat(FingerTree<Run, Summary> left, FingerTree<Run, Summary> right) {
+        if (left.getLeafCount() == 0) {
+            return right;
+        } else if (right.getLeafCount() == 0) {
+            return left;
+        }
+
+        NonEmptyFingerTree<Run, Summary> l = nonEmpty(left);
+        NonEmptyFingerTree<Run, Summary> r = nonEmpty(right);
+        Run last = l.getLeaf(l.getLeafCount() - 1);
+        Run first = r.getLeaf(0);
+        if (last.folded == first.folded) {
+            return l.split(l.getLeafCount() - 1)._1
+                    .append(new Run(last.folded, last.count + first.count))
+                    .join(r.split(1)._2);
+        } else {
+            return l.join(r);
+        }
+    }
+}
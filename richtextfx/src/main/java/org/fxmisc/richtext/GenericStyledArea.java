@@ -11,6 +11,7 @@ import java.util.Locale;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -28,6 +29,7 @@ import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleObjectProperty;
@@ -81,6 +83,7 @@ import org.fxmisc.richtext.model.TextOps;
 import org.fxmisc.richtext.model.TwoDimensional;
 import org.fxmisc.richtext.model.TwoLevelNavigator;
 import org.fxmisc.richtext.event.MouseOverTextEvent;
+import org.fxmisc.richtext.event.MouseStationaryHelper;
 import org.fxmisc.richtext.util.SubscribeableContentsObsSet;
 import org.fxmisc.richtext.util.UndoUtils;
 import org.fxmisc.undo.UndoManager;
@@ -93,6 +96,7 @@ import org.reactfx.SuspendableEventStream;
 import org.reactfx.SuspendableNo;
 import org.reactfx.collection.LiveList;
 import org.reactfx.collection.SuspendableList;
+import org.reactfx.util.Either;
 import org.reactfx.util.Tuple2;
 import org.reactfx.value.Val;
 import org.reactfx.value.Var;
@@ -309,9 +313,9 @@ public class GenericStyledArea<PS, SEG, S> extends Region
     public static final IndexRange EMPTY_RANGE = new IndexRange(0, 0);
 
     private static final PseudoClass READ_ONLY = PseudoClass.getPseudoClass("readonly");
-    private static final PseudoClass HAS_CARET = PseudoClass.getPseudoClass("has-caret");
-    private static final PseudoClass FIRST_PAR = PseudoClass.getPseudoClass("first-paragraph");
-    private static final PseudoClass LAST_PAR  = PseudoClass.getPseudoClass("last-paragraph");
+
+    /** The URL of the default stylesheet, which is looked up once for all areas */
+    private static final String STYLESHEET = StyledTextArea.class.getResource("styled-text-area.css").toExternalForm();
 
     /* ********************************************************************** *
      *                                                                        *
@@ -350,6 +354,13 @@ public class GenericStyledArea<PS, SEG, S> extends Region
     public final ReadOnlyBooleanProperty overwriteModeProperty() { return overwriteMode; }
     public boolean isOverwriteMode() { return overwriteMode.get(); }
 
+    private final boolean viewer;
+    /**
+     * Whether this area was created as a read-only viewer, without the editing behavior, the undo manager,
+     * the input method handling and a visible caret.
+     */
+    public final boolean isViewer() { return viewer; }
+
     // wrapText property
     private final BooleanProperty wrapText = new SimpleBooleanProperty(this, "wrapText");
     @Override public final BooleanProperty wrapTextProperty() { return wrapText; }
@@ -387,6 +398,8 @@ public class GenericStyledArea<PS, SEG, S> extends Region
     @Override public ObjectProperty<IntFunction<? extends Node>> paragraphGraphicFactoryProperty() { return paragraphGraphicFactory; }
 
     public void recreateParagraphGraphic( int parNdx ) {
+        // a collapsed paragraph has no cell, its graphic is created when it is expanded
+        if ( foldModel.isFolded( parNdx ) ) return;
         ObjectProperty<IntFunction<? extends Node>> gProp;
         gProp = getCell(parNdx).graphicFactoryProperty();
         gProp.unbind();
@@ -394,7 +407,7 @@ public class GenericStyledArea<PS, SEG, S> extends Region
     }
 
     public Node getParagraphGraphic( int parNdx ) {
-        return getCell(parNdx).getGraphic();
+        return foldModel.isFolded( parNdx ) ? null : getCell(parNdx).getGraphic();
     }
 
     /**
@@ -445,6 +458,28 @@ public class GenericStyledArea<PS, SEG, S> extends Region
 
     private final SubscribeableContentsObsSet<CaretNode> caretSet;
     private final SubscribeableContentsObsSet<Selection<PS, SEG, S>> selectionSet;
+    private final SelectionRegistry<PS, SEG, S> selectionRegistry;
+
+    private final CellStateDispatcher<PS, SEG, S> cellStateDispatcher;
+
+    private final FoldModel foldModel;
+
+    /** The paragraphs that are not collapsed in {@link #foldModel}, which are the items of {@link #virtualFlow} */
+    private final ExpandedParagraphList<PS, SEG, S> expandedParagraphs;
+
+    /** Keeps track of currently used non-empty cells */
+    private final ObservableSet<ParagraphBox<PS, SEG, S>> nonEmptyCells;
+
+    /** Number of cells created since the last layout, for the {@link ViewEvents.AreaLayout} event */
+    private int cellsCreated = 0;
+
+    private DocumentSearch<PS, SEG, S> search;
+
+    private DecorationLayer<S> decorations;
+
+    private AreaMetrics metrics;
+
+    private BiFunction<S, S, S> decorationStyleCombiner = (style, decorationStyle) -> decorationStyle;
 
     public final boolean addCaret(CaretNode caret) {
         if (caret.getArea() != this) {
@@ -457,7 +492,7 @@ public class GenericStyledArea<PS, SEG, S> extends Region
 
     public final boolean removeCaret(CaretNode caret) {
         if (caret != caretSelectionBind.getUnderlyingCaret() && caretSet.remove(caret)) {
-            virtualFlow.getCellIfVisible(caret.getParagraphIndex()).ifPresent(
+            getCellIfVisible(caret.getParagraphIndex()).ifPresent(
                 c -> c.getNode().caretsProperty().remove(caret)
             );
             caret.dispose();
@@ -479,7 +514,7 @@ public class GenericStyledArea<PS, SEG, S> extends Region
     public final boolean removeSelection(Selection<PS, SEG, S> selection) {
         if (selection != caretSelectionBind.getUnderlyingSelection() && selectionSet.remove(selection)) {
             for (int p = selection.getStartParagraphIndex(); p <= selection.getEndParagraphIndex(); p++) {
-                virtualFlow.getCellIfVisible(p).ifPresent(c -> c.getNode().selectionsProperty().remove(selection));
+                getCellIfVisible(p).ifPresent(c -> c.getNode().selectionsProperty().remove(selection));
             }
             selection.dispose();
             return true;
@@ -601,6 +636,34 @@ public class GenericStyledArea<PS, SEG, S> extends Region
     private final SuspendableEventStream<?> viewportDirty;
     @Override public final EventStream<?> viewportDirtyEvents() { return viewportDirty; }
 
+    private final BooleanProperty coalesceBoundsUpdates = new SimpleBooleanProperty(this, "coalesceBoundsUpdates", false);
+    /**
+     * Whether the {@link Caret#caretBoundsProperty() caret bounds} and the
+     * {@link Selection#selectionBoundsProperty() selection bounds} of this area are computed again at most once per
+     * pulse, once the area has been laid out, instead of on each change of the viewport or of the document. This
+     * makes popups that follow the caret cheap during smooth scrolling or a burst of edits, at the cost of the bounds
+     * being stale until the next pulse. Defaults to false.
+     */
+    public final BooleanProperty coalesceBoundsUpdatesProperty() { return coalesceBoundsUpdates; }
+    public final boolean isCoalesceBoundsUpdates() { return coalesceBoundsUpdates.get(); }
+    public final void setCoalesceBoundsUpdates(boolean value) { coalesceBoundsUpdates.set(value); }
+
+    /**
+     * Returns the invalidations of the caret or selection bounds, which are the given invalidations or, if
+     * {@link #coalesceBoundsUpdatesProperty()} is true, at most one of them per pulse. While coalescing is off,
+     * each of the given invalidations is passed on as soon as it is emitted, as if they were used directly. Turning
+     * coalescing on or off is also an invalidation, so that bounds left stale by a pending pulse are updated.
+     */
+    final EventStream<?> boundsInvalidations(EventStream<?> invalidations) {
+        return merge(
+                invalidations.suppressWhen(coalesceBoundsUpdates),
+                valuesOf(coalesceBoundsUpdates).flatMap(coalesce -> coalesce
+                        ? new PulseCoalescedStream(this, invalidations)
+                        : EventStreams.<Void>never()),
+                invalidationsOf(coalesceBoundsUpdates)
+        );
+    }
+
     /* ********************************************************************** *
      *                                                                        *
      * Private fields                                                         *
@@ -741,6 +804,30 @@ public class GenericStyledArea<PS, SEG, S> extends Region
             @NamedArg("segmentOps")            TextOps<SEG, S> segmentOps,
             @NamedArg("preserveStyle")         boolean preserveStyle,
             @NamedArg("nodeFactory")           Function<StyledSegment<SEG, S>, Node> nodeFactory) {
+        this(initialParagraphStyle, applyParagraphStyle, initialTextStyle, document, segmentOps, preserveStyle,
+                nodeFactory, false);
+    }
+
+    /**
+     * The same as {@link #GenericStyledArea(Object, BiConsumer, Object, EditableStyledDocument, TextOps, boolean, Function)}
+     * except that, if {@code viewer} is true, the area is created as a read-only viewer of its document: it does not
+     * install the default editing behavior (key and mouse handlers) nor input method handling, has a no-op undo
+     * manager, is not editable nor focus traversable, and its caret is never shown, so it does not blink. The document
+     * can still be changed programmatically, e.g. via {@link #replaceText(String)}. This is meant for views that only
+     * display text, e.g. many of them in a dashboard, for which the editing infrastructure is only overhead.
+     *
+     * @param viewer whether the area is a read-only viewer, see {@link #isViewer()}
+     */
+    protected GenericStyledArea(
+            PS initialParagraphStyle,
+            BiConsumer<TextFlow, PS> applyParagraphStyle,
+            S initialTextStyle,
+            EditableStyledDocument<PS, SEG, S> document,
+            TextOps<SEG, S> segmentOps,
+            boolean preserveStyle,
+            Function<StyledSegment<SEG, S>, Node> nodeFactory,
+            boolean viewer) {
+        this.viewer = viewer;
         this.initialTextStyle = initialTextStyle;
         this.initialParagraphStyle = initialParagraphStyle;
         this.preserveStyle = preserveStyle;
@@ -748,18 +835,19 @@ public class GenericStyledArea<PS, SEG, S> extends Region
         this.applyParagraphStyle = applyParagraphStyle;
         this.segmentOps = segmentOps;
 
-        undoManager = UndoUtils.defaultUndoManager(this);
+        undoManager = viewer ? UndoUtils.noOpUndoManager() : UndoUtils.defaultUndoManager(this);
 
         // allow tab traversal into area
-        setFocusTraversable(true);
+        setFocusTraversable(!viewer);
+        if (viewer) {
+            editable.set(false);
+        }
 
         this.setBackground(new Background(new BackgroundFill(Color.WHITE, CornerRadii.EMPTY, Insets.EMPTY)));
         getStyleClass().add("styled-text-area");
-        getStylesheets().add(StyledTextArea.class.getResource("styled-text-area.css").toExternalForm());
+        getStylesheets().add(STYLESHEET);
 
-        // keeps track of currently used non-empty cells
-        @SuppressWarnings("unchecked")
-        ObservableSet<ParagraphBox<PS, SEG, S>> nonEmptyCells = FXCollections.observableSet();
+        nonEmptyCells = FXCollections.observableSet();
 
         caretSet = new SubscribeableContentsObsSet<>();
         manageSubscription(() -> {
@@ -774,15 +862,39 @@ public class GenericStyledArea<PS, SEG, S> extends Region
             selectionSet.clear();
             l.forEach(Selection::dispose);
         });
+        selectionRegistry = new SelectionRegistry<>(this, nonEmptyCells);
+        selectionSet.addSubscriber(selectionRegistry::register);
+        manageSubscription(selectionRegistry::dispose);
+
+        // keep the fold model in sync with the paragraphs, before the viewport creates cells for them
+        foldModel = new FoldModel(getParagraphs().size());
+        expandedParagraphs = new ExpandedParagraphList<>(getParagraphs(), foldModel);
+        manageSubscription(getParagraphs().changes().subscribe(change -> {
+            expandedParagraphs.paragraphsChanged(change);
+            // a change inside a collapsed block moves the paragraphs below it, but not the viewport's cells
+            for (ParagraphBox<PS, SEG, S> box : nonEmptyCells) {
+                int expandedIndex = box.getExpandedIndex();
+                if (expandedIndex != -1 && expandedIndex < foldModel.getUnfoldedCount()) {
+                    box.setIndex(foldModel.fromUnfoldedIndex(expandedIndex));
+                }
+            }
+        }));
 
         // Initialize content
         virtualFlow = VirtualFlow.createVertical(
-                getParagraphs(),
+                expandedParagraphs,
                 par -> {
+                    Object event = ViewEvents.beginCellCreation();
                     Cell<Paragraph<PS, SEG, S>, ParagraphBox<PS, SEG, S>> cell = createCell(
                             par,
                             applyParagraphStyle,
-                            nodeFactory);
+                            seg -> {
+                                if (metrics != null) metrics.segmentNodeCreated();
+                                return nodeFactory.apply(seg);
+                            });
+                    cellsCreated++;
+                    if (metrics != null) metrics.cellCreated();
+                    ViewEvents.commitCellCreation(event, getLength(), par);
                     nonEmptyCells.add(cell.getNode());
                     return cell.beforeReset(() -> nonEmptyCells.remove(cell.getNode()))
                             .afterUpdateItem(p -> nonEmptyCells.add(cell.getNode()));
@@ -790,7 +902,7 @@ public class GenericStyledArea<PS, SEG, S> extends Region
         getChildren().add(virtualFlow);
 
         // initialize navigator
-        IntSupplier cellCount = () -> getParagraphs().size();
+        IntSupplier cellCount = () -> expandedParagraphs.size();
         IntUnaryOperator cellLength = i -> virtualFlow.getCell(i).getNode().getLineCount();
         paragraphLineNavigator = new TwoLevelNavigator(cellCount, cellLength);
 
@@ -813,9 +925,16 @@ public class GenericStyledArea<PS, SEG, S> extends Region
 
         caretSelectionBind = new CaretSelectionBindImpl<>("main-caret", "main-selection",this);
         caretSelectionBind.paragraphIndexProperty().addListener( this::skipOverFoldedParagraphs );
+        if (viewer) {
+            caretSelectionBind.getUnderlyingCaret().setShowCaret(Caret.CaretVisibility.OFF);
+        }
         caretSet.add(caretSelectionBind.getUnderlyingCaret());
         selectionSet.add(caretSelectionBind.getUnderlyingSelection());
 
+        cellStateDispatcher = new CellStateDispatcher<>(this, nonEmptyCells);
+        caretSet.addSubscriber(cellStateDispatcher::register);
+        manageSubscription(cellStateDispatcher::dispose);
+
         visibleParagraphs = LiveList.map(virtualFlow.visibleCells(), c -> c.getNode().getParagraph()).suspendable();
 
         final Suspendable omniSuspendable = Suspendable.combine(
@@ -828,26 +947,39 @@ public class GenericStyledArea<PS, SEG, S> extends Region
         // dispatch MouseOverTextEvents when mouseOverTextDelay is not null
         EventStreams.valuesOf(mouseOverTextDelayProperty())
                 .flatMap(delay -> delay != null
-                        ? mouseOverTextEvents(nonEmptyCells, delay)
+                        ? mouseOverTextEvents(delay)
                         : EventStreams.never())
                 .subscribe(evt -> Event.fireEvent(this, evt));
 
-        this.overwriteMode = new GenericStyledAreaBehavior(this).overwriteModeProperty();
+        this.overwriteMode = viewer
+                ? new ReadOnlyBooleanWrapper(this, "overwriteMode", false).getReadOnlyProperty()
+                : new GenericStyledAreaBehavior(this).overwriteModeProperty();
 
-        // Setup place holder visibility & placement
-        final Val<Boolean> showPlaceholder = Val.create
-        (
-            () -> getLength() == 0 && ! isFocused(),
-            lengthProperty(), focusedProperty()
-        );
+        // Setup place holder visibility & placement, once there is a place holder
+        placeHolderProp.addListener( (ob,ov,newNode) -> displayPlaceHolder( showPlaceholder().getValue(), newNode ) );
 
-        placeHolderProp.addListener( (ob,ov,newNode) -> displayPlaceHolder( showPlaceholder.getValue(), newNode ) );
-        showPlaceholder.addListener( (ob,ov,show) -> displayPlaceHolder( show, getPlaceholder() ) );
+        if ( viewer ) return;
 
         if ( Platform.isFxApplicationThread() ) initInputMethodHandling();
         else Platform.runLater( () -> initInputMethodHandling() );
     }
 
+    private Val<Boolean> showPlaceholder;
+
+    private Val<Boolean> showPlaceholder()
+    {
+        if ( showPlaceholder == null )
+        {
+            showPlaceholder = Val.create
+            (
+                () -> getLength() == 0 && ! isFocused(),
+                lengthProperty(), focusedProperty()
+            );
+            showPlaceholder.addListener( (ob,ov,show) -> displayPlaceHolder( show, getPlaceholder() ) );
+        }
+        return showPlaceholder;
+    }
+
     private void initInputMethodHandling()
     {
         if( Platform.isSupported( ConditionalFeature.INPUT_METHOD ) )
@@ -976,13 +1108,16 @@ public class GenericStyledArea<PS, SEG, S> extends Region
                     getParagraphs().size() - 1, allParIndex)
             );
         }
+        if (foldModel.isFolded(allParIndex)) {
+            return Optional.empty();
+        }
         List<Cell<Paragraph<PS, SEG, S>, ParagraphBox<PS, SEG, S>>> visibleList = virtualFlow.visibleCells();
         int firstVisibleParIndex = visibleList.get( 0 ).getNode().getIndex();
-        int targetIndex = allParIndex - firstVisibleParIndex;
-
-        if ( allParIndex >= firstVisibleParIndex && targetIndex < visibleList.size() )
+        if ( firstVisibleParIndex >= 0 && allParIndex >= firstVisibleParIndex )
         {
-            if ( visibleList.get( targetIndex ).getNode().getIndex() == allParIndex )
+            // the visible cells are consecutive among the paragraphs that are not collapsed
+            int targetIndex = foldModel.toUnfoldedIndex( allParIndex ) - foldModel.toUnfoldedIndex( firstVisibleParIndex );
+            if ( targetIndex < visibleList.size() && visibleList.get( targetIndex ).getNode().getIndex() == allParIndex )
             {
                 return Optional.of( targetIndex );
             }
@@ -1019,6 +1154,7 @@ public class GenericStyledArea<PS, SEG, S> extends Region
 
     @Override
     public CharacterHit hit(double x, double y) {
+        if (metrics != null) metrics.hitTest();
         // mouse position used, so account for padding
         double adjustedX = x - getInsets().getLeft();
         double adjustedY = y - getInsets().getTop();
@@ -1028,7 +1164,7 @@ public class GenericStyledArea<PS, SEG, S> extends Region
         } else if(hit.isAfterCells()) {
             return CharacterHit.insertionAt(getLength());
         } else {
-            int parIdx = hit.getCellIndex();
+            int parIdx = foldModel.fromUnfoldedIndex(hit.getCellIndex());
             int parOffset = getParagraphOffset(parIdx);
             ParagraphBox<PS, SEG, S> cell = hit.getCell().getNode();
             Point2D cellOffset = hit.getCellOffset();
@@ -1039,13 +1175,16 @@ public class GenericStyledArea<PS, SEG, S> extends Region
 
     @Override
     public final int lineIndex(int paragraphIndex, int columnPosition) {
-        Cell<Paragraph<PS, SEG, S>, ParagraphBox<PS, SEG, S>> cell = virtualFlow.getCell(paragraphIndex);
-        return cell.getNode().getCurrentLineIndex(columnPosition);
+        // a collapsed paragraph is not laid out in lines
+        if (foldModel.isFolded(paragraphIndex)) {
+            return 0;
+        }
+        return getCell(paragraphIndex).getCurrentLineIndex(columnPosition);
     }
 
     @Override
     public int getParagraphLinesCount(int paragraphIndex) {
-        return virtualFlow.getCell(paragraphIndex).getNode().getLineCount();
+        return foldModel.isFolded(paragraphIndex) ? 0 : getCell(paragraphIndex).getLineCount();
     }
 
     @Override
@@ -1061,9 +1200,10 @@ public class GenericStyledArea<PS, SEG, S> extends Region
         }
 
         if (from == to) {
-            CaretNode cursor = new CaretNode( "", this, from );
             int parIdx = offsetToPosition( from, Bias.Forward ).getMajor();
-            ParagraphBox<?,?,?> paragrafBox = virtualFlow.getCell( parIdx ).getNode();
+            if ( foldModel.isFolded( parIdx ) ) return Optional.empty();
+            CaretNode cursor = new CaretNode( "", this, from );
+            ParagraphBox<?,?,?> paragrafBox = getCell( parIdx );
             paragrafBox.caretsProperty().add( cursor );
             Bounds cursorBounds = paragrafBox.getCaretBoundsOnScreen( cursor );
             paragrafBox.caretsProperty().remove( cursor );
@@ -1232,14 +1372,33 @@ public class GenericStyledArea<PS, SEG, S> extends Region
 
     @Override
     public Optional<Bounds> getParagraphBoundsOnScreen(int paragraphIndex) {
-        return virtualFlow.getCellIfVisible(paragraphIndex).map(this::getParagraphBoundsOnScreen);
+        return getCellIfVisible(paragraphIndex).map(this::getParagraphBoundsOnScreen);
+    }
+
+    /**
+     * Returns the bounds of the cell of the given visible paragraph in the scene. Unlike
+     * {@link #getVisibleParagraphBoundsOnScreen(int)}, they are not clipped to the area, so that the top of a
+     * paragraph that is scrolled partly out of view is where its first line is, e.g. for {@link LineNumberGutter}.
+     */
+    Bounds getVisibleParagraphBoundsInScene(int visibleParagraphIndex) {
+        ParagraphBox<PS, SEG, S> box = virtualFlow.visibleCells().get(visibleParagraphIndex).getNode();
+        return box.localToScene(box.getBoundsInLocal());
+    }
+
+    /**
+     * Returns whether the cell of the given visible paragraph is folded through its paragraph style (see
+     * {@link #foldParagraphs(int, int, UnaryOperator)}). Paragraphs collapsed with
+     * {@link #collapseParagraphs(int, int)} have no cell, so they are never visible.
+     */
+    boolean isVisibleParagraphFolded(int visibleParagraphIndex) {
+        return virtualFlow.visibleCells().get(visibleParagraphIndex).getNode().isFolded();
     }
 
     @Override
     public final <T extends Node & Caret> Optional<Bounds> getCaretBoundsOnScreen(T caret) {
         Optional<Bounds> caretBounds;
         try { // This is the default mechanism, but sometimes throws just like in followCaret()
-            caretBounds = virtualFlow.getCellIfVisible(caret.getParagraphIndex())
+            caretBounds = getCellIfVisible(caret.getParagraphIndex())
                     .map(c -> c.getNode().getCaretBoundsOnScreen(caret));
         }
         catch ( IllegalArgumentException EX ) {
@@ -1286,27 +1445,27 @@ public class GenericStyledArea<PS, SEG, S> extends Region
 
     @Override
     public void showParagraphInViewport(int paragraphIndex) {
-        suspendVisibleParsWhile(() -> virtualFlow.show(paragraphIndex));
+        suspendVisibleParsWhile(() -> virtualFlow.show(shownCellIndex(paragraphIndex)));
     }
 
     @Override
     public void showParagraphAtTop(int paragraphIndex) {
-        suspendVisibleParsWhile(() -> virtualFlow.showAsFirst(paragraphIndex));
+        suspendVisibleParsWhile(() -> virtualFlow.showAsFirst(shownCellIndex(paragraphIndex)));
     }
 
     @Override
     public void showParagraphAtBottom(int paragraphIndex) {
-        suspendVisibleParsWhile(() -> virtualFlow.showAsLast(paragraphIndex));
+        suspendVisibleParsWhile(() -> virtualFlow.showAsLast(shownCellIndex(paragraphIndex)));
     }
 
     @Override
     public void showParagraphRegion(int paragraphIndex, Bounds region) {
-        suspendVisibleParsWhile(() -> virtualFlow.show(paragraphIndex, region));
+        suspendVisibleParsWhile(() -> virtualFlow.show(shownCellIndex(paragraphIndex), region));
     }
 
     public void showParagraphAtCenter(int paragraphIndex) {
         double offset = Math.floor( getHeight() / 2.0 );
-        suspendVisibleParsWhile(() -> virtualFlow.showAtOffset(paragraphIndex,offset));
+        suspendVisibleParsWhile(() -> virtualFlow.showAtOffset(shownCellIndex(paragraphIndex),offset));
     }
 
     @Override
@@ -1326,11 +1485,15 @@ public class GenericStyledArea<PS, SEG, S> extends Region
     }
 
     public int getCurrentLineStartInParargraph() {
-        return virtualFlow.getCell(getCurrentParagraph()).getNode().getCurrentLineStartPosition(caretSelectionBind.getUnderlyingCaret());
+        int parIdx = getCurrentParagraph();
+        if ( foldModel.isFolded( parIdx ) ) return 0;
+        return getCell(parIdx).getCurrentLineStartPosition(caretSelectionBind.getUnderlyingCaret());
     }
 
     public int getCurrentLineEndInParargraph() {
-        return virtualFlow.getCell(getCurrentParagraph()).getNode().getCurrentLineEndPosition(caretSelectionBind.getUnderlyingCaret());
+        int parIdx = getCurrentParagraph();
+        if ( foldModel.isFolded( parIdx ) ) return getParagraphLength( parIdx );
+        return getCell(parIdx).getCurrentLineEndPosition(caretSelectionBind.getUnderlyingCaret());
     }
 
     private double caretPrevY = -1;
@@ -1567,14 +1730,20 @@ public class GenericStyledArea<PS, SEG, S> extends Region
 
     @Override
     public void replace(int start, int end, StyledDocument<PS, SEG, S> replacement) {
+        AreaMetrics m = metrics;
+        long startTime = m != null ? System.nanoTime() : 0;
         content.replace(start, end, replacement);
 
         int newCaretPos = start + replacement.length();
         selectRange(newCaretPos, newCaretPos);
+        if (m != null) m.replaced(System.nanoTime() - startTime);
     }
 
     void replaceMulti(List<Replacement<PS, SEG, S>> replacements) {
+        AreaMetrics m = metrics;
+        long startTime = m != null ? System.nanoTime() : 0;
         content.replaceMulti(replacements);
+        if (m != null) m.replaced(System.nanoTime() - startTime);
 
         // don't update selection as this is not the main method through which the area is updated
         // leave that up to the developer using it to determine what to do
@@ -1657,26 +1826,146 @@ public class GenericStyledArea<PS, SEG, S> extends Region
 
     private void skipOverFoldedParagraphs( ObservableValue<? extends Integer> ob, Integer prevParagraph, Integer newParagraph )
     {
-        if ( foldCheck && getCell( newParagraph ).isFolded() )
-        {
-            // Prevent Ctrl+A and Ctrl+End breaking when the last paragraph is folded
-            // github.com/FXMisc/RichTextFX/pull/965#issuecomment-706268116
-            if ( newParagraph == getParagraphs().size() - 1 ) return;
+        // Prevent Ctrl+A and Ctrl+End breaking when the last paragraph is folded
+        // github.com/FXMisc/RichTextFX/pull/965#issuecomment-706268116
+        if ( ! foldCheck || newParagraph == getParagraphs().size() - 1 ) return;
 
-            int skip = (newParagraph - prevParagraph > 0) ? +1 : -1;
-            int p = newParagraph + skip;
+        boolean forward = newParagraph - prevParagraph > 0;
+        int p;
+
+        if ( newParagraph < foldModel.getParagraphCount() && foldModel.isFolded( newParagraph ) ) {
+            // paragraphs collapsed in the fold model are skipped in O(log n)
+            p = foldModel.nextUnfolded( newParagraph, forward );
+        }
+        else if ( getCell( newParagraph ).isFolded() ) {
+            // the state of paragraphs folded through their style is only known to their cells
+            int skip = forward ? +1 : -1;
+            p = newParagraph + skip;
 
             while ( p > 0 && p < getParagraphs().size() ) {
-                if ( getCell( p ).isFolded() )  p += skip;
+                if ( foldModel.isFolded( p ) ) {
+                    p = foldModel.nextUnfolded( p, forward );
+                    if ( p < 0 ) break;
+                }
+                else if ( getCell( p ).isFolded() )  p += skip;
                 else break;
             }
+            if ( p == getParagraphs().size() ) p = -1;
+        }
+        else return;
+
+        if ( p < 0 ) p = prevParagraph;
+        int col = Math.min( getCaretColumn(), getParagraphLength( p ) );
 
-            if ( p < 0 || p == getParagraphs().size() ) p = prevParagraph;
-            int col = Math.min( getCaretColumn(), getParagraphLength( p ) );
+        if ( getSelection().getLength() == 0 )  moveTo( p, col );
+        else moveTo( p, col, SelectionPolicy.EXTEND );
+    }
 
-            if ( getSelection().getLength() == 0 )  moveTo( p, col );
-            else moveTo( p, col, SelectionPolicy.EXTEND );
+    /**
+     * Folds (hides/collapses) paragraphs from <code>startPar</code> to <code>endPar</code>, into (i.e. excluding)
+     * the first paragraph of the range.
+     *
+     * <p>Unlike {@link #foldParagraphs(int, int, UnaryOperator)}, this does not change the paragraphs' style: the
+     * folded paragraphs are recorded in a fold model kept beside the document, which is updated as paragraphs are
+     * added or removed. Folding therefore does not create an entry in the undo history nor recreate the
+     * paragraphs, and it takes O(log n) time however many paragraphs are folded. The viewport is only given the
+     * paragraphs that are not collapsed, so collapsed paragraphs have no cell and scrolling over them costs
+     * nothing.</p>
+     *
+     * <p>The two ways of folding are independent of each other. A fold made through the paragraph style is part of
+     * the document: it is undoable, it is saved and copied with the text, and it is shared by all the areas that
+     * show the document, but each folded paragraph still has a cell, collapsed to a height of 0, since only the
+     * paragraph style knows that it is folded. A collapse is a state of this area's view, like its scroll
+     * position: it is not undoable, it is lost when the area is disposed, and it is not seen by other areas that
+     * show the same document. A paragraph can be folded both ways, and it is shown when neither hides it.</p>
+     *
+     * @param startPar the paragraph into which the following paragraphs are folded
+     * @param endPar the last paragraph to fold (inclusive)
+     */
+    public void collapseParagraphs( int startPar, int endPar )
+    {
+        if ( startPar < 0 || endPar >= getParagraphs().size() || startPar > endPar ) {
+            throw new IllegalArgumentException( String.format(
+                    "Cannot collapse paragraphs [%s, %s] of a document that has %s paragraphs",
+                    startPar, endPar, getParagraphs().size() )
+            );
         }
+        if ( startPar == endPar ) return;
+
+        int caretPar = getCurrentParagraph();
+        if ( caretPar > startPar && caretPar <= endPar ) {
+            moveTo( startPar, getParagraphLength( startPar ) );
+        }
+        expandedParagraphs.setFolded( startPar + 1, endPar + 1, true );
+        foldCheck = true;
+    }
+
+    /**
+     * Unfolds the block of paragraphs that was folded into <code>startPar</code>
+     * with {@link #collapseParagraphs(int, int)}. Does nothing if the next paragraph is not collapsed.
+     */
+    public void expandParagraphs( int startPar )
+    {
+        int first = startPar + 1;
+        if ( first < foldModel.getParagraphCount() && foldModel.isFolded( first ) ) {
+            expandedParagraphs.setFolded( first, foldModel.getRunEnd( first ), false );
+        }
+    }
+
+    /**
+     * Unfolds all the paragraphs that were folded with {@link #collapseParagraphs(int, int)}.
+     */
+    public void expandAllParagraphs()
+    {
+        if ( foldModel.getFoldedCount() > 0 ) {
+            expandedParagraphs.setFolded( 0, foldModel.getParagraphCount(), false );
+        }
+    }
+
+    /**
+     * Emits the range of paragraphs whose state was changed by {@link #collapseParagraphs(int, int)} or
+     * by expanding them.
+     */
+    EventStream<IndexRange> foldChanges()
+    {
+        return foldModel.foldChanges();
+    }
+
+    /**
+     * Returns true if the given paragraph was folded with {@link #collapseParagraphs(int, int)}.
+     */
+    public boolean isParagraphCollapsed( int paragraph )
+    {
+        return foldModel.isFolded( paragraph );
+    }
+
+    /**
+     * Returns the number of paragraphs that are not folded with {@link #collapseParagraphs(int, int)}.
+     */
+    public int getExpandedParagraphCount()
+    {
+        return foldModel.getUnfoldedCount();
+    }
+
+    /**
+     * Maps the index of a paragraph in the document to its index among the paragraphs that are not folded
+     * with {@link #collapseParagraphs(int, int)}. For a collapsed paragraph, returns the index the next
+     * expanded paragraph has. Unlike {@link #allParToVisibleParIndex(int)}, this is not limited to the
+     * viewport, and takes O(log n) time however many paragraphs are collapsed.
+     */
+    public int allParToExpandedParIndex( int allParIndex )
+    {
+        return foldModel.toUnfoldedIndex( allParIndex );
+    }
+
+    /**
+     * Maps the index of a paragraph among the paragraphs that are not folded with
+     * {@link #collapseParagraphs(int, int)} to its index in the document, in O(log n) time.
+     * This is the inverse of {@link #allParToExpandedParIndex(int)}, e.g. for "go to line" on folded text.
+     */
+    public int expandedParToAllParIndex( int expandedParIndex )
+    {
+        return foldModel.fromUnfoldedIndex( expandedParIndex );
     }
 
     /**
@@ -1726,11 +2015,105 @@ public class GenericStyledArea<PS, SEG, S> extends Region
      *                                                                        *
      * ********************************************************************** */
 
+    /**
+     * Gets the find/replace engine of this area, which is created on the first call.
+     */
+    public DocumentSearch<PS, SEG, S> getSearch() {
+        if (search == null) {
+            search = new DocumentSearch<>(this);
+        }
+        return search;
+    }
+
+    /**
+     * Gets the layer of styles that are painted over this area's text without being part of its document,
+     * which is created on the first call. See {@link DecorationLayer}.
+     */
+    public DecorationLayer<S> getDecorations() {
+        if (decorations == null) {
+            decorations = new DecorationLayer<>(getParagraphs().size(), this::getParagraphLength);
+            // only the lengths of the inserted paragraphs are needed, not the removed and inserted text
+            manageSubscription(richChanges()
+                    .filter(change -> !change.isPlainTextIdentity())
+                    .subscribe(change -> {
+                        List<Paragraph<PS, SEG, S>> inserted = change.getInserted().getParagraphs();
+                        decorations.replace(change.getPosition(), change.getRemovalEnd() - change.getPosition(),
+                                inserted.size(), i -> inserted.get(i).length());
+                    }));
+            manageSubscription(decorations.changes().subscribe(range -> {
+                for (ParagraphBox<PS, SEG, S> box : nonEmptyCells) {
+                    int idx = box.getIndex();
+                    if (range.getStart() <= idx && idx < range.getEnd()) {
+                        decorate(box);
+                    }
+                }
+            }));
+            nonEmptyCells.forEach(this::decorate);
+        }
+        return decorations;
+    }
+
+    /**
+     * Gets the runtime metrics of this area, which are created on the first call and only count what happens
+     * from then on. See {@link AreaMetrics}.
+     */
+    public AreaMetrics getMetrics() {
+        if (metrics == null) {
+            metrics = new AreaMetrics(this);
+        }
+        return metrics;
+    }
+
+    /**
+     * Sets the function that combines a segment's style (first argument) with the style of a decoration painted
+     * over it (second argument) into the style it is rendered with. By default, the decoration's style is used.
+     */
+    public void setDecorationStyleCombiner(BiFunction<S, S, S> combiner) {
+        decorationStyleCombiner = Objects.requireNonNull(combiner);
+        if (decorations != null) {
+            // the decorations did not change, so the visible paragraphs must be rendered again explicitly
+            nonEmptyCells.forEach(box -> decorate(box, true));
+        }
+    }
+
+    public BiFunction<S, S, S> getDecorationStyleCombiner() {
+        return decorationStyleCombiner;
+    }
+
+    private void decorate(ParagraphBox<PS, SEG, S> box) {
+        decorate(box, false);
+    }
+
+    /**
+     * Renders the given cell with the decorations of its paragraph; if {@code force} is false, only if they are not
+     * the ones it is already rendered with.
+     */
+    private void decorate(ParagraphBox<PS, SEG, S> box, boolean force) {
+        int idx = box.getIndex();
+        if (decorations != null && idx != -1) {
+            // the layer may not be updated yet for the change that created this cell, see DecorationLayer#replace
+            List<DecorationLayer.Decoration<S>> list = idx < decorations.getParagraphCount()
+                    ? decorations.getDecorations(idx)
+                    : Collections.emptyList();
+            if (force) {
+                box.renderDecorations(list, decorationStyleCombiner);
+            } else {
+                box.setDecorations(list, decorationStyleCombiner);
+            }
+        }
+    }
+
     @Override
     public void dispose() {
         if (undoManager != null) {
             undoManager.close();
         }
+        if (search != null) {
+            search.dispose();
+        }
+        if (metrics != null) {
+            metrics.dispose();
+        }
         subscriptions.unsubscribe();
         virtualFlow.dispose();
     }
@@ -1764,8 +2147,9 @@ public class GenericStyledArea<PS, SEG, S> extends Region
             double calcWidth = getWidth();
             if ( calcWidth <= 0.0 ) calcWidth = getPrefWidth();
 
-            for ( int p = 0; p < getParagraphs().size(); p++ ) {
-                height += getCell( p ).computePrefHeight( calcWidth );
+            // collapsed paragraphs take no space
+            for ( int p = 0; p < expandedParagraphs.size(); p++ ) {
+                height += virtualFlow.getCell( p ).getNode().computePrefHeight( calcWidth );
             }
             if ( height > 0.0 ) {
                 return height + in.getTop() + in.getBottom();
@@ -1776,6 +2160,8 @@ public class GenericStyledArea<PS, SEG, S> extends Region
 
     @Override
     protected void layoutChildren() {
+        if (metrics != null) metrics.layoutPass();
+        Object event = ViewEvents.beginAreaLayout();
         Insets ins = getInsets();
         visibleParagraphs.suspendWhile(() -> {
             virtualFlow.resizeRelocate(
@@ -1801,6 +2187,9 @@ public class GenericStyledArea<PS, SEG, S> extends Region
                 ins, placeHolderPos.getHpos(), placeHolderPos.getVpos(), isSnapToPixel()
             );
         }
+
+        ViewEvents.commitAreaLayout(event, getLength(), getParagraphs().size(), visibleParagraphs, cellsCreated);
+        cellsCreated = 0;
     }
 
     /* ********************************************************************** *
@@ -1811,45 +2200,62 @@ public class GenericStyledArea<PS, SEG, S> extends Region
 
     /**
      * Returns the current line as a two-level index.
-     * The major number is the paragraph index, the minor
-     * number is the line number within the paragraph.
+     * The major number is the index of the paragraph among the paragraphs that are not collapsed (see
+     * {@link #allParToExpandedParIndex(int)}), so that moving by lines skips collapsed paragraphs; the minor
+     * number is the line number within the paragraph. A caret in a collapsed paragraph is on the last line
+     * of the paragraph it is collapsed into.
      *
      * <p>This method has a side-effect of bringing the current
      * paragraph to the viewport if it is not already visible.
      */
     TwoDimensional.Position currentLine() {
         int parIdx = getCurrentParagraph();
-        Cell<Paragraph<PS, SEG, S>, ParagraphBox<PS, SEG, S>> cell = virtualFlow.getCell(parIdx);
-        int lineIdx = cell.getNode().getCurrentLineIndex(caretSelectionBind.getUnderlyingCaret());
-        return paragraphLineNavigator.position(parIdx, lineIdx);
+        int cellIdx = shownCellIndex(parIdx);
+        ParagraphBox<PS, SEG, S> cell = virtualFlow.getCell(cellIdx).getNode();
+        int lineIdx = foldModel.isFolded(parIdx)
+                ? cell.getLineCount() - 1
+                : cell.getCurrentLineIndex(caretSelectionBind.getUnderlyingCaret());
+        return paragraphLineNavigator.position(cellIdx, lineIdx);
     }
 
     void showCaretAtBottom() {
         int parIdx = getCurrentParagraph();
-        Cell<Paragraph<PS, SEG, S>, ParagraphBox<PS, SEG, S>> cell = virtualFlow.getCell(parIdx);
-        Bounds caretBounds = cell.getNode().getCaretBounds(caretSelectionBind.getUnderlyingCaret());
+        if (foldModel.isFolded(parIdx)) {
+            showParagraphAtBottom(parIdx);
+            return;
+        }
+        int cellIdx = foldModel.toUnfoldedIndex(parIdx);
+        Bounds caretBounds = getCell(parIdx).getCaretBounds(caretSelectionBind.getUnderlyingCaret());
         double y = caretBounds.getMaxY();
-        suspendVisibleParsWhile(() -> virtualFlow.showAtOffset(parIdx, getViewportHeight() - y));
+        suspendVisibleParsWhile(() -> virtualFlow.showAtOffset(cellIdx, getViewportHeight() - y));
     }
 
     void showCaretAtTop() {
         int parIdx = getCurrentParagraph();
-        Cell<Paragraph<PS, SEG, S>, ParagraphBox<PS, SEG, S>> cell = virtualFlow.getCell(parIdx);
-        Bounds caretBounds = cell.getNode().getCaretBounds(caretSelectionBind.getUnderlyingCaret());
+        if (foldModel.isFolded(parIdx)) {
+            showParagraphAtTop(parIdx);
+            return;
+        }
+        int cellIdx = foldModel.toUnfoldedIndex(parIdx);
+        Bounds caretBounds = getCell(parIdx).getCaretBounds(caretSelectionBind.getUnderlyingCaret());
         double y = caretBounds.getMinY();
-        suspendVisibleParsWhile(() -> virtualFlow.showAtOffset(parIdx, -y));
+        suspendVisibleParsWhile(() -> virtualFlow.showAtOffset(cellIdx, -y));
     }
 
     /**
      * Returns x coordinate of the caret in the current paragraph.
      */
     final ParagraphBox.CaretOffsetX getCaretOffsetX(CaretNode caret) {
-        return getCell(caret.getParagraphIndex()).getCaretOffsetX(caret);
+        int parIdx = caret.getParagraphIndex();
+        // a caret in a collapsed paragraph is not laid out
+        return foldModel.isFolded(parIdx)
+                ? ParagraphBox.CaretOffsetX.LINE_START
+                : getCell(parIdx).getCaretOffsetX(caret);
     }
 
     CharacterHit hit(ParagraphBox.CaretOffsetX x, TwoDimensional.Position targetLine) {
-        int parIdx = targetLine.getMajor();
-        ParagraphBox<PS, SEG, S> cell = virtualFlow.getCell(parIdx).getNode();
+        int parIdx = foldModel.fromUnfoldedIndex(targetLine.getMajor());
+        ParagraphBox<PS, SEG, S> cell = virtualFlow.getCell(targetLine.getMajor()).getNode();
         CharacterHit parHit = cell.hitTextLine(x, targetLine.getMinor());
         return parHit.offset(getParagraphOffset(parIdx));
     }
@@ -1862,7 +2268,7 @@ public class GenericStyledArea<PS, SEG, S> extends Region
         } else if(hit.isAfterCells()) {
             return CharacterHit.insertionAt(getLength());
         } else {
-            int parIdx = hit.getCellIndex();
+            int parIdx = foldModel.fromUnfoldedIndex(hit.getCellIndex());
             int parOffset = getParagraphOffset(parIdx);
             ParagraphBox<PS, SEG, S> cell = hit.getCell().getNode();
             Point2D cellOffset = hit.getCellOffset();
@@ -1878,7 +2284,7 @@ public class GenericStyledArea<PS, SEG, S> extends Region
 
         List<Bounds> bounds = new ArrayList<>(selection.getParagraphSpan());
         for (int i = selection.getStartParagraphIndex(); i <= selection.getEndParagraphIndex(); i++) {
-            virtualFlow.getCellIfVisible(i)
+            getCellIfVisible(i)
                     .ifPresent(c -> c.getNode()
                             .getSelectionBoundsOnScreen(selection)
                             .ifPresent(bounds::add)
@@ -1921,80 +2327,12 @@ public class GenericStyledArea<PS, SEG, S> extends Region
         box.graphicFactoryProperty().bind(paragraphGraphicFactoryProperty());
         box.graphicOffset.bind(virtualFlow.breadthOffsetProperty());
 
-        EventStream<Integer> boxIndexValues = box.indexProperty().values().filter(i -> i != -1);
-
-        Subscription firstParPseudoClass = boxIndexValues.subscribe(idx -> box.pseudoClassStateChanged(FIRST_PAR, idx == 0));
-        Subscription lastParPseudoClass = EventStreams.combine(
-                boxIndexValues,
-                getParagraphs().sizeProperty().values()
-        ).subscribe(in -> in.exec((i, n) -> box.pseudoClassStateChanged(LAST_PAR, i == n-1)));
-
-        // set up caret
-        Function<CaretNode, Subscription> subscribeToCaret = caret -> {
-            EventStream<Integer> caretIndexStream = EventStreams.nonNullValuesOf(caret.paragraphIndexProperty());
-
-            // a new event stream needs to be created for each caret added, so that it will immediately
-            // fire the box's current index value as an event, thereby running the code in the subscribe block
-            // Reusing boxIndexValues will not fire its most recent event, leading to a caret not being added
-            // Thus, we'll call the new event stream "fresh" box index values
-            EventStream<Integer> freshBoxIndexValues = box.indexProperty().values().filter(i -> i != -1);
-
-            return EventStreams.combine(caretIndexStream, freshBoxIndexValues)
-                    .subscribe(t -> {
-                        int caretParagraphIndex = t.get1();
-                        int boxIndex = t.get2();
-                        if (caretParagraphIndex == boxIndex) {
-                            box.caretsProperty().add(caret);
-                        } else {
-                            box.caretsProperty().remove(caret);
-                        }
-                    });
-        };
-        Subscription caretSubscription = caretSet.addSubscriber(subscribeToCaret);
-
-        // TODO: how should 'hasCaret' be handled now?
-        Subscription hasCaretPseudoClass = EventStreams
-                .combine(boxIndexValues, Val.wrap(currentParagraphProperty()).values())
-                // box index (t1) == caret paragraph index (t2)
-                .map(t -> t.get1().equals(t.get2()))
-                .subscribe(value -> box.pseudoClassStateChanged(HAS_CARET, value));
-
-        Function<Selection<PS, SEG, S>, Subscription> subscribeToSelection = selection -> {
-            EventStream<Integer> startParagraphValues = EventStreams.nonNullValuesOf(selection.startParagraphIndexProperty());
-            EventStream<Integer> endParagraphValues = EventStreams.nonNullValuesOf(selection.endParagraphIndexProperty());
-
-            // see comment in caret section about why a new box index EventStream is needed
-            EventStream<Integer> freshBoxIndexValues = box.indexProperty().values().filter(i -> i != -1);
-            return EventStreams.combine(startParagraphValues, endParagraphValues, freshBoxIndexValues)
-                    .subscribe(t -> {
-                        int startPar = t.get1();
-                        int endPar = t.get2();
-                        int boxIndex = t.get3();
-                        if (startPar <= boxIndex && boxIndex <= endPar) {
-                            //   So that we don't add multiple paths for the same selection,
-                            //   which leads to not removing the additional paths when selection is removed,
-                            // this is a `Map#putIfAbsent(Key, Value)` implementation that creates the path lazily
-                            SelectionPath p = box.selectionsProperty().get(selection);
-                            if (p == null) {
-                                // create & configure path
-                                Val<IndexRange> range = Val.create(
-                                        () -> box.getIndex() != -1
-                                                ? getParagraphSelection(selection, box.getIndex())
-                                                : EMPTY_RANGE,
-                                        selection.rangeProperty()
-                                );
-                                SelectionPath path = new SelectionPath(range);
-                                path.getStyleClass().add( selection.getSelectionName() );
-                                selection.configureSelectionPath(path);
-
-                                box.selectionsProperty().put(selection, path);
-                            }
-                        } else {
-                            box.selectionsProperty().remove(selection);
-                        }
-                    });
-        };
-        Subscription selectionSubscription = selectionSet.addSubscriber(subscribeToSelection);
+        // pseudo-classes, carets and selections are dispatched to the cells by the area, which observes them once
+        Subscription indexSubscription = box.indexProperty().values().filter(i -> i != -1).subscribe(idx -> {
+            cellStateDispatcher.cellIndexChanged(box);
+            selectionRegistry.cellIndexChanged(box);
+            decorate(box);
+        });
 
         return new Cell<Paragraph<PS, SEG, S>, ParagraphBox<PS, SEG, S>>() {
             @Override
@@ -2004,7 +2342,9 @@ public class GenericStyledArea<PS, SEG, S> extends Region
 
             @Override
             public void updateIndex(int index) {
-                box.setIndex(index);
+                // the viewport only has the paragraphs that are not collapsed, whereas the box has the document's index
+                box.setExpandedIndex(index);
+                box.setIndex(foldModel.fromUnfoldedIndex(index));
             }
 
             @Override
@@ -2015,13 +2355,7 @@ public class GenericStyledArea<PS, SEG, S> extends Region
                 box.graphicOffset.unbind();
                 box.dispose();
 
-                firstParPseudoClass.unsubscribe();
-                lastParPseudoClass.unsubscribe();
-
-                caretSubscription.unsubscribe();
-                hasCaretPseudoClass.unsubscribe();
-
-                selectionSubscription.unsubscribe();
+                indexSubscription.unsubscribe();
             }
         };
     }
@@ -2029,7 +2363,13 @@ public class GenericStyledArea<PS, SEG, S> extends Region
     /** Assumes this method is called within a {@link #suspendVisibleParsWhile(Runnable)} block */
     private void followCaret() {
         int parIdx = getCurrentParagraph();
-        ParagraphBox<PS, SEG, S> paragrafBox = virtualFlow.getCell( parIdx ).getNode();
+        if ( foldModel.isFolded( parIdx ) ) {
+            // the caret is in a collapsed paragraph, so show the paragraph it is collapsed into
+            virtualFlow.show( shownCellIndex( parIdx ) );
+            return;
+        }
+        int cellIdx = foldModel.toUnfoldedIndex( parIdx );
+        ParagraphBox<PS, SEG, S> paragrafBox = virtualFlow.getCell( cellIdx ).getNode();
 
         Bounds caretBounds;
         try {
@@ -2069,17 +2409,62 @@ public class GenericStyledArea<PS, SEG, S> extends Region
             );
         }
 
-        virtualFlow.show(parIdx, region);
+        virtualFlow.show(cellIdx, region);
     }
 
+    /**
+     * Returns the cell of the given paragraph, which must not be collapsed.
+     */
     private ParagraphBox<PS, SEG, S> getCell(int index) {
-        return virtualFlow.getCell(index).getNode();
+        return virtualFlow.getCell(foldModel.toUnfoldedIndex(index)).getNode();
     }
 
-    private EventStream<MouseOverTextEvent> mouseOverTextEvents(ObservableSet<ParagraphBox<PS, SEG, S>> cells, Duration delay) {
-        return merge(cells, c -> c.stationaryIndices(delay).map(e -> e.unify(
-                l -> l.map((pos, charIdx) -> MouseOverTextEvent.beginAt(c.localToScreen(pos), getParagraphOffset(c.getIndex()) + charIdx)),
-                r -> MouseOverTextEvent.end())));
+    /**
+     * Returns the cell of the given paragraph if it is in the viewport, which a collapsed paragraph never is.
+     */
+    private Optional<Cell<Paragraph<PS, SEG, S>, ParagraphBox<PS, SEG, S>>> getCellIfVisible(int paragraph) {
+        return foldModel.isFolded(paragraph)
+                ? Optional.empty()
+                : virtualFlow.getCellIfVisible(foldModel.toUnfoldedIndex(paragraph));
+    }
+
+    /**
+     * Returns the index of the viewport's cell that shows the given paragraph, or the paragraph into which it is
+     * collapsed. Paragraph 0 is never collapsed, so there is always such a cell.
+     */
+    private int shownCellIndex(int paragraph) {
+        int expandedIndex = foldModel.toUnfoldedIndex(paragraph);
+        return foldModel.isFolded(paragraph) ? expandedIndex - 1 : expandedIndex;
+    }
+
+    /**
+     * Returns the events of the mouse becoming stationary over a character of this area and moving again. A single
+     * {@link MouseStationaryHelper} watches the whole area, and the character is found with one hit test when the
+     * mouse becomes stationary, so the cells do not have their own timers and subscriptions.
+     */
+    private EventStream<MouseOverTextEvent> mouseOverTextEvents(Duration delay) {
+        EventStream<Either<Point2D, Void>> stationaryEvents = new MouseStationaryHelper(this).events(delay);
+        EventStream<MouseOverTextEvent> begins = stationaryEvents.filterMap(Either::asLeft)
+                .filterMap(pos -> characterAt(pos).map(charIdx -> MouseOverTextEvent.beginAt(localToScreen(pos), charIdx)));
+        EventStream<MouseOverTextEvent> ends = stationaryEvents.filter(Either::isRight)
+                .map(stop -> MouseOverTextEvent.end());
+        return merge(begins, ends);
+    }
+
+    /**
+     * Returns the index of the character at the given position in this area, if the position is over a character.
+     */
+    private Optional<Integer> characterAt(Point2D pos) {
+        // mouse position used, so account for padding
+        VirtualFlowHit<Cell<Paragraph<PS, SEG, S>, ParagraphBox<PS, SEG, S>>> hit =
+                virtualFlow.hit(pos.getX() - getInsets().getLeft(), pos.getY() - getInsets().getTop());
+        if (!hit.isCellHit()) {
+            return Optional.empty();
+        }
+        OptionalInt charIdx = hit.getCell().getNode().hit(hit.getCellOffset()).getCharacterIndex();
+        return charIdx.isPresent()
+                ? Optional.of(getParagraphOffset(foldModel.fromUnfoldedIndex(hit.getCellIndex())) + charIdx.getAsInt())
+                : Optional.empty();
     }
 
     private int getParagraphOffset(int parIdx) {
@@ -2111,7 +2496,7 @@ public class GenericStyledArea<PS, SEG, S> extends Region
     }
 
     private Optional<Bounds> getRangeBoundsOnScreen(int paragraphIndex, int from, int to) {
-        return virtualFlow.getCellIfVisible(paragraphIndex)
+        return getCellIfVisible(paragraphIndex)
                 .map(c -> c.getNode().getRangeBoundsOnScreen(from, to));
     }
 
@@ -39,6 +39,9 @@ public class InlineCssTextArea extends StyledTextArea<String, String> {
         );
 
         setStyleCodecs(Codec.STRING_CODEC, styledTextCodec(Codec.STRING_CODEC));
+
+        // decoration declarations come last, so that they override those of the text
+        setDecorationStyleCombiner(InlineCssTextArea::joinDeclarations);
     }
 
     /**
@@ -123,4 +126,28 @@ public class InlineCssTextArea extends StyledTextArea<String, String> {
     protected UnaryOperator<String> getRemoveFoldStyle() {
         return pstyle -> pstyle.replaceFirst( "visibility: collapse;", "" );
     }
+
+    /**
+     * Joins two lists of css declarations, skipping the empty ones, so that the result never has an empty
+     * declaration such as {@code ";;"} or a leading {@code ";"}.
+     */
+    private static String joinDeclarations(String style, String decorationStyle) {
+        String first = trimSemicolons(style);
+        String second = trimSemicolons(decorationStyle);
+        return first.isEmpty() ? second
+                : second.isEmpty() ? first
+                : first + ";" + second;
+    }
+
+    private static String trimSemicolons(String declarations) {
+        int start = 0;
+        int end = declarations.length();
+        while (start < end && (declarations.charAt(start) == ';' || Character.isWhitespace(declarations.charAt(start)))) {
+            start++;
+        }
+        while (end > start && (declarations.charAt(end - 1) == ';' || Character.isWhitespace(declarations.charAt(end - 1)))) {
+            end--;
+        }
+        return declarations.substring(start, end);
+    }
 }
@@ -0,0 +1,255 @@
+package org.fxmisc.richtext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * A collection of elements, each associated with a closed interval {@code [start, end]} of integers, that can
+ * efficiently report the elements whose interval overlaps a given range. It is used, for example, to find out
+ * which {@link Selection}s span a given paragraph without checking every selection.
+ *
+ * <p>The intervals are kept in a randomized balanced search tree (a treap) ordered by their start, in which each
+ * node also stores the greatest end found in its subtree. Adding, moving or removing an element takes
+ * O(log n) expected time; a query takes O(log n + k) time, where k is the number of reported elements.</p>
+ *
+ * @param <E> the type of element stored in the index
+ */
+final class IntervalIndex<E> {
+
+    private static final class Node<E> {
+        private final E element;
+        private final long seq;
+        private final int priority;
+
+        private int start;
+        private int end;
+        private int maxEnd;
+
+        private Node<E> left;
+        private Node<E> right;
+
+        Node(E element, int start, int end, long seq, int priority) {
+            this.element = element;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+            this.seq = seq;
+            this.priority = priority;
+        }
+    }
+
+    private final Map<E, Node<E>> nodes = new HashMap<>();
+    private final Random random = new Random();
+    private Node<E> root;
+    private long nextSeq = 0;
+
+    int size() {
+        return nodes.size();
+    }
+
+    boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    boolean contains(E element) {
+        return nodes.containsKey(element);
+    }
+
+    /**
+     * Returns the start of the interval associated with the given element.
+     *
+     * @throws NoSuchElementException if the element is not in this index
+     */
+    int getStart(E element) {
+        return getNode(element).start;
+    }
+
+    /**
+     * Returns the (inclusive) end of the interval associated with the given element.
+     *
+     * @throws NoSuchElementException if the element is not in this index
+     */
+    int getEnd(E element) {
+        return getNode(element).end;
+    }
+
+    /**
+     * Associates the given element with the interval {@code [start, end]}, adding the element to this index
+     * if it was not in it yet, or moving it to the new interval otherwise.
+     *
+     * @throws IllegalArgumentException if {@code start > end}
+     */
+    void put(E element, int start, int end) {
+        if (start > end) {
+            throw new IllegalArgumentException("start (" + start + ") cannot be greater than end (" + end + ")");
+        }
+
+        Node<E> node = nodes.get(element);
+        if (node == null) {
+            node = new Node<>(element, start, end, nextSeq++, random.nextInt());
+            nodes.put(element, node);
+        } else if (node.start == start && node.end == end) {
+            return;
+        } else {
+            root = delete(root, node);
+            node.start = start;
+            node.end = end;
+        }
+        root = insert(root, node);
+    }
+
+    /**
+     * Removes the given element from this index.
+     *
+     * @return {@code true} if the element was in this index
+     */
+    boolean remove(E element) {
+        Node<E> node = nodes.remove(element);
+        if (node == null) {
+            return false;
+        }
+        root = delete(root, node);
+        return true;
+    }
+
+    void clear() {
+        nodes.clear();
+        root = null;
+    }
+
+    /**
+     * Calls the given action on every element whose interval overlaps the closed range {@code [from, to]},
+     * in the order of the intervals' starts.
+     */
+    void forEachOverlapping(int from, int to, Consumer<? super E> action) {
+        if (from <= to) {
+            forEachOverlapping(root, from, to, action);
+        }
+    }
+
+    /**
+     * Returns the elements whose interval overlaps the closed range {@code [from, to]}, in the order of the
+     * intervals' starts.
+     */
+    List<E> getOverlapping(int from, int to) {
+        List<E> result = new ArrayList<>();
+        forEachOverlapping(from, to, result::add);
+        return result;
+    }
+
+    private Node<E> getNode(E element) {
+        Node<E> node = nodes.get(element);
+        if (node == null) {
+            throw new NoSuchElementException("Element is not in this index: " + element);
+        }
+        return node;
+    }
+
+    private static <E> void forEachOverlapping(Node<E> node, int from, int to, Consumer<? super E> action) {
+        // no interval in this subtree reaches the queried range
+        if (node == null || node.maxEnd < from) {
+            return;
+        }
+
+        forEachOverlapping(node.left, from, to, action);
+        if (node.start <= to) {
+            if (node.end >= from) {
+                action.accept(node.element);
+            }
+            forEachOverlapping(node.right, from, to, action);
+        }
+    }
+
+    private static <E> int compare(Node<E> a, Node<E> b) {
+        int cmp = Integer.compare(a.start, b.start);
+        return cmp != 0 ? cmp : Long.compare(a.seq, b.seq);
+    }
+
+    private static <E> Node<E> insert(Node<E> tree, Node<E> node) {
+        if (tree == null) {
+            node.left = null;
+            node.right = null;
+            update(node);
+            return node;
+        }
+
+        if (compare(node, tree) < 0) {
+            tree.left = insert(tree.left, node);
+            if (tree.left.priority > tree.priority) {
+                return rotateRight(tree);
+            }
+        } else {
+            tree.right = insert(tree.right, node);
+            if (tree.right.priority > tree.priority) {
+                return rotateLeft(tree);
+            }
+        }
+        update(tree);
+        return tree;
+    }
+
+    private static <E> Node<E> delete(Node<E> tree, Node<E> node) {
+        if (tree == node) {
+            return merge(tree.left, tree.right);
+        }
+
+        if (compare(node, tree) < 0) {
+            tree.left = delete(tree.left, node);
+        } else {
+            tree.right = delete(tree.right, node);
+        }
+        update(tree);
+        return tree;
+    }
+
+    /** Merges two trees, where all the nodes in {@code a} precede all the nodes in {@code b}. */
+    private static <E> Node<E> merge(Node<E> a, Node<E> b) {
+        if (a == null) {
+            return b;
+        } else if (b == null) {
+            return a;
+        } else if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        } else {
+            b.left = merge(a, b.left);
+            update(b);
+            return b;
+        }
+    }
+
+    private static <E> Node<E> rotateRight(Node<E> node) {
+        Node<E> left = node.left;
+        node.left = left.right;
+        update(node);
+        left.right = node;
+        update(left);
+        return left;
+    }
+
+    private static <E> Node<E> rotateLeft(Node<E> node) {
+        Node<E> right = node.right;
+        node.right = right.left;
+        update(node);
+        right.left = node;
+        update(right);
+        return right;
+    }
+
+    private static <E> void update(Node<E> node) {
+        int max = node.end;
+        if (node.left != null) {
+            max = Math.max(max, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            max = Math.max(max, node.right.maxEnd);
+        }
+        node.maxEnd = max;
+    }
+}
@@ -25,6 +25,8 @@ import org.reactfx.value.Val;
 /**
  * Graphic factory that produces labels containing line numbers and a "+" to indicate folded paragraphs.
  * To customize appearance, use {@code .lineno} and {@code .fold-indicator} style classes in CSS stylesheets.
+ * For large documents, consider a {@link LineNumberGutter}, which paints the line numbers of all the visible
+ * paragraphs on a single canvas instead of creating a label for each of them.
  */
 public class LineNumberFactory<PS> implements IntFunction<Node> {
 
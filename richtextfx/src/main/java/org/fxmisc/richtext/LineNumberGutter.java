@@ -0,0 +1,303 @@
+package org.fxmisc.richtext;
+
+import java.util.Arrays;
+
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
+import javafx.geometry.VPos;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontPosture;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+
+import org.reactfx.Subscription;
+
+import static org.reactfx.EventStreams.*;
+
+/**
+ * A gutter that paints the line numbers of the visible paragraphs of an area, and a "+" beside a paragraph into
+ * which the following paragraphs are collapsed (see {@link GenericStyledArea#collapseParagraphs(int, int)}), which
+ * expands them when it is clicked. It is meant to be placed to the left of the area, e.g. in the left of a
+ * {@link javafx.scene.layout.BorderPane} whose center is the area's {@link org.fxmisc.flowless.VirtualizedScrollPane}.
+ *
+ * <p>Unlike {@link LineNumberFactory}, which creates a {@link javafx.scene.control.Label} for each paragraph cell,
+ * the gutter paints all the visible line numbers on a single {@link Canvas} once the area has been laid out.
+ * Numbers are measured with the widths of the digits of the font, which are computed once, and only the rows whose
+ * paragraph, position or fold marker changed since the previous paint are painted again, e.g. typing within a line
+ * does not paint anything and inserting a line only paints the rows below it. As it is not made of nodes,
+ * the gutter's appearance is set with {@link #setFont(Font)}, {@link #setTextFill(Paint)} and
+ * {@link #setGutterFill(Paint)} rather than with CSS.</p>
+ *
+ * <p>The rows of the paragraphs that are folded through their style (see
+ * {@link GenericStyledArea#foldParagraphs(int, int, java.util.function.UnaryOperator)}) are hidden like those of
+ * collapsed paragraphs, but only collapsed paragraphs get a "+": the gutter cannot expand a style fold, since only
+ * the area's subclass knows the style that folds a paragraph.</p>
+ */
+public class LineNumberGutter extends Region {
+
+    private static final double PADDING = 5.0;
+
+    private final GenericStyledArea<?, ?, ?> area;
+    private final Canvas canvas = new Canvas();
+    private final Subscription subscription;
+
+    private Font font = Font.font("monospace", FontPosture.ITALIC, 13);
+    private Font foldFont = Font.font("monospace", FontWeight.BOLD, 13);
+    private Paint textFill = Color.web("#666");
+    private Paint foldFill = Color.BLUE;
+    private Paint gutterFill = Color.web("#ddd");
+
+    /** Width of each digit of {@link #font} */
+    private final double[] digitWidths = new double[10];
+    private double maxDigitWidth;
+    private double foldMarkerWidth;
+
+    /** Paragraph, top, height and fold marker of each row that was painted */
+    private int[] paintedParagraphs = new int[0];
+    private double[] paintedTops = new double[0];
+    private double[] paintedHeights = new double[0];
+    private boolean[] paintedMarkers = new boolean[0];
+    private int paintedRows = 0;
+    private int paintedDigits = -1;
+
+    private boolean dirty = false;
+    private boolean fullRepaint = true;
+
+    private final Runnable paintAfterLayout = () -> {
+        if (dirty) {
+            paint();
+        }
+    };
+
+    public LineNumberGutter(GenericStyledArea<?, ?, ?> area) {
+        this.area = area;
+        getStyleClass().add("line-number-gutter");
+        getChildren().add(canvas);
+        measureDigits();
+
+        subscription = merge(
+                area.viewportDirtyEvents(),
+                area.getParagraphs().changes(),
+                area.foldChanges()
+        ).subscribe(any -> markDirty(false));
+
+        widthProperty().addListener((obs, ov, nv) -> markDirty(true));
+        heightProperty().addListener((obs, ov, nv) -> markDirty(true));
+        sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (oldScene != null) {
+                oldScene.removePostLayoutPulseListener(paintAfterLayout);
+            }
+            if (newScene != null) {
+                newScene.addPostLayoutPulseListener(paintAfterLayout);
+                markDirty(true);
+            }
+        });
+        canvas.addEventHandler(MouseEvent.MOUSE_CLICKED, this::expandClickedFold);
+    }
+
+    public Font getFont() { return font; }
+    public void setFont(Font font) {
+        this.font = font;
+        this.foldFont = Font.font(font.getFamily(), FontWeight.BOLD, font.getSize());
+        measureDigits();
+        requestLayout();
+        markDirty(true);
+    }
+
+    public Paint getTextFill() { return textFill; }
+    public void setTextFill(Paint textFill) {
+        this.textFill = textFill;
+        markDirty(true);
+    }
+
+    public Paint getGutterFill() { return gutterFill; }
+    public void setGutterFill(Paint gutterFill) {
+        this.gutterFill = gutterFill;
+        markDirty(true);
+    }
+
+    /**
+     * Stops following the area. The gutter is not painted anymore.
+     */
+    public void dispose() {
+        subscription.unsubscribe();
+        Scene scene = getScene();
+        if (scene != null) {
+            scene.removePostLayoutPulseListener(paintAfterLayout);
+        }
+    }
+
+    /**
+     * Returns the paragraphs whose line numbers were painted in the last paint, from top to bottom.
+     */
+    int[] getPaintedParagraphs() {
+        int count = 0;
+        int[] paragraphs = new int[paintedRows];
+        for (int i = 0; i < paintedRows; i++) {
+            if (paintedHeights[i] > 0) {
+                paragraphs[count++] = paintedParagraphs[i];
+            }
+        }
+        return Arrays.copyOf(paragraphs, count);
+    }
+
+    /**
+     * Returns whether a fold marker was painted beside the given paragraph in the last paint.
+     */
+    boolean isFoldMarkerPainted(int paragraph) {
+        for (int i = 0; i < paintedRows; i++) {
+            if (paintedParagraphs[i] == paragraph) {
+                return paintedMarkers[i] && paintedHeights[i] > 0;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected double computePrefWidth(double height) {
+        return snappedLeftInset() + gutterWidth(digits(area.getParagraphs().size())) + snappedRightInset();
+    }
+
+    @Override
+    protected void layoutChildren() {
+        canvas.relocate(snappedLeftInset(), snappedTopInset());
+        canvas.setWidth(snapSizeX(getWidth() - snappedLeftInset() - snappedRightInset()));
+        canvas.setHeight(snapSizeY(getHeight() - snappedTopInset() - snappedBottomInset()));
+    }
+
+    private void markDirty(boolean full) {
+        fullRepaint |= full;
+        if (!dirty) {
+            dirty = true;
+            Platform.requestNextPulse();
+        }
+    }
+
+    private void measureDigits() {
+        Text text = new Text();
+        text.setFont(font);
+        maxDigitWidth = 0;
+        for (int d = 0; d < 10; d++) {
+            text.setText(String.valueOf(d));
+            digitWidths[d] = text.getLayoutBounds().getWidth();
+            maxDigitWidth = Math.max(maxDigitWidth, digitWidths[d]);
+        }
+        text.setText("+");
+        text.setFont(foldFont);
+        foldMarkerWidth = text.getLayoutBounds().getWidth();
+    }
+
+    private static int digits(int number) {
+        int digits = 1;
+        while (number >= 10) {
+            number /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private double gutterWidth(int digits) {
+        return PADDING + digits * maxDigitWidth + PADDING + foldMarkerWidth + PADDING;
+    }
+
+    private boolean hasFoldMarker(int paragraph) {
+        return paragraph + 1 < area.getParagraphs().size()
+                && area.isParagraphCollapsed(paragraph + 1)
+                && !area.isParagraphCollapsed(paragraph);
+    }
+
+    private void paint() {
+        dirty = false;
+        int digits = digits(area.getParagraphs().size());
+        if (digits != paintedDigits) {
+            // the gutter's width changes
+            paintedDigits = digits;
+            fullRepaint = true;
+            requestLayout();
+        }
+
+        int rows = area.getVisibleParagraphs().size();
+        int[] paragraphs = new int[rows];
+        double[] tops = new double[rows];
+        double[] heights = new double[rows];
+        boolean[] markers = new boolean[rows];
+        for (int i = 0; i < rows; i++) {
+            paragraphs[i] = area.visibleParToAllParIndex(i);
+            Bounds bounds = canvas.sceneToLocal(area.getVisibleParagraphBoundsInScene(i));
+            tops[i] = bounds.getMinY();
+            heights[i] = area.isVisibleParagraphFolded(i) ? 0 : bounds.getHeight();
+            markers[i] = hasFoldMarker(paragraphs[i]);
+        }
+
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double width = canvas.getWidth();
+        gc.setFill(gutterFill);
+        if (fullRepaint) {
+            gc.fillRect(0, 0, width, canvas.getHeight());
+        } else {
+            // clear the rows that changed where they were and where they are now, and only paint those
+            for (int i = 0; i < Math.max(rows, paintedRows); i++) {
+                if (i < rows && i < paintedRows && paragraphs[i] == paintedParagraphs[i] && tops[i] == paintedTops[i]
+                        && heights[i] == paintedHeights[i] && markers[i] == paintedMarkers[i]) {
+                    continue;
+                }
+                if (i < paintedRows) {
+                    gc.fillRect(0, paintedTops[i], width, paintedHeights[i]);
+                }
+                if (i < rows) {
+                    gc.fillRect(0, tops[i], width, heights[i]);
+                }
+            }
+        }
+
+        gc.setTextBaseline(VPos.TOP);
+        double numberRight = PADDING + paintedDigits * maxDigitWidth;
+        for (int i = 0; i < rows; i++) {
+            boolean damaged = fullRepaint || i >= paintedRows || paragraphs[i] != paintedParagraphs[i]
+                    || tops[i] != paintedTops[i] || heights[i] != paintedHeights[i] || markers[i] != paintedMarkers[i];
+            if (!damaged || heights[i] == 0) {
+                continue;
+            }
+            String number = Integer.toString(paragraphs[i] + 1);
+            double numberWidth = 0;
+            for (int c = 0; c < number.length(); c++) {
+                numberWidth += digitWidths[number.charAt(c) - '0'];
+            }
+            gc.setFont(font);
+            gc.setFill(textFill);
+            gc.fillText(number, numberRight - numberWidth, tops[i]);
+            if (markers[i]) {
+                gc.setFont(foldFont);
+                gc.setFill(foldFill);
+                gc.fillText("+", numberRight + PADDING, tops[i]);
+            }
+        }
+
+        paintedParagraphs = paragraphs;
+        paintedTops = tops;
+        paintedHeights = heights;
+        paintedMarkers = markers;
+        paintedRows = rows;
+        fullRepaint = false;
+    }
+
+    private void expandClickedFold(MouseEvent e) {
+        if (e.getX() < PADDING + paintedDigits * maxDigitWidth) {
+            return;
+        }
+        for (int i = 0; i < paintedRows; i++) {
+            if (paintedMarkers[i] && paintedTops[i] <= e.getY() && e.getY() < paintedTops[i] + paintedHeights[i]) {
+                area.expandParagraphs(paintedParagraphs[i]);
+                e.consume();
+                return;
+            }
+        }
+    }
+}
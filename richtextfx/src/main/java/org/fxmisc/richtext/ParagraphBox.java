@@ -1,11 +1,10 @@
 package org.fxmisc.richtext;
 
-import static org.reactfx.util.Tuples.*;
-
-import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
-import java.util.OptionalInt;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.IntFunction;
 
@@ -28,10 +27,6 @@ import javafx.scene.text.TextFlow;
 
 import org.fxmisc.richtext.model.Paragraph;
 import org.fxmisc.richtext.model.StyledSegment;
-import org.fxmisc.richtext.event.MouseStationaryHelper;
-import org.reactfx.EventStream;
-import org.reactfx.util.Either;
-import org.reactfx.util.Tuple2;
 import org.reactfx.value.Val;
 import org.reactfx.value.Var;
 
@@ -53,6 +48,9 @@ class ParagraphBox<PS, SEG, S> extends Region {
      * type safety.
      */
     public static class CaretOffsetX {
+        /** The offset of a caret at the start of a line, e.g. of a caret that is not laid out */
+        static final CaretOffsetX LINE_START = new CaretOffsetX(0.0);
+
         private final double value;
 
         private CaretOffsetX(double value) {
@@ -81,11 +79,54 @@ class ParagraphBox<PS, SEG, S> extends Region {
     private final Val<Boolean> isFolded;
     public boolean isFolded() { return isFolded.getValue(); }
 
+    /** The decorations this paragraph is currently rendered with */
+    private List<DecorationLayer.Decoration<S>> decorations = Collections.emptyList();
+
+    /**
+     * Renders this paragraph with the given decorations painted over it. Does nothing if it is already rendered
+     * with them: the lists of a {@link DecorationLayer} are immutable, so the same list means the same decorations.
+     */
+    void setDecorations(List<DecorationLayer.Decoration<S>> decorations, BiFunction<S, S, S> styleCombiner) {
+        if (decorations == this.decorations) {
+            return;
+        }
+        renderDecorations(decorations, styleCombiner);
+    }
+
+    /**
+     * Renders this paragraph with the given decorations painted over it, even if it is already rendered with them,
+     * e.g. because their styles are now combined with a different function. Does nothing if this paragraph has no
+     * decorations before and after, as the function is then not used.
+     */
+    void renderDecorations(List<DecorationLayer.Decoration<S>> decorations, BiFunction<S, S, S> styleCombiner) {
+        if (decorations.isEmpty() && this.decorations.isEmpty()) {
+            return;
+        }
+        this.decorations = decorations;
+
+        Paragraph<PS, SEG, S> par = text.getParagraph();
+        Paragraph<PS, SEG, S> rendered = par;
+        for (DecorationLayer.Decoration<S> d : decorations) {
+            // the decorations may be briefly out of date while the paragraph is being replaced
+            int end = Math.min(d.getEnd(), par.length());
+            if (d.getStart() < end) {
+                rendered = rendered.restyle(d.getStart(), rendered.getStyleSpans(d.getStart(), end)
+                        .mapStyles(style -> styleCombiner.apply(style, d.getStyle())));
+            }
+        }
+        text.setRenderedParagraph(rendered);
+    }
+
     private final Var<Integer> index;
     public Val<Integer> indexProperty() { return index; }
     public void setIndex(int index) { this.index.setValue(index); }
     public int getIndex() { return index.getValue(); }
 
+    /** The index of this paragraph among those that are not collapsed, i.e. in the area's viewport */
+    private int expandedIndex = -1;
+    void setExpandedIndex(int index) { this.expandedIndex = index; }
+    int getExpandedIndex() { return expandedIndex; }
+
     public final ObservableSet<CaretNode> caretsProperty() { return text.caretsProperty(); }
 
     public final ObservableMap<Selection<PS, SEG, S>, SelectionPath> selectionsProperty() {
@@ -98,7 +139,7 @@ class ParagraphBox<PS, SEG, S> extends Region {
         this.text = new ParagraphText<>(par, nodeFactory);
         applyParagraphStyle.accept(this.text, par.getParagraphStyle());
         isFolded = Val.wrap( text.visibleProperty().not() );
-        
+
         // start at -1 so that the first time it is displayed, the caret at pos 0 is not
         // accidentally removed from its parent and moved to this node's ParagraphText
         // before this node gets updated to its real index and therefore removes
@@ -147,21 +188,6 @@ class ParagraphBox<PS, SEG, S> extends Region {
         }
     }
 
-    public EventStream<Either<Tuple2<Point2D, Integer>, Object>> stationaryIndices(Duration delay) {
-        EventStream<Either<Point2D, Void>> stationaryEvents = new MouseStationaryHelper(this).events(delay);
-        EventStream<Tuple2<Point2D, Integer>> hits = stationaryEvents.filterMap(Either::asLeft)
-                .filterMap(p -> {
-                    OptionalInt charIdx = hit(p).getCharacterIndex();
-                    if(charIdx.isPresent()) {
-                        return Optional.of(t(p, charIdx.getAsInt()));
-                    } else {
-                        return Optional.empty();
-                    }
-                });
-        EventStream<?> stops = stationaryEvents.filter(Either::isRight).map(Either::getRight);
-        return hits.or(stops);
-    }
-
     public CharacterHit hit(Point2D pos) {
         return hit(pos.getX(), pos.getY());
     }
@@ -1,10 +1,11 @@
 package org.fxmisc.richtext;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -72,10 +73,21 @@ class ParagraphText<PS, SEG, S> extends TextFlowExt {
 
     private Paragraph<PS, SEG, S> paragraph;
 
+    private final Function<StyledSegment<SEG, S>, Node> nodeFactory;
+
+    /** The nodes currently rendering the paragraph's segments */
+    private List<Node> segmentNodes = Collections.emptyList();
+
     private final CustomCssShapeHelper<Paint> backgroundShapeHelper;
     private final CustomCssShapeHelper<BorderAttributes> borderShapeHelper;
     private final CustomCssShapeHelper<UnderlineAttributes> underlineShapeHelper;
 
+    /**
+     * The layout of this paragraph when the custom CSS shapes were last computed: its size, text alignment and
+     * line spacing, followed by the bounds in parent of each segment node.
+     */
+    private double[] shapedLayout = null;
+
     // Note: order of children matters because later children cover up earlier children:
     // towards children's 0 index:
     //      background shapes
@@ -89,6 +101,7 @@ class ParagraphText<PS, SEG, S> extends TextFlowExt {
 
     ParagraphText(Paragraph<PS, SEG, S> par, Function<StyledSegment<SEG, S>, Node> nodeFactory) {
         this.paragraph = par;
+        this.nodeFactory = nodeFactory;
 
         getStyleClass().add("paragraph-text");
 
@@ -150,15 +163,8 @@ class ParagraphText<PS, SEG, S> extends TextFlowExt {
 //        });
 
         // populate with text nodes
-        par.getStyledSegments().stream().map(nodeFactory).forEach(n -> {
-            if (n instanceof TextExt) {
-                TextExt t = (TextExt) n;
-                // XXX: binding selectionFill to textFill,
-                // see the note at highlightTextFill
-                t.selectionFillProperty().bind(t.fillProperty());
-            }
-            getChildren().add(n);
-        });
+        segmentNodes = createSegmentNodes(par);
+        getChildren().addAll(segmentNodes);
 
         // set up custom css shape helpers
         UnaryOperator<Path> configurePath = shape -> {
@@ -183,7 +189,7 @@ class ParagraphText<PS, SEG, S> extends TextFlowExt {
                 (backgroundShape, tuple) -> {
                     backgroundShape.setStrokeWidth(0);
                     backgroundShape.setFill(tuple._1);
-                    backgroundShape.getElements().setAll(getRangeShape(tuple._2));
+                    backgroundShape.getElements().setAll(getRangesShape(tuple._2));
                 },
                 addToBackgroundAndIncrementSelectionIndex,
                 clearUnusedAndDecrementSelectionIndex
@@ -200,7 +206,7 @@ class ParagraphText<PS, SEG, S> extends TextFlowExt {
                     if (attributes.dashArray != null) {
                         borderShape.getStrokeDashArray().setAll(attributes.dashArray);
                     }
-                    borderShape.getElements().setAll(getRangeShape(tuple._2));
+                    borderShape.getElements().setAll(getRangesShape(tuple._2));
                 },
                 addToBackground,
                 clearUnusedShapes
@@ -215,8 +221,11 @@ class ParagraphText<PS, SEG, S> extends TextFlowExt {
                     if (attributes.dashArray != null) {
                         underlineShape.getStrokeDashArray().setAll(attributes.dashArray);
                     }
-                    PathElement[] shape = getUnderlineShape(tuple._2.getStart(), tuple._2.getEnd(),
-                                          attributes.offset, attributes.waveRadius, attributes.doubleGap);
+                    List<PathElement> shape = new ArrayList<>();
+                    for (IndexRange range : tuple._2) {
+                        Collections.addAll(shape, getUnderlineShape(range.getStart(), range.getEnd(),
+                                attributes.offset, attributes.waveRadius, attributes.doubleGap));
+                    }
                     underlineShape.getElements().setAll(shape);
                 },
                 addToForeground,
@@ -243,6 +252,35 @@ class ParagraphText<PS, SEG, S> extends TextFlowExt {
         return paragraph;
     }
 
+    /**
+     * Renders the given paragraph, which has the same text as this one's paragraph but different segment styles,
+     * in place of this one's paragraph. Only the segment nodes are rebuilt; the caret, selection and custom CSS
+     * shapes are kept and laid out again.
+     */
+    void setRenderedParagraph(Paragraph<PS, SEG, S> rendered) {
+        int index = getChildren().indexOf(segmentNodes.get(0));
+        segmentNodes.stream().filter( n -> n instanceof TextExt ).map( n -> (TextExt) n )
+                .forEach( t -> t.selectionFillProperty().unbind() );
+        getChildren().removeAll(segmentNodes);
+
+        segmentNodes = createSegmentNodes(rendered);
+        getChildren().addAll(index, segmentNodes);
+    }
+
+    private List<Node> createSegmentNodes(Paragraph<PS, SEG, S> par) {
+        List<Node> nodes = new ArrayList<>(par.getSegments().size());
+        par.getStyledSegments().stream().map(nodeFactory).forEach(n -> {
+            if (n instanceof TextExt) {
+                TextExt t = (TextExt) n;
+                // XXX: binding selectionFill to textFill,
+                // see the note at highlightTextFill
+                t.selectionFillProperty().bind(t.fillProperty());
+            }
+            nodes.add(n);
+        });
+        return nodes;
+    }
+
     public <T extends Node & Caret> double getCaretOffsetX(T caret) {
         layout(); // ensure layout, is a no-op if not dirty
         if ( isVisible() /* notFolded */ ) checkWithinParagraph(caret);
@@ -427,6 +465,18 @@ class ParagraphText<PS, SEG, S> extends TextFlowExt {
         return shape;
     }
 
+    /**
+     * Returns the shape of all the given ranges as a single list of path elements, e.g. for the single shape that
+     * paints all the ranges that have the same background color
+     */
+    private List<PathElement> getRangesShape(List<IndexRange> ranges) {
+        List<PathElement> shape = new ArrayList<>();
+        for (IndexRange range : ranges) {
+            Collections.addAll(shape, getRangeShape(range));
+        }
+        return shape;
+    }
+
     private PathElement[] createRectangle(double topLeftX, double topLeftY, double bottomRightX, double bottomRightY) {
         return new PathElement[] {
                 new MoveTo(topLeftX, topLeftY),
@@ -437,7 +487,44 @@ class ParagraphText<PS, SEG, S> extends TextFlowExt {
         };
     }
 
+    /**
+     * Records the current layout of this paragraph as the {@link #shapedLayout} and returns whether it differs from
+     * the previous one. Any change of the text's layout, e.g. through a font, padding or alignment set with CSS,
+     * moves or resizes at least one segment node, or changes the alignment or line spacing of the paragraph.
+     */
+    private boolean updateShapedLayout() {
+        List<Node> children = getManagedChildren();
+        int length = 4 + 4 * children.size();
+        boolean changed = shapedLayout == null || shapedLayout.length != length;
+        double[] layout = changed ? new double[length] : shapedLayout;
+        changed |= record(layout, 0, getWidth());
+        changed |= record(layout, 1, getHeight());
+        changed |= record(layout, 2, getTextAlignment().ordinal());
+        changed |= record(layout, 3, getLineSpacing());
+        int i = 4;
+        for (Node child : children) {
+            Bounds bounds = child.getBoundsInParent();
+            changed |= record(layout, i++, bounds.getMinX());
+            changed |= record(layout, i++, bounds.getMinY());
+            changed |= record(layout, i++, bounds.getMaxX());
+            changed |= record(layout, i++, bounds.getMaxY());
+        }
+        shapedLayout = layout;
+        return changed;
+    }
+
+    private static boolean record(double[] layout, int index, double value) {
+        if (layout[index] == value) {
+            return false;
+        }
+        layout[index] = value;
+        return true;
+    }
+
     private void updateBackgroundShapes() {
+        // the shapes of unchanged ranges only need to be computed again if the text may have been laid out differently
+        boolean layoutChanged = updateShapedLayout();
+
         int start = 0;
 
         // calculate shared values among consecutive nodes
@@ -471,9 +558,9 @@ class ParagraphText<PS, SEG, S> extends TextFlowExt {
             start = end;
         }
 
-        borderShapeHelper.updateSharedShapes();
-        backgroundShapeHelper.updateSharedShapes();
-        underlineShapeHelper.updateSharedShapes();
+        borderShapeHelper.updateSharedShapes(layoutChanged);
+        backgroundShapeHelper.updateSharedShapes(layoutChanged);
+        underlineShapeHelper.updateSharedShapes(layoutChanged);
     }
 
     @Override
@@ -483,23 +570,36 @@ class ParagraphText<PS, SEG, S> extends TextFlowExt {
 
     @Override
     protected void layoutChildren() {
+        Object event = ViewEvents.beginParagraphLayout();
         super.layoutChildren();
         updateAllCaretShapes();
         updateAllSelectionShapes();
         updateBackgroundShapes();
+        ViewEvents.commitParagraphLayout(event, paragraph, getWidth());
     }
 
+    /**
+     * Maintains the shapes of a custom CSS attribute (background color, border or underline) of a paragraph's
+     * {@link TextExt}s. All the ranges that have the same value of the attribute are painted by a single shape,
+     * so that a paragraph with many decorated ranges (e.g. search hits or diagnostics) does not have a node for each
+     * of them, and the shapes are only computed again when the ranges or the layout of the paragraph change.
+     */
     private static class CustomCssShapeHelper<T> {
 
-        private final List<Tuple2<T, IndexRange>> ranges = new LinkedList<>();
-        private final List<Path> shapes = new LinkedList<>();
+        /** The ranges of each value, in the order of the first range of each value */
+        private List<Tuple2<T, List<IndexRange>>> ranges = new ArrayList<>();
+        /** The ranges of {@link #ranges} that the {@link #shapes} were computed for */
+        private List<Tuple2<T, List<IndexRange>>> shapedRanges = Collections.emptyList();
+        private final List<Path> shapes = new ArrayList<>();
+
+        private Tuple2<T, List<IndexRange>> lastValueRanges = null;
 
         private final Supplier<Path> createShape;
-        private final BiConsumer<Path, Tuple2<T, IndexRange>> configureShape;
+        private final BiConsumer<Path, Tuple2<T, List<IndexRange>>> configureShape;
         private final Consumer<Path> addToChildren;
         private final Consumer<Collection<Path>> clearUnusedShapes;
 
-        CustomCssShapeHelper(Supplier<Path> createShape, BiConsumer<Path, Tuple2<T, IndexRange>> configureShape,
+        CustomCssShapeHelper(Supplier<Path> createShape, BiConsumer<Path, Tuple2<T, List<IndexRange>>> configureShape,
                              Consumer<Path> addToChildren, Consumer<Collection<Path>> clearUnusedShapes) {
             this.createShape = createShape;
             this.configureShape = configureShape;
@@ -509,39 +609,50 @@ class ParagraphText<PS, SEG, S> extends TextFlowExt {
 
         /**
          * Calculates the range of a value (background color, underline, etc.) that is shared between multiple
-         * consecutive {@link TextExt} nodes
+         * consecutive {@link TextExt} nodes, and adds it to the ranges of that value
          */
         private void updateSharedShapeRange(T value, int start, int end, BiFunction<T, T, Boolean> equals) {
-            Runnable addNewValueRange = () -> ranges.add(Tuples.t(value, new IndexRange(start, end)));
-
-            if (ranges.isEmpty()) {
-                addNewValueRange.run();
-            } else {
-                int lastIndex = ranges.size() - 1;
-                Tuple2<T, IndexRange> lastShapeValueRange = ranges.get(lastIndex);
-                T lastShapeValue = lastShapeValueRange._1;
-
-                // calculate smallest possible position which is consecutive to the given start position
-                final int prevEndNext = lastShapeValueRange.get2().getEnd();
-                if (start == prevEndNext &&                // Consecutive?
-                    equals.apply(lastShapeValue, value)) { // Same style?
-
-                    IndexRange lastRange = lastShapeValueRange._2;
-                    IndexRange extendedRange = new IndexRange(lastRange.getStart(), end);
-                    ranges.set(lastIndex, Tuples.t(lastShapeValue, extendedRange));
+            if (lastValueRanges != null && equals.apply(lastValueRanges._1, value)) {
+                List<IndexRange> valueRanges = lastValueRanges._2;
+                int lastIndex = valueRanges.size() - 1;
+                IndexRange lastRange = valueRanges.get(lastIndex);
+                if (start == lastRange.getEnd()) { // Consecutive?
+                    valueRanges.set(lastIndex, new IndexRange(lastRange.getStart(), end));
                 } else {
-                    addNewValueRange.run();
+                    valueRanges.add(new IndexRange(start, end));
                 }
+                return;
             }
+
+            for (Tuple2<T, List<IndexRange>> valueRanges : ranges) {
+                if (equals.apply(valueRanges._1, value)) {
+                    valueRanges._2.add(new IndexRange(start, end));
+                    lastValueRanges = valueRanges;
+                    return;
+                }
+            }
+            List<IndexRange> valueRanges = new ArrayList<>();
+            valueRanges.add(new IndexRange(start, end));
+            lastValueRanges = Tuples.t(value, valueRanges);
+            ranges.add(lastValueRanges);
         }
 
         /**
          * Updates the shapes calculated in {@link #updateSharedShapeRange(Object, int, int, BiFunction)} and
-         * configures them via {@code configureShape}.
+         * configures them via {@code configureShape}, unless the ranges are the same as the last time and
+         * the layout of the paragraph did not change.
          */
-        private void updateSharedShapes() {
+        private void updateSharedShapes(boolean layoutChanged) {
+            List<Tuple2<T, List<IndexRange>>> newRanges = ranges;
+            ranges = new ArrayList<>(newRanges.size());
+            lastValueRanges = null;
+            if (!layoutChanged && newRanges.equals(shapedRanges)) {
+                return;
+            }
+            shapedRanges = newRanges;
+
             // remove or add shapes, depending on what's needed
-            int neededNumber = ranges.size();
+            int neededNumber = newRanges.size();
             int availableNumber = shapes.size();
 
             if (neededNumber < availableNumber) {
@@ -558,12 +669,9 @@ class ParagraphText<PS, SEG, S> extends TextFlowExt {
             }
 
             // update the shape's color and elements
-            for (int i = 0; i < ranges.size(); i++) {
-                configureShape.accept(shapes.get(i), ranges.get(i));
+            for (int i = 0; i < newRanges.size(); i++) {
+                configureShape.accept(shapes.get(i), newRanges.get(i));
             }
-
-            // clear, since it's no longer needed
-            ranges.clear();
         }
     }
 
@@ -572,7 +680,7 @@ class ParagraphText<PS, SEG, S> extends TextFlowExt {
         final StrokeType type;
 
         BorderAttributes(TextExt text) {
-            super(text.getBorderStrokeColor(), text.getBorderStrokeWidth(), text.borderStrokeDashArrayProperty());
+            super(text.getBorderStrokeColor(), text.getBorderStrokeWidth(), text::borderStrokeDashArrayProperty);
             type = text.getBorderStrokeType();
         }
 
@@ -607,7 +715,7 @@ class ParagraphText<PS, SEG, S> extends TextFlowExt {
         final double doubleGap;
 
         UnderlineAttributes(TextExt text) {
-            super(text.getUnderlineColor(), text.getUnderlineWidth(), text.underlineDashArrayProperty());
+            super(text.getUnderlineColor(), text.getUnderlineWidth(), text::underlineDashArrayProperty);
             cap = text.getUnderlineCap();
 
             Number waveNumber = text.getUnderlineWaveRadius();
@@ -662,9 +770,10 @@ class ParagraphText<PS, SEG, S> extends TextFlowExt {
         /**
          * Java Quirk! Using {@code t.get[border/underline]DashArray()} throws a ClassCastException
          * "Double cannot be cast to Number". However, using {@code t.getDashArrayProperty().get()}
-         * works without issue
+         * works without issue. The property is supplied rather than passed, so that it is not created
+         * for a node that has neither a border nor an underline (see {@link TextExt}).
          */
-        LineAttributesBase(Paint color, Number width, ObjectProperty<Number[]> dashArrayProp) {
+        LineAttributesBase(Paint color, Number width, Supplier<ObjectProperty<Number[]>> dashArrayProp) {
             this.color = color;
             if (color == null || width == null || width.doubleValue() <= 0) {
                 // null value
@@ -677,7 +786,7 @@ class ParagraphText<PS, SEG, S> extends TextFlowExt {
                 // get the dash array - JavaFX CSS parser seems to return either a Number[] array
                 // or a single value, depending on whether only one or more than one value has been
                 // specified in the CSS
-                Object dashArrayProperty = dashArrayProp.get();
+                Object dashArrayProperty = dashArrayProp.get().get();
                 if (dashArrayProperty != null) {
                     if (dashArrayProperty.getClass().isArray()) {
                         Number[] numberArray = (Number[]) dashArrayProperty;
@@ -0,0 +1,64 @@
+package org.fxmisc.richtext;
+
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+
+import org.reactfx.EventStream;
+import org.reactfx.EventStreamBase;
+import org.reactfx.Subscription;
+
+/**
+ * Emits at most one event per pulse of a node's scene: the events of the input stream are merged into a single
+ * event, which is emitted once the scene has been laid out in the next pulse. A value that depends on the layout and
+ * is invalidated by this stream is therefore computed at most once per frame, and with the final layout.
+ * While the node is not in a scene, events are emitted immediately.
+ */
+final class PulseCoalescedStream extends EventStreamBase<Void> {
+
+    private final Node node;
+    private final EventStream<?> input;
+
+    private boolean pending = false;
+
+    private final Runnable afterLayout = () -> {
+        if (pending) {
+            pending = false;
+            emit(null);
+        }
+    };
+
+    private final ChangeListener<Scene> sceneListener = (obs, oldScene, newScene) -> {
+        if (oldScene != null) {
+            oldScene.removePostLayoutPulseListener(afterLayout);
+        }
+        if (newScene != null) {
+            newScene.addPostLayoutPulseListener(afterLayout);
+        }
+    };
+
+    PulseCoalescedStream(Node node, EventStream<?> input) {
+        this.node = node;
+        this.input = input;
+    }
+
+    @Override
+    protected Subscription observeInputs() {
+        node.sceneProperty().addListener(sceneListener);
+        sceneListener.changed(node.sceneProperty(), null, node.getScene());
+        Subscription inputs = input.subscribe(any -> {
+            if (node.getScene() == null) {
+                emit(null);
+            } else if (!pending) {
+                pending = true;
+                Platform.requestNextPulse();
+            }
+        });
+        return inputs.and(() -> {
+            node.sceneProperty().removeListener(sceneListener);
+            sceneListener.changed(node.sceneProperty(), node.getScene(), null);
+            pending = false;
+        });
+    }
+}
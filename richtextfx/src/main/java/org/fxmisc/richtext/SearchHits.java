@@ -0,0 +1,158 @@
+package org.fxmisc.richtext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.reactfx.util.BiIndex;
+import org.reactfx.util.FingerTree;
+import org.reactfx.util.FingerTree.NonEmptyFingerTree;
+import org.reactfx.util.ToSemigroup;
+
+/**
+ * The sorted index of the hits found by a {@link DocumentSearch}, stored as one leaf per paragraph in a
+ * {@link FingerTree} whose summary counts the paragraphs and the hits. A leaf holds the start and end columns of the
+ * hits found in its paragraph, in ascending order ({@code [start0, end0, start1, end1, ...]}).
+ *
+ * <p>Replacing the hits of a range of paragraphs, finding the n-th hit and counting the hits that precede a
+ * position all take O(log n) time, where n is the number of paragraphs.</p>
+ */
+final class SearchHits {
+
+    static final int[] NO_HITS = new int[0];
+
+    private static final class Summary {
+        private final int paragraphCount;
+        private final int hitCount;
+
+        Summary(int paragraphCount, int hitCount) {
+            this.paragraphCount = paragraphCount;
+            this.hitCount = hitCount;
+        }
+    }
+
+    private static final ToSemigroup<int[], Summary> SUMMARY_PROVIDER = new ToSemigroup<int[], Summary>() {
+
+        @Override
+        public Summary apply(int[] bounds) {
+            return new Summary(1, bounds.length / 2);
+        }
+
+        @Override
+        public Summary reduce(Summary left, Summary right) {
+            return new Summary(
+                    left.paragraphCount + right.paragraphCount,
+                    left.hitCount + right.hitCount);
+        }
+    };
+
+    private FingerTree<int[], Summary> tree;
+
+    /**
+     * Creates an index of the given number of paragraphs without any hits.
+     */
+    SearchHits(int paragraphCount) {
+        tree = FingerTree.mkTree(Collections.nCopies(paragraphCount, NO_HITS), SUMMARY_PROVIDER);
+    }
+
+    int getParagraphCount() {
+        return summaryOf(tree).paragraphCount;
+    }
+
+    int getHitCount() {
+        return summaryOf(tree).hitCount;
+    }
+
+    /**
+     * Returns the hit columns of the given paragraph, as {@code [start0, end0, start1, end1, ...]}.
+     * The returned array must not be modified.
+     */
+    int[] getParagraphHits(int paragraph) {
+        checkIndex(paragraph);
+        return nonEmpty(tree).getLeaf(paragraph);
+    }
+
+    /**
+     * Sets the hit columns of the given paragraph.
+     */
+    void setParagraphHits(int paragraph, int[] bounds) {
+        checkIndex(paragraph);
+        tree = nonEmpty(tree).updateLeaf(paragraph, bounds);
+    }
+
+    /**
+     * Replaces the hits of the {@code removedCount} paragraphs at {@code from} by those of the given paragraphs.
+     */
+    void replace(int from, int removedCount, List<int[]> added) {
+        if (removedCount == 0 && added.isEmpty()) {
+            return;
+        }
+        FingerTree<int[], Summary> left = tree.split(from)._1;
+        FingerTree<int[], Summary> right = tree.split(from + removedCount)._2;
+        tree = left.join(FingerTree.mkTree(added, SUMMARY_PROVIDER)).join(right);
+    }
+
+    /**
+     * Returns the paragraph of the {@code hitIndex}-th hit ({@code major}) and the index of that hit among the
+     * hits of its paragraph ({@code minor}).
+     */
+    BiIndex locateHit(int hitIndex) {
+        if (hitIndex < 0 || hitIndex >= getHitCount()) {
+            throw new IndexOutOfBoundsException("Hit " + hitIndex + " is out of bounds [0, " + getHitCount() + ")");
+        }
+        // paragraphs without hits have a zero length in this metric, so they are skipped
+        return nonEmpty(tree).locateProgressively(s -> s.hitCount, hitIndex);
+    }
+
+    /**
+     * Returns the number of hits that start before the given column of the given paragraph.
+     */
+    int countHitsBefore(int paragraph, int column) {
+        checkIndex(paragraph);
+        NonEmptyFingerTree<int[], Summary> ne = nonEmpty(tree);
+        int before = ne.getSummaryBetween(0, paragraph).map(s -> s.hitCount).orElse(0);
+        int[] bounds = ne.getLeaf(paragraph);
+        int lo = 0;
+        int hi = bounds.length / 2;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (bounds[2 * mid] < column) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return before + lo;
+    }
+
+    /**
+     * Returns the paragraphs that have at least one hit, in ascending order.
+     */
+    List<Integer> getParagraphsWithHits() {
+        List<Integer> result = new ArrayList<>();
+        int hitCount = getHitCount();
+        int hitIndex = 0;
+        while (hitIndex < hitCount) {
+            int paragraph = locateHit(hitIndex).major;
+            result.add(paragraph);
+            hitIndex += getParagraphHits(paragraph).length / 2;
+        }
+        return result;
+    }
+
+    private void checkIndex(int paragraph) {
+        if (paragraph < 0 || paragraph >= getParagraphCount()) {
+            throw new IndexOutOfBoundsException("Paragraph " + paragraph + " is out of bounds [0, " + getParagraphCount() + ")");
+        }
+    }
+
+    private static NonEmptyFingerTree<int[], Summary> nonEmpty(FingerTree<int[], Summary> tree) {
+        return tree.caseEmpty().unify(
+                emptyTree -> { throw new AssertionError("Unreachable code"); },
+                neTree -> neTree);
+    }
+
+    private static Summary summaryOf(FingerTree<int[], Summary> tree) {
+        return tree.getSummaryBetween(0, tree.getLeafCount()).orElse(new Summary(0, 0));
+    }
+}
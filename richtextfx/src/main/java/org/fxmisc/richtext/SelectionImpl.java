@@ -114,6 +114,8 @@ public class SelectionImpl<PS, SEG, S> implements Selection<PS, SEG, S>, Compara
 
     private Subscription subscription = () -> {};
 
+    private boolean rebasedByArea = false;
+
     /**
      * Creates a selection with both the start and end position at 0.
      * @param name must be unique and is also used as a StyleClass for
@@ -218,7 +220,7 @@ public class SelectionImpl<PS, SEG, S> implements Selection<PS, SEG, S>, Compara
 
         bounds = Val.create(
                 () -> area.getSelectionBoundsOnScreen(this),
-                EventStreams.merge(area.viewportDirtyEvents(), dirty)
+                area.boundsInvalidations(EventStreams.merge(area.viewportDirtyEvents(), dirty))
         ).suspendable();
 
         manageSubscription(area.multiPlainChanges(), this::handleChange);
@@ -238,6 +240,28 @@ public class SelectionImpl<PS, SEG, S> implements Selection<PS, SEG, S>, Compara
     }
 
     private void handleChange(List<PlainTextChange> list) {
+        if (rebasedByArea) {
+            // the area's SelectionRegistry rebases all of the area's selections at once
+            return;
+        }
+
+        Object event = ViewEvents.beginRebase();
+        rebase(list);
+        ViewEvents.commitRebase(event, "selection", area.getLength(), list.size());
+    }
+
+    /**
+     * Sets whether this selection is moved by the {@link SelectionRegistry} of its area, while it is added to it,
+     * rather than by itself.
+     */
+    void setRebasedByArea(boolean rebasedByArea) {
+        this.rebasedByArea = rebasedByArea;
+    }
+
+    /**
+     * Moves this selection to account for the given changes of the area's document.
+     */
+    void rebase(List<PlainTextChange> list) {
         SelectionChange.Range newSelection = new SelectionChange().apply(list, getStartPosition(), getEndPosition());
         selectRange(newSelection.start(), newSelection.end());
     }
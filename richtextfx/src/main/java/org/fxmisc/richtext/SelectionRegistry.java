@@ -0,0 +1,214 @@
+package org.fxmisc.richtext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javafx.scene.control.IndexRange;
+
+import org.fxmisc.richtext.model.PlainTextChange;
+import org.reactfx.EventStreams;
+import org.reactfx.Subscription;
+import org.reactfx.value.Val;
+
+import static org.fxmisc.richtext.model.TwoDimensional.Bias.Forward;
+
+/**
+ * Keeps track of which paragraphs are spanned by each {@link Selection} of a {@link GenericStyledArea}, so that
+ * a {@link ParagraphBox} only has to look at the selections that overlap its paragraph, and so that a selection
+ * change only updates the cells whose paragraph it enters or leaves.
+ *
+ * <p>Selections are stored in an {@link IntervalIndex} keyed by their start and end paragraph indexes. While the
+ * area is being updated (e.g. a change is propagated and all selections are rebased), affected paragraphs and
+ * cells are only recorded; the cells are then refreshed once the update is done.</p>
+ *
+ * <p>The registry also rebases the {@link SelectionImpl}s added to the area: it handles each change of the document
+ * once for all of them, and only moves the selections that end at or after the paragraph of the change, which it
+ * finds through the index. A {@link SelectionImpl} that is not added to an area moves itself instead.</p>
+ *
+ * @param <PS> paragraph style type
+ * @param <SEG> segment type
+ * @param <S> segment style type
+ */
+final class SelectionRegistry<PS, SEG, S> {
+
+    private final GenericStyledArea<PS, SEG, S> area;
+    private final Collection<ParagraphBox<PS, SEG, S>> cells;
+    private final IntervalIndex<Selection<PS, SEG, S>> index = new IntervalIndex<>();
+    private final Set<SelectionImpl<PS, SEG, S>> rebased = new HashSet<>();
+    private final Subscription flushOnUpdateEnd;
+    private final Subscription rebaseOnChanges;
+
+    private final Set<ParagraphBox<PS, SEG, S>> dirtyCells = new HashSet<>();
+    private int dirtyFrom = Integer.MAX_VALUE;
+    private int dirtyTo = -1;
+
+    /**
+     * @param area the area whose selections are tracked
+     * @param cells the cells currently used by the area's viewport
+     */
+    SelectionRegistry(GenericStyledArea<PS, SEG, S> area, Collection<ParagraphBox<PS, SEG, S>> cells) {
+        this.area = area;
+        this.cells = cells;
+        this.flushOnUpdateEnd = EventStreams.valuesOf(area.beingUpdatedProperty())
+                .filter(updating -> !updating)
+                .subscribe(ignore -> flush());
+        this.rebaseOnChanges = area.multiPlainChanges().subscribe(this::rebase);
+    }
+
+    /**
+     * Starts tracking the given selection. Meant to be used with
+     * {@link org.fxmisc.richtext.util.SubscribeableContentsObsSet#addSubscriber(java.util.function.Function)},
+     * so that the returned subscription stops tracking it when it is removed from the area.
+     */
+    Subscription register(Selection<PS, SEG, S> selection) {
+        Subscription paragraphs = EventStreams.combine(
+                EventStreams.nonNullValuesOf(selection.startParagraphIndexProperty()),
+                EventStreams.nonNullValuesOf(selection.endParagraphIndexProperty())
+        ).subscribe(t -> t.exec((start, end) -> moved(selection, start, end)));
+
+        Subscription rebasing = Subscription.EMPTY;
+        if (selection instanceof SelectionImpl) {
+            SelectionImpl<PS, SEG, S> impl = (SelectionImpl<PS, SEG, S>) selection;
+            rebased.add(impl);
+            impl.setRebasedByArea(true);
+            rebasing = () -> {
+                rebased.remove(impl);
+                impl.setRebasedByArea(false);
+            };
+        }
+
+        return paragraphs.and(rebasing).and(() -> {
+            if (index.contains(selection)) {
+                markDirty(index.getStart(selection), index.getEnd(selection));
+                index.remove(selection);
+                refresh();
+            }
+        });
+    }
+
+    /**
+     * Called when the given cell got a new paragraph index.
+     */
+    void cellIndexChanged(ParagraphBox<PS, SEG, S> box) {
+        if (area.isBeingUpdated()) {
+            dirtyCells.add(box);
+        } else {
+            sync(box);
+        }
+    }
+
+    void dispose() {
+        flushOnUpdateEnd.unsubscribe();
+        rebaseOnChanges.unsubscribe();
+        rebased.forEach(selection -> selection.setRebasedByArea(false));
+        rebased.clear();
+        index.clear();
+        dirtyCells.clear();
+    }
+
+    /**
+     * Moves the selections for the given changes of the document. The text before the first change is the same
+     * before and after all the changes, so the selections that end in an earlier paragraph keep their position.
+     */
+    private void rebase(List<PlainTextChange> changes) {
+        if (rebased.isEmpty() || changes.isEmpty()) {
+            return;
+        }
+
+        Object event = ViewEvents.beginRebase();
+        int firstChange = Integer.MAX_VALUE;
+        for (PlainTextChange change : changes) {
+            firstChange = Math.min(firstChange, change.getPosition());
+        }
+        int firstParagraph = area.offsetToPosition(firstChange, Forward).getMajor();
+
+        // moving a selection updates the index, so the affected selections are collected first
+        for (Selection<PS, SEG, S> selection : index.getOverlapping(firstParagraph, Integer.MAX_VALUE)) {
+            if (rebased.contains(selection)) {
+                ((SelectionImpl<PS, SEG, S>) selection).rebase(changes);
+            }
+        }
+        ViewEvents.commitRebase(event, "selections", area.getLength(), changes.size());
+    }
+
+    private void moved(Selection<PS, SEG, S> selection, int startPar, int endPar) {
+        // a selection's indexes may be momentarily swapped while it is being rebased
+        int start = Math.min(startPar, endPar);
+        int end = Math.max(startPar, endPar);
+        if (index.contains(selection)) {
+            int oldStart = index.getStart(selection);
+            int oldEnd = index.getEnd(selection);
+            if (oldStart == start && oldEnd == end) {
+                return;
+            }
+            markDirty(oldStart, oldEnd);
+        }
+        index.put(selection, start, end);
+        markDirty(start, end);
+        refresh();
+    }
+
+    private void markDirty(int from, int to) {
+        dirtyFrom = Math.min(dirtyFrom, from);
+        dirtyTo = Math.max(dirtyTo, to);
+    }
+
+    private void refresh() {
+        if (!area.isBeingUpdated()) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (dirtyFrom <= dirtyTo) {
+            for (ParagraphBox<PS, SEG, S> box : cells) {
+                int idx = box.getIndex();
+                if (dirtyFrom <= idx && idx <= dirtyTo) {
+                    dirtyCells.add(box);
+                }
+            }
+            dirtyFrom = Integer.MAX_VALUE;
+            dirtyTo = -1;
+        }
+
+        if (!dirtyCells.isEmpty()) {
+            List<ParagraphBox<PS, SEG, S>> boxes = new ArrayList<>(dirtyCells);
+            dirtyCells.clear();
+            boxes.forEach(this::sync);
+        }
+    }
+
+    /**
+     * Makes the selection paths of the given cell match the selections that span its paragraph.
+     */
+    private void sync(ParagraphBox<PS, SEG, S> box) {
+        int boxIndex = box.getIndex();
+        if (boxIndex == -1) {
+            return;
+        }
+
+        Set<Selection<PS, SEG, S>> overlapping = new HashSet<>(index.getOverlapping(boxIndex, boxIndex));
+        box.selectionsProperty().keySet().retainAll(overlapping);
+        for (Selection<PS, SEG, S> selection : overlapping) {
+            if (!box.selectionsProperty().containsKey(selection)) {
+                box.selectionsProperty().put(selection, createPath(box, selection));
+            }
+        }
+    }
+
+    private SelectionPath createPath(ParagraphBox<PS, SEG, S> box, Selection<PS, SEG, S> selection) {
+        Val<IndexRange> range = Val.create(
+                () -> box.getIndex() != -1
+                        ? area.getParagraphSelection(selection, box.getIndex())
+                        : GenericStyledArea.EMPTY_RANGE,
+                selection.rangeProperty()
+        );
+        SelectionPath path = new SelectionPath(range);
+        path.getStyleClass().add( selection.getSelectionName() );
+        selection.configureSelectionPath(path);
+        return path;
+    }
+}
@@ -9,6 +9,7 @@ import java.util.function.UnaryOperator;
 import javafx.beans.NamedArg;
 import org.fxmisc.richtext.model.Codec;
 import org.fxmisc.richtext.model.EditableStyledDocument;
+import org.fxmisc.richtext.model.SegmentOps;
 import org.fxmisc.richtext.model.SimpleEditableStyledDocument;
 
 /**
@@ -18,17 +19,33 @@ public class StyleClassedTextArea extends StyledTextArea<Collection<String>, Col
 
     public StyleClassedTextArea(@NamedArg("document") EditableStyledDocument<Collection<String>, String, Collection<String>> document,
                                 @NamedArg("preserveStyle") boolean preserveStyle) {
+        this(document, preserveStyle, false);
+    }
+
+    /**
+     * Creates an area that is a read-only viewer of the given document if {@code viewer} is true, see
+     * {@link StyleClassedTextViewer}.
+     */
+    protected StyleClassedTextArea(EditableStyledDocument<Collection<String>, String, Collection<String>> document,
+                                   boolean preserveStyle, boolean viewer) {
         super(Collections.<String>emptyList(),
                 (paragraph, styleClasses) -> paragraph.getStyleClass().addAll(styleClasses),
                 Collections.<String>emptyList(),
                 (text, styleClasses) -> text.getStyleClass().addAll(styleClasses),
-                document, preserveStyle
+                document, SegmentOps.styledTextOps(), preserveStyle, viewer
         );
 
         setStyleCodecs(
                 Codec.collectionCodec(Codec.STRING_CODEC),
                 Codec.styledTextCodec(Codec.collectionCodec(Codec.STRING_CODEC))
         );
+
+        // decorations add their style classes to those of the text
+        setDecorationStyleCombiner((styleClasses, decorationClasses) -> {
+            Collection<String> combined = new ArrayList<>(styleClasses);
+            combined.addAll(decorationClasses);
+            return combined;
+        });
     }
     public StyleClassedTextArea(@NamedArg("preserveStyle") boolean preserveStyle) {
         this(
@@ -0,0 +1,27 @@
+package org.fxmisc.richtext;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import javafx.beans.NamedArg;
+import org.fxmisc.richtext.model.EditableStyledDocument;
+import org.fxmisc.richtext.model.SimpleEditableStyledDocument;
+
+/**
+ * A {@link StyleClassedTextArea} that only displays its document: it has no editing behavior, input method
+ * handling, undo manager or visible caret (see {@link GenericStyledArea#isViewer()}), which makes it cheaper to
+ * create, e.g. when a window shows many read-only texts. Its document can still be changed programmatically.
+ */
+public class StyleClassedTextViewer extends StyleClassedTextArea {
+
+    public StyleClassedTextViewer(@NamedArg("document") EditableStyledDocument<Collection<String>, String, Collection<String>> document) {
+        super(document, false, true);
+    }
+
+    /**
+     * Creates a viewer with empty text content.
+     */
+    public StyleClassedTextViewer() {
+        this(new SimpleEditableStyledDocument<>(Collections.<String>emptyList(), Collections.<String>emptyList()));
+    }
+}
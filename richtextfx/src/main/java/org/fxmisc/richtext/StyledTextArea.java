@@ -30,9 +30,25 @@ public class StyledTextArea<PS, S> extends GenericStyledArea<PS, String, S> {
                           @NamedArg("document")              EditableStyledDocument<PS, String, S> document,
                           @NamedArg("segmentOps")            TextOps<String, S> segmentOps,
                           @NamedArg("preserveStyle")         boolean preserveStyle) {
+        this(initialParagraphStyle, applyParagraphStyle, initialTextStyle, applyStyle, document, segmentOps,
+                preserveStyle, false);
+    }
+
+    /**
+     * Creates an area that is a read-only viewer of its document if {@code viewer} is true, see
+     * {@link GenericStyledArea#isViewer()}.
+     */
+    protected StyledTextArea(PS initialParagraphStyle,
+                             BiConsumer<TextFlow, PS> applyParagraphStyle,
+                             S initialTextStyle,
+                             BiConsumer<? super TextExt, S> applyStyle,
+                             EditableStyledDocument<PS, String, S> document,
+                             TextOps<String, S> segmentOps,
+                             boolean preserveStyle,
+                             boolean viewer) {
         super(initialParagraphStyle, applyParagraphStyle,
                 initialTextStyle, document, segmentOps, preserveStyle,
-                seg -> createStyledTextNode(seg, applyStyle)
+                seg -> createStyledTextNode(seg, applyStyle), viewer
         );
     }
 
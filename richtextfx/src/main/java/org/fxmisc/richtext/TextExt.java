@@ -52,53 +52,49 @@ public class TextExt extends Text {
         CSS_META_DATA_LIST = Collections.unmodifiableList(styleables);
     }
 
-    private final StyleableObjectProperty<Paint> backgroundColor = new CustomStyleableProperty<>(
-            null, "backgroundColor", this, StyleableProperties.BACKGROUND_COLOR
-    );
-
-    private final StyleableObjectProperty<Paint> borderStrokeColor = new CustomStyleableProperty<>(
-            null, "borderStrokeColor", this, StyleableProperties.BORDER_COLOR
-    );
-
-    private final StyleableObjectProperty<Number> borderStrokeWidth = new CustomStyleableProperty<>(
-            null, "borderStrokeWidth", this, StyleableProperties.BORDER_WIDTH
-    );
-
-    private final StyleableObjectProperty<StrokeType> borderStrokeType = new CustomStyleableProperty<>(
-            null, "borderStrokeType", this, StyleableProperties.BORDER_TYPE
-    );
-
-    private final StyleableObjectProperty<Number[]> borderStrokeDashArray = new CustomStyleableProperty<>(
-            null, "borderStrokeDashArray", this, StyleableProperties.BORDER_DASH_ARRAY
-    );
-
-    private final StyleableObjectProperty<Paint> underlineColor = new CustomStyleableProperty<>(
-            null, "underlineColor", this, StyleableProperties.UNDERLINE_COLOR
-    );
-
-    private final StyleableObjectProperty<Number> underlineWidth = new CustomStyleableProperty<>(
-            null, "underlineWidth", this, StyleableProperties.UNDERLINE_WIDTH
-    );
-
-    private final StyleableObjectProperty<Number> underlineOffset = new CustomStyleableProperty<>(
-            null, "underlineOffset", this, StyleableProperties.UNDERLINE_OFFSET
-    );
-
-    private final StyleableObjectProperty<Number> underlineWaveRadius = new CustomStyleableProperty<>(
-            null, "underlineWaveRadius", this, StyleableProperties.UNDERLINE_WAVE_RADIUS
-    );
-
-    private final StyleableObjectProperty<Number[]> underlineDashArray = new CustomStyleableProperty<>(
-            null, "underlineDashArray", this, StyleableProperties.UNDERLINE_DASH_ARRAY
-    );
+    /**
+     * The RichTextFX-specific properties of a node, which are only created when one of them is used, be it through
+     * CSS or through its accessors. Most segments are neither decorated nor underlined, so that their node costs no
+     * more than a plain {@link Text}.
+     */
+    private static final class ExtProperties {
+        private final StyleableObjectProperty<Paint> backgroundColor;
+        private final StyleableObjectProperty<Paint> borderStrokeColor;
+        private final StyleableObjectProperty<Number> borderStrokeWidth;
+        private final StyleableObjectProperty<StrokeType> borderStrokeType;
+        private final StyleableObjectProperty<Number[]> borderStrokeDashArray;
+        private final StyleableObjectProperty<Paint> underlineColor;
+        private final StyleableObjectProperty<Number> underlineWidth;
+        private final StyleableObjectProperty<Number> underlineOffset;
+        private final StyleableObjectProperty<Number> underlineWaveRadius;
+        private final StyleableObjectProperty<Number[]> underlineDashArray;
+        private final StyleableObjectProperty<Number> underlineDoubleGap;
+        private final StyleableObjectProperty<StrokeLineCap> underlineCap;
+
+        ExtProperties(TextExt text) {
+            backgroundColor = new CustomStyleableProperty<>(null, "backgroundColor", text, StyleableProperties.BACKGROUND_COLOR);
+            borderStrokeColor = new CustomStyleableProperty<>(null, "borderStrokeColor", text, StyleableProperties.BORDER_COLOR);
+            borderStrokeWidth = new CustomStyleableProperty<>(null, "borderStrokeWidth", text, StyleableProperties.BORDER_WIDTH);
+            borderStrokeType = new CustomStyleableProperty<>(null, "borderStrokeType", text, StyleableProperties.BORDER_TYPE);
+            borderStrokeDashArray = new CustomStyleableProperty<>(null, "borderStrokeDashArray", text, StyleableProperties.BORDER_DASH_ARRAY);
+            underlineColor = new CustomStyleableProperty<>(null, "underlineColor", text, StyleableProperties.UNDERLINE_COLOR);
+            underlineWidth = new CustomStyleableProperty<>(null, "underlineWidth", text, StyleableProperties.UNDERLINE_WIDTH);
+            underlineOffset = new CustomStyleableProperty<>(null, "underlineOffset", text, StyleableProperties.UNDERLINE_OFFSET);
+            underlineWaveRadius = new CustomStyleableProperty<>(null, "underlineWaveRadius", text, StyleableProperties.UNDERLINE_WAVE_RADIUS);
+            underlineDashArray = new CustomStyleableProperty<>(null, "underlineDashArray", text, StyleableProperties.UNDERLINE_DASH_ARRAY);
+            underlineDoubleGap = new CustomStyleableProperty<>(null, "underlineDoubleGap", text, StyleableProperties.UNDERLINE_DOUBLE_GAP);
+            underlineCap = new CustomStyleableProperty<>(null, "underlineCap", text, StyleableProperties.UNDERLINE_CAP);
+        }
+    }
 
-    private final StyleableObjectProperty<Number> underlineDoubleGap = new CustomStyleableProperty<>(
-            null, "underlineDoubleGap", this, StyleableProperties.UNDERLINE_DOUBLE_GAP
-    );
+    private ExtProperties ext;
 
-    private final StyleableObjectProperty<StrokeLineCap> underlineCap = new CustomStyleableProperty<>(
-            null, "underlineCap", this, StyleableProperties.UNDERLINE_CAP
-    );
+    private ExtProperties ext() {
+        if (ext == null) {
+            ext = new ExtProperties(this);
+        }
+        return ext;
+    }
 
     public TextExt(String text) {
         super(text);
@@ -114,11 +110,11 @@ public class TextExt extends Text {
     }
 
     public Paint getBackgroundColor() {
-        return backgroundColor.get();
+        return ext == null ? null : ext.backgroundColor.get();
     }
 
     public void setBackgroundColor(Paint fill) {
-        backgroundColor.set(fill);
+        ext().backgroundColor.set(fill);
     }
 
     /**
@@ -134,15 +130,15 @@ public class TextExt extends Text {
      * Can be styled from CSS using the "-rtfx-background-color" property.
      */
     public ObjectProperty<Paint> backgroundColorProperty() {
-        return backgroundColor;
+        return ext().backgroundColor;
     }
 
     public Paint getBorderStrokeColor() {
-        return borderStrokeColor.get();
+        return ext == null ? null : ext.borderStrokeColor.get();
     }
 
     public void setBorderStrokeColor(Paint fill) {
-        borderStrokeColor.set(fill);
+        ext().borderStrokeColor.set(fill);
     }
 
     /**
@@ -160,12 +156,12 @@ public class TextExt extends Text {
      * Can be styled from CSS using the "-rtfx-border-stroke-color" property.
      */
     public ObjectProperty<Paint> borderStrokeColorProperty() {
-        return borderStrokeColor;
+        return ext().borderStrokeColor;
     }
 
     // Width of the text underline
-    public Number getBorderStrokeWidth() { return borderStrokeWidth.get(); }
-    public void setBorderStrokeWidth(Number width) { borderStrokeWidth.set(width); }
+    public Number getBorderStrokeWidth() { return ext == null ? null : ext.borderStrokeWidth.get(); }
+    public void setBorderStrokeWidth(Number width) { ext().borderStrokeWidth.set(width); }
 
     /**
      * The width of the border stroke.  The border stroke will only be drawn
@@ -174,10 +170,10 @@ public class TextExt extends Text {
      *
      * Can be styled from CSS using the "-rtfx-border-stroke-width" property.
      */
-    public ObjectProperty<Number> borderStrokeWidthProperty() { return borderStrokeWidth; }
+    public ObjectProperty<Number> borderStrokeWidthProperty() { return ext().borderStrokeWidth; }
 
-    public StrokeType getBorderStrokeType() { return borderStrokeType.get(); }
-    public void setBorderStrokeType(StrokeType type) { borderStrokeType.set(type); }
+    public StrokeType getBorderStrokeType() { return ext == null ? null : ext.borderStrokeType.get(); }
+    public void setBorderStrokeType(StrokeType type) { ext().borderStrokeType.set(type); }
 
     /**
      * The stroke type of the border stroke. The border stroke will only be drawn
@@ -186,10 +182,10 @@ public class TextExt extends Text {
      *
      * Can be styled from CSS using the "-rtfx-border-stroke-type" property.
      */
-    public ObjectProperty<StrokeType> borderStrokeTypeProperty() { return borderStrokeType; }
+    public ObjectProperty<StrokeType> borderStrokeTypeProperty() { return ext().borderStrokeType; }
 
-    public Number[] getBorderStrokeDashArray() { return borderStrokeDashArray.get(); }
-    public void setBorderStrokeDashArray(Number[] array) { borderStrokeDashArray.set(array); }
+    public Number[] getBorderStrokeDashArray() { return ext == null ? null : ext.borderStrokeDashArray.get(); }
+    public void setBorderStrokeDashArray(Number[] array) { ext().borderStrokeDashArray.set(array); }
 
     /**
      * The dash array used for drawing the border for a section of text. The border stroke will only be drawn
@@ -198,11 +194,11 @@ public class TextExt extends Text {
      *
      * Can be styled from CSS using the "-rtfx-border-stroke-dash-array" property.
      */
-    public ObjectProperty<Number[]> borderStrokeDashArrayProperty() { return borderStrokeDashArray; }
+    public ObjectProperty<Number[]> borderStrokeDashArrayProperty() { return ext().borderStrokeDashArray; }
 
     // Color of the text underline (-fx-underline is already defined by JavaFX)
-    public Paint getUnderlineColor() { return underlineColor.get(); }
-    public void setUnderlineColor(Paint fill) { underlineColor.set(fill); }
+    public Paint getUnderlineColor() { return ext == null ? null : ext.underlineColor.get(); }
+    public void setUnderlineColor(Paint fill) { ext().underlineColor.set(fill); }
 
     /**
      * The underline color of the section of text.
@@ -220,11 +216,11 @@ public class TextExt extends Text {
      * drawn if {@link #underlineWidthProperty()} is non-null and greater than zero, regardless of
      * the value of {@link #underlineProperty()}.</p>
      */
-    public ObjectProperty<Paint> underlineColorProperty() { return underlineColor; }
+    public ObjectProperty<Paint> underlineColorProperty() { return ext().underlineColor; }
 
     // Width of the text underline
-    public Number getUnderlineWidth() { return underlineWidth.get(); }
-    public void setUnderlineWidth(Number width) { underlineWidth.set(width); }
+    public Number getUnderlineWidth() { return ext == null ? null : ext.underlineWidth.get(); }
+    public void setUnderlineWidth(Number width) { ext().underlineWidth.set(width); }
 
     /**
      * The width of the underline for a section of text.  If null or zero,
@@ -237,10 +233,10 @@ public class TextExt extends Text {
      * drawn if {@link #underlineWidthProperty()} is non-null and greater than zero, regardless of
      * the value of {@link #underlineProperty()}.</p>
      */
-    public ObjectProperty<Number> underlineWidthProperty() { return underlineWidth; }
+    public ObjectProperty<Number> underlineWidthProperty() { return ext().underlineWidth; }
 
-    public Number getUnderlineOffset() { return underlineOffset.get(); }
-    public void setUnderlineOffset(Number width) { underlineOffset.set(width); }
+    public Number getUnderlineOffset() { return ext == null ? null : ext.underlineOffset.get(); }
+    public void setUnderlineOffset(Number width) { ext().underlineOffset.set(width); }
 
     /**
      * The offset of the underline for a section of text.  If null or zero,
@@ -253,10 +249,10 @@ public class TextExt extends Text {
      * drawn if {@link #underlineWidthProperty()} is non-null and greater than zero, regardless of
      * the value of {@link #underlineProperty()}.</p>
      */
-    public ObjectProperty<Number> underlineOffsetProperty() { return underlineOffset; }
+    public ObjectProperty<Number> underlineOffsetProperty() { return ext().underlineOffset; }
 
-    public Number getUnderlineWaveRadius() { return underlineWaveRadius.get(); }
-    public void setUnderlineWaveRadius(Number radius) { underlineWaveRadius.set(radius); }
+    public Number getUnderlineWaveRadius() { return ext == null ? null : ext.underlineWaveRadius.get(); }
+    public void setUnderlineWaveRadius(Number radius) { ext().underlineWaveRadius.set(radius); }
 
     /**
      * The arc radius used to draw a wavy underline.  If null or zero, the
@@ -269,10 +265,10 @@ public class TextExt extends Text {
      * drawn if {@link #underlineWidthProperty()} is non-null and greater than zero, regardless of
      * the value of {@link #underlineProperty()}.</p>
      */
-    public ObjectProperty<Number> underlineWaveRadiusProperty() { return underlineWaveRadius; }
+    public ObjectProperty<Number> underlineWaveRadiusProperty() { return ext().underlineWaveRadius; }
 
-    public Number getUnderlineDoubleGap() { return underlineDoubleGap.get(); }
-    public void setUnderlineDoubleGap(Number radius) { underlineDoubleGap.set(radius); }
+    public Number getUnderlineDoubleGap() { return ext == null ? null : ext.underlineDoubleGap.get(); }
+    public void setUnderlineDoubleGap(Number radius) { ext().underlineDoubleGap.set(radius); }
 
     /**
      * The size of the gap between two parallel underline lines or wave forms.  If null or zero, the
@@ -285,11 +281,11 @@ public class TextExt extends Text {
      * drawn if {@link #underlineWidthProperty()} is non-null and greater than zero, regardless of
      * the value of {@link #underlineProperty()}.</p>
      */
-    public ObjectProperty<Number> underlineDoubleGapProperty() { return underlineDoubleGap; }
+    public ObjectProperty<Number> underlineDoubleGapProperty() { return ext().underlineDoubleGap; }
 
     // Dash array for the text underline
-    public Number[] getUnderlineDashArray() { return underlineDashArray.get(); }
-    public void setUnderlineDashArray(Number[] dashArray) { underlineDashArray.set(dashArray); }
+    public Number[] getUnderlineDashArray() { return ext == null ? null : ext.underlineDashArray.get(); }
+    public void setUnderlineDashArray(Number[] dashArray) { ext().underlineDashArray.set(dashArray); }
 
     /**
      * The dash array used for drawing the underline for a section of text.
@@ -301,11 +297,11 @@ public class TextExt extends Text {
      * drawn if {@link #underlineWidthProperty()} is non-null and greater than zero, regardless of
      * the value of {@link #underlineProperty()}.</p>
      */
-    public ObjectProperty<Number[]> underlineDashArrayProperty() { return underlineDashArray; }
+    public ObjectProperty<Number[]> underlineDashArrayProperty() { return ext().underlineDashArray; }
 
     // The end cap style of each dash in a dashed underline
-    public StrokeLineCap getUnderlineCap() { return underlineCap.get(); }
-    public void setUnderlineCap(StrokeLineCap cap) { underlineCap.set(cap); }
+    public StrokeLineCap getUnderlineCap() { return ext == null ? null : ext.underlineCap.get(); }
+    public void setUnderlineCap(StrokeLineCap cap) { ext().underlineCap.set(cap); }
     /**
      * The end cap style used for drawing each dash in a dashed underline for a section of text.
      *
@@ -316,68 +312,80 @@ public class TextExt extends Text {
      * drawn if {@link #underlineWidthProperty()} is non-null and greater than zero, regardless of
      * the value of {@link #underlineProperty()}.</p>
      */
-    public ObjectProperty<StrokeLineCap> underlineCapProperty() { return underlineCap; }
+    public ObjectProperty<StrokeLineCap> underlineCapProperty() { return ext().underlineCap; }
 
     private static class StyleableProperties {
 
         private static final CssMetaData<TextExt, Paint> BACKGROUND_COLOR = new CustomCssMetaData<>(
                 "-rtfx-background-color", StyleConverter.getPaintConverter(),
-                Color.TRANSPARENT, n -> n.backgroundColor
+                Color.TRANSPARENT,
+                n -> n.ext().backgroundColor, n -> n.ext == null ? null : n.ext.backgroundColor
         );
 
         private static final CssMetaData<TextExt, Paint> BORDER_COLOR = new CustomCssMetaData<>(
                 "-rtfx-border-stroke-color", StyleConverter.getPaintConverter(),
-                Color.TRANSPARENT, n -> n.borderStrokeColor
+                Color.TRANSPARENT,
+                n -> n.ext().borderStrokeColor, n -> n.ext == null ? null : n.ext.borderStrokeColor
         );
 
         private static final CssMetaData<TextExt, Number> BORDER_WIDTH = new CustomCssMetaData<>(
                 "-rtfx-border-stroke-width", StyleConverter.getSizeConverter(),
-                0, n -> n.borderStrokeWidth
+                0,
+                n -> n.ext().borderStrokeWidth, n -> n.ext == null ? null : n.ext.borderStrokeWidth
         );
 
         private static final CssMetaData<TextExt, StrokeType> BORDER_TYPE = new CustomCssMetaData<>(
                 "-rtfx-border-stroke-type", StyleConverter.getEnumConverter(StrokeType.class),
-                StrokeType.INSIDE, n -> n.borderStrokeType
+                StrokeType.INSIDE,
+                n -> n.ext().borderStrokeType, n -> n.ext == null ? null : n.ext.borderStrokeType
         );
 
         private static final CssMetaData<TextExt, Number[]> BORDER_DASH_ARRAY = new CustomCssMetaData<>(
                 "-rtfx-border-stroke-dash-array", SizeConverter.SequenceConverter.getInstance(),
-                new Double[0], n -> n.borderStrokeDashArray
+                new Double[0],
+                n -> n.ext().borderStrokeDashArray, n -> n.ext == null ? null : n.ext.borderStrokeDashArray
         );
 
         private static final CssMetaData<TextExt, Paint> UNDERLINE_COLOR = new CustomCssMetaData<>(
                 "-rtfx-underline-color", StyleConverter.getPaintConverter(),
-                Color.TRANSPARENT, n -> n.underlineColor
+                Color.TRANSPARENT,
+                n -> n.ext().underlineColor, n -> n.ext == null ? null : n.ext.underlineColor
         );
 
         private static final CssMetaData<TextExt, Number> UNDERLINE_WIDTH = new CustomCssMetaData<>(
                 "-rtfx-underline-width", StyleConverter.getSizeConverter(),
-                0, n -> n.underlineWidth
+                0,
+                n -> n.ext().underlineWidth, n -> n.ext == null ? null : n.ext.underlineWidth
         );
 
         private static final CssMetaData<TextExt, Number> UNDERLINE_OFFSET = new CustomCssMetaData<>(
-            "-rtfx-underline-offset", StyleConverter.getSizeConverter(),
-            0, n -> n.underlineOffset
+                "-rtfx-underline-offset", StyleConverter.getSizeConverter(),
+                0,
+                n -> n.ext().underlineOffset, n -> n.ext == null ? null : n.ext.underlineOffset
         );
 
         private static final CssMetaData<TextExt, Number> UNDERLINE_WAVE_RADIUS = new CustomCssMetaData<>(
-            "-rtfx-underline-wave-radius", StyleConverter.getSizeConverter(),
-            0, n -> n.underlineWaveRadius
+                "-rtfx-underline-wave-radius", StyleConverter.getSizeConverter(),
+                0,
+                n -> n.ext().underlineWaveRadius, n -> n.ext == null ? null : n.ext.underlineWaveRadius
         );
 
         private static final CssMetaData<TextExt, Number[]> UNDERLINE_DASH_ARRAY = new CustomCssMetaData<>(
                 "-rtfx-underline-dash-array", SizeConverter.SequenceConverter.getInstance(),
-                new Double[0], n -> n.underlineDashArray
+                new Double[0],
+                n -> n.ext().underlineDashArray, n -> n.ext == null ? null : n.ext.underlineDashArray
         );
 
         private static final CssMetaData<TextExt, Number> UNDERLINE_DOUBLE_GAP = new CustomCssMetaData<>(
                 "-rtfx-underline-double-gap", StyleConverter.getSizeConverter(),
-                0, n -> n.underlineDoubleGap
+                0,
+                n -> n.ext().underlineDoubleGap, n -> n.ext == null ? null : n.ext.underlineDoubleGap
         );
 
         private static final CssMetaData<TextExt, StrokeLineCap> UNDERLINE_CAP = new CustomCssMetaData<>(
                 "-rtfx-underline-cap", StyleConverter.getEnumConverter(StrokeLineCap.class),
-                StrokeLineCap.SQUARE, n -> n.underlineCap
+                StrokeLineCap.SQUARE,
+                n -> n.ext().underlineCap, n -> n.ext == null ? null : n.ext.underlineCap
         );
     }
 }
@@ -0,0 +1,225 @@
+package org.fxmisc.richtext;
+
+import java.util.List;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.fxmisc.richtext.model.DocumentEvents;
+import org.fxmisc.richtext.model.Paragraph;
+
+/**
+ * Java Flight Recorder events of the view of an area, which follow the document events of
+ * {@code org.fxmisc.richtext.model} in the pipeline from an edit to the next frame. The events are disabled unless
+ * a recording enables them, in which case their fields are only computed if the event is
+ * {@link Event#shouldCommit() committed}. Like the document events, they are begun and committed through the
+ * static methods of this class, which only use {@link Recorder} if {@link DocumentEvents#isJfrAvailable()}, so that
+ * the callers never mention a {@code jdk.jfr} type.
+ */
+final class ViewEvents {
+
+    private static final boolean AVAILABLE = DocumentEvents.isJfrAvailable();
+
+    private ViewEvents() {}
+
+    /**
+     * Begins a {@link Rebase} event, or returns {@code null} if it is not recorded.
+     */
+    static Object beginRebase() {
+        return AVAILABLE ? Recorder.beginRebase() : null;
+    }
+
+    static void commitRebase(Object event, String kind, int documentLength, int changeCount) {
+        if (event != null) {
+            Recorder.commitRebase(event, kind, documentLength, changeCount);
+        }
+    }
+
+    /**
+     * Begins a {@link CellCreation} event, or returns {@code null} if it is not recorded.
+     */
+    static Object beginCellCreation() {
+        return AVAILABLE ? Recorder.beginCellCreation() : null;
+    }
+
+    static void commitCellCreation(Object event, int documentLength, Paragraph<?, ?, ?> paragraph) {
+        if (event != null) {
+            Recorder.commitCellCreation(event, documentLength, paragraph);
+        }
+    }
+
+    /**
+     * Begins an {@link AreaLayout} event, or returns {@code null} if it is not recorded.
+     */
+    static Object beginAreaLayout() {
+        return AVAILABLE ? Recorder.beginAreaLayout() : null;
+    }
+
+    static void commitAreaLayout(Object event, int documentLength, int paragraphCount,
+                                 List<?> visibleParagraphs, int cellsCreated) {
+        if (event != null) {
+            Recorder.commitAreaLayout(event, documentLength, paragraphCount, visibleParagraphs, cellsCreated);
+        }
+    }
+
+    /**
+     * Begins a {@link ParagraphLayout} event, or returns {@code null} if it is not recorded.
+     */
+    static Object beginParagraphLayout() {
+        return AVAILABLE ? Recorder.beginParagraphLayout() : null;
+    }
+
+    static void commitParagraphLayout(Object event, Paragraph<?, ?, ?> paragraph, double width) {
+        if (event != null) {
+            Recorder.commitParagraphLayout(event, paragraph, width);
+        }
+    }
+
+    /**
+     * The only code that uses the {@code jdk.jfr} types, which is only loaded if they are available.
+     */
+    private static final class Recorder {
+
+        private static Object begin(Event event) {
+            if (!event.isEnabled()) {
+                return null;
+            }
+            event.begin();
+            return event;
+        }
+
+        static Object beginRebase() {
+            return begin(new Rebase());
+        }
+
+        static Object beginCellCreation() {
+            return begin(new CellCreation());
+        }
+
+        static Object beginAreaLayout() {
+            return begin(new AreaLayout());
+        }
+
+        static Object beginParagraphLayout() {
+            return begin(new ParagraphLayout());
+        }
+
+        static void commitRebase(Object e, String kind, int documentLength, int changeCount) {
+            Rebase event = (Rebase) e;
+            event.end();
+            if (event.shouldCommit()) {
+                event.kind = kind;
+                event.documentLength = documentLength;
+                event.changeCount = changeCount;
+                event.commit();
+            }
+        }
+
+        static void commitCellCreation(Object e, int documentLength, Paragraph<?, ?, ?> paragraph) {
+            CellCreation event = (CellCreation) e;
+            event.end();
+            if (event.shouldCommit()) {
+                event.documentLength = documentLength;
+                event.paragraphLength = paragraph.length();
+                event.segmentCount = paragraph.getSegments().size();
+                event.commit();
+            }
+        }
+
+        static void commitAreaLayout(Object e, int documentLength, int paragraphCount,
+                                     List<?> visibleParagraphs, int cellsCreated) {
+            AreaLayout event = (AreaLayout) e;
+            event.end();
+            if (event.shouldCommit()) {
+                event.documentLength = documentLength;
+                event.paragraphCount = paragraphCount;
+                event.visibleParagraphs = visibleParagraphs.size();
+                event.cellsCreated = cellsCreated;
+                event.commit();
+            }
+        }
+
+        static void commitParagraphLayout(Object e, Paragraph<?, ?, ?> paragraph, double width) {
+            ParagraphLayout event = (ParagraphLayout) e;
+            event.end();
+            if (event.shouldCommit()) {
+                event.paragraphLength = paragraph.length();
+                event.segmentCount = paragraph.getSegments().size();
+                event.width = width;
+                event.commit();
+            }
+        }
+    }
+
+    @Name("org.fxmisc.richtext.Rebase")
+    @Label("Caret or Selection Rebase")
+    @Description("Update of the position of a caret or a selection for the changes of the document")
+    @Category({ "RichTextFX", "View" })
+    @StackTrace(false)
+    static final class Rebase extends Event {
+        @Label("Kind")
+        @Description("Whether a caret, a selection or all the selections of an area were rebased")
+        String kind;
+
+        @Label("Document Length")
+        int documentLength;
+
+        @Label("Changes")
+        int changeCount;
+    }
+
+    @Name("org.fxmisc.richtext.CellCreation")
+    @Label("Cell Creation")
+    @Description("Creation of the cell that shows a paragraph")
+    @Category({ "RichTextFX", "View" })
+    @StackTrace(false)
+    static final class CellCreation extends Event {
+        @Label("Document Length")
+        int documentLength;
+
+        @Label("Paragraph Length")
+        int paragraphLength;
+
+        @Label("Segments")
+        int segmentCount;
+    }
+
+    @Name("org.fxmisc.richtext.AreaLayout")
+    @Label("Area Layout")
+    @Description("Layout of an area's viewport, including the creation and layout of the cells that became visible")
+    @Category({ "RichTextFX", "View" })
+    @StackTrace(false)
+    static final class AreaLayout extends Event {
+        @Label("Document Length")
+        int documentLength;
+
+        @Label("Paragraph Count")
+        int paragraphCount;
+
+        @Label("Visible Paragraphs")
+        int visibleParagraphs;
+
+        @Label("Cells Created")
+        @Description("Number of cells created since the previous layout of the area")
+        int cellsCreated;
+    }
+
+    @Name("org.fxmisc.richtext.ParagraphLayout")
+    @Label("Paragraph Layout")
+    @Description("Layout of the text of a paragraph and of its caret, selection, background and underline shapes")
+    @Category({ "RichTextFX", "View" })
+    @StackTrace(false)
+    static final class ParagraphLayout extends Event {
+        @Label("Paragraph Length")
+        int paragraphLength;
+
+        @Label("Segments")
+        int segmentCount;
+
+        @Label("Width")
+        double width;
+    }
+}
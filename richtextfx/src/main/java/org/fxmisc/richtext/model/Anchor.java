@@ -0,0 +1,43 @@
+package org.fxmisc.richtext.model;
+
+import org.fxmisc.richtext.model.TwoDimensional.Bias;
+
+/**
+ * A position in an {@link EditableStyledDocument} that moves with the edits made to that document, so that it keeps
+ * pointing at the same place in the text. It can be used to track bookmarks, diagnostics, breakpoints, etc.
+ * without shifting each of them by hand on every {@link PlainTextChange}.
+ *
+ * <p>An anchor is created via {@link EditableStyledDocument#createAnchor(int, Bias)}. When text is inserted
+ * before it, it moves forward by the inserted length; when text before it is removed, it moves backward. When the
+ * text around it is removed, it collapses to the start of the removed range. When text is inserted exactly at the
+ * anchor's position, its {@link #getStickiness() stickiness} decides where it ends up:</p>
+ * <ul>
+ *     <li>{@link Bias#Backward}: the anchor sticks to the preceding text and stays before the inserted text.</li>
+ *     <li>{@link Bias#Forward}: the anchor sticks to the following text and ends up after the inserted text.
+ *     Likewise, when a range around the anchor is replaced, it ends up after the replacement.</li>
+ * </ul>
+ *
+ * <p>Style-only changes do not move anchors. An anchor that is no longer needed should be {@link #dispose() disposed}
+ * so that the document stops updating it.</p>
+ */
+public interface Anchor {
+
+    /**
+     * Gets the current position of this anchor in the document. Once this anchor has been disposed, returns the
+     * last position it had.
+     */
+    int getPosition();
+
+    /**
+     * Gets whether this anchor stays before ({@link Bias#Backward}) or moves after ({@link Bias#Forward})
+     * text inserted at its position.
+     */
+    Bias getStickiness();
+
+    /**
+     * Stops tracking this anchor. Does nothing if it was already disposed.
+     */
+    void dispose();
+
+    boolean isDisposed();
+}
@@ -0,0 +1,256 @@
+package org.fxmisc.richtext.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.fxmisc.richtext.model.TwoDimensional.Bias;
+
+/**
+ * Stores {@link Anchor}s of one stickiness in a randomized balanced search tree (a treap) ordered by their
+ * position. Instead of updating every anchor on an edit, the tree is split into the anchors before, inside and after
+ * the replaced range, and a lazy tag ("shift by n" or "move to n") is put on the roots of the latter two, so an edit
+ * costs O(log n) regardless of the number of anchors. Tags are pushed down to the children when a node is visited,
+ * and an anchor computes its position by applying the pending tags of its ancestors.
+ */
+final class AnchorTree {
+
+    private final Bias stickiness;
+    private final Random random = new Random();
+    private Node root;
+    private int size = 0;
+
+    AnchorTree(Bias stickiness) {
+        this.stickiness = stickiness;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    Anchor add(int position) {
+        Node node = new Node(position, random.nextInt());
+        Node[] parts = split(root, position);
+        root = merge(merge(parts[0], node), parts[1]);
+        root.parent = null;
+        size++;
+        return node;
+    }
+
+    /**
+     * Updates the anchors for the replacement of {@code removedLength} characters at {@code position}
+     * by {@code insertedLength} characters.
+     */
+    void replace(int position, int removedLength, int insertedLength) {
+        if (root == null) {
+            return;
+        }
+
+        int removalEnd = position + removedLength;
+        int netLength = insertedLength - removedLength;
+
+        // anchors before the change keep their position. A backward anchor located at the position
+        // of the change stays there, while a forward one moves with the text that follows it
+        Node[] before = split(root, stickiness == Bias.Backward ? position + 1 : position);
+        Node[] inside = split(before[1], removalEnd);
+
+        Node removed = inside[0];
+        if (removed != null) {
+            removed.apply(true, stickiness == Bias.Backward ? position : position + insertedLength);
+        }
+        Node after = inside[1];
+        if (after != null && netLength != 0) {
+            after.apply(false, netLength);
+        }
+
+        root = merge(merge(before[0], removed), after);
+        if (root != null) {
+            root.parent = null;
+        }
+    }
+
+    /**
+     * Returns the current positions of all anchors, in ascending order.
+     */
+    List<Integer> positions() {
+        List<Integer> result = new ArrayList<>(size);
+        collect(root, result);
+        return result;
+    }
+
+    private static void collect(Node node, List<Integer> result) {
+        if (node != null) {
+            node.pushDown();
+            collect(node.left, result);
+            result.add(node.value);
+            collect(node.right, result);
+        }
+    }
+
+    private void remove(Node node) {
+        // push the pending tags down to the node, so that its subtrees have correct positions once detached
+        List<Node> path = new ArrayList<>();
+        for (Node n = node; n != null; n = n.parent) {
+            path.add(n);
+        }
+        for (int i = path.size() - 1; i >= 0; i--) {
+            path.get(i).pushDown();
+        }
+
+        Node replacement = merge(node.left, node.right);
+        Node parent = node.parent;
+        if (replacement != null) {
+            replacement.parent = parent;
+        }
+        if (parent == null) {
+            root = replacement;
+        } else if (parent.left == node) {
+            parent.left = replacement;
+        } else {
+            parent.right = replacement;
+        }
+        node.left = node.right = node.parent = null;
+        size--;
+    }
+
+    /**
+     * Splits the given tree into the nodes whose position is less than {@code position}
+     * and the nodes whose position is greater or equal to it.
+     */
+    private static Node[] split(Node tree, int position) {
+        if (tree == null) {
+            return new Node[] { null, null };
+        }
+
+        tree.pushDown();
+        if (tree.value < position) {
+            Node[] parts = split(tree.right, position);
+            tree.setRight(parts[0]);
+            parts[0] = tree;
+            return parts;
+        } else {
+            Node[] parts = split(tree.left, position);
+            tree.setLeft(parts[1]);
+            parts[1] = tree;
+            return parts;
+        }
+    }
+
+    /** Merges two trees, where all the positions in {@code a} are less than or equal to those in {@code b}. */
+    private static Node merge(Node a, Node b) {
+        if (a == null) {
+            return b;
+        } else if (b == null) {
+            return a;
+        } else if (a.priority > b.priority) {
+            a.pushDown();
+            a.setRight(merge(a.right, b));
+            return a;
+        } else {
+            b.pushDown();
+            b.setLeft(merge(a, b.left));
+            return b;
+        }
+    }
+
+    private final class Node implements Anchor {
+        private final int priority;
+        private int value;
+
+        // tag to apply to the children: either move them to 'tagValue' or shift them by 'tagValue'
+        private boolean hasTag = false;
+        private boolean tagIsMove = false;
+        private int tagValue = 0;
+
+        private Node left;
+        private Node right;
+        private Node parent;
+
+        private boolean disposed = false;
+
+        Node(int value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+
+        @Override
+        public int getPosition() {
+            int position = value;
+            for (Node n = parent; n != null; n = n.parent) {
+                if (n.hasTag) {
+                    position = n.tagIsMove ? n.tagValue : position + n.tagValue;
+                }
+            }
+            return position;
+        }
+
+        @Override
+        public Bias getStickiness() {
+            return stickiness;
+        }
+
+        @Override
+        public void dispose() {
+            if (!disposed) {
+                // removal pushes the pending tags down to this node, so its value is up to date afterwards
+                remove(this);
+                disposed = true;
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+
+        @Override
+        public String toString() {
+            return "Anchor(" + getPosition() + ", " + stickiness + (disposed ? ", disposed" : "") + ")";
+        }
+
+        /** Applies the tag to this node and records it for its children. */
+        private void apply(boolean move, int amount) {
+            value = move ? amount : value + amount;
+            if (move || !hasTag) {
+                tagIsMove = move;
+                tagValue = amount;
+            } else {
+                // shift after a move is still a move, shift after a shift is a bigger shift
+                tagValue += amount;
+            }
+            hasTag = true;
+        }
+
+        private void pushDown() {
+            if (hasTag) {
+                if (left != null) {
+                    left.apply(tagIsMove, tagValue);
+                }
+                if (right != null) {
+                    right.apply(tagIsMove, tagValue);
+                }
+                hasTag = false;
+                tagIsMove = false;
+                tagValue = 0;
+            }
+        }
+
+        private void setLeft(Node node) {
+            left = node;
+            if (node != null) {
+                node.parent = this;
+            }
+        }
+
+        private void setRight(Node node) {
+            right = node;
+            if (node != null) {
+                node.parent = this;
+            }
+        }
+    }
+}
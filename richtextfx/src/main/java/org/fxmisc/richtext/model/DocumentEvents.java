@@ -0,0 +1,165 @@
+package org.fxmisc.richtext.model;
+
+import java.util.List;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.reactfx.collection.MaterializedListModification;
+
+/**
+ * Java Flight Recorder events of the document model. The events are disabled unless a recording enables them,
+ * in which case their fields are only computed if the event is {@link Event#shouldCommit() committed}.
+ *
+ * <p>The {@code jdk.jfr} module is optional. The events are begun and committed through the static methods of
+ * this class, which pass them around as plain {@link Object}s, so that no method outside of {@link Recorder}
+ * mentions a {@code jdk.jfr} type and the verifier never has to load one. {@link Recorder} is only used if
+ * {@link #isJfrAvailable()}; otherwise the {@code begin} methods return {@code null} and the {@code commit} methods
+ * do nothing.</p>
+ *
+ * <p>This class is public only so that the view's events, in {@code org.fxmisc.richtext}, share the check of
+ * {@link #isJfrAvailable()}; it is not meant to be used by applications.</p>
+ */
+public final class DocumentEvents {
+
+    private static final boolean AVAILABLE = checkJfr();
+
+    private DocumentEvents() {}
+
+    /**
+     * Whether the {@code jdk.jfr} module is present, which is only checked once.
+     */
+    public static boolean isJfrAvailable() {
+        return AVAILABLE;
+    }
+
+    private static boolean checkJfr() {
+        try {
+            Class.forName("jdk.jfr.Event", false, DocumentEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Begins a {@link Replace} event, or returns {@code null} if it is not recorded.
+     */
+    static Object beginReplace() {
+        return AVAILABLE ? Recorder.beginReplace() : null;
+    }
+
+    static void commitReplace(Object event, ReadOnlyStyledDocument<?, ?, ?> result,
+                              int paragraphsRemoved, int paragraphsAdded) {
+        if (event != null) {
+            Recorder.commitReplace(event, result, paragraphsRemoved, paragraphsAdded);
+        }
+    }
+
+    /**
+     * Begins a {@link Propagate} event, or returns {@code null} if it is not recorded.
+     */
+    static Object beginPropagate() {
+        return AVAILABLE ? Recorder.beginPropagate() : null;
+    }
+
+    static void commitPropagate(Object event, ReadOnlyStyledDocument<?, ?, ?> newValue, int changeCount,
+                                List<? extends MaterializedListModification<?>> parChanges) {
+        if (event != null) {
+            Recorder.commitPropagate(event, newValue, changeCount, parChanges);
+        }
+    }
+
+    /**
+     * The only code that uses the {@code jdk.jfr} types, which is only loaded if they are available.
+     */
+    private static final class Recorder {
+
+        private static Object begin(Event event) {
+            if (!event.isEnabled()) {
+                return null;
+            }
+            event.begin();
+            return event;
+        }
+
+        static Object beginReplace() {
+            return begin(new Replace());
+        }
+
+        static Object beginPropagate() {
+            return begin(new Propagate());
+        }
+
+        static void commitReplace(Object e, ReadOnlyStyledDocument<?, ?, ?> result,
+                                  int paragraphsRemoved, int paragraphsAdded) {
+            Replace event = (Replace) e;
+            event.end();
+            if (event.shouldCommit()) {
+                event.documentLength = result.length();
+                event.paragraphCount = result.getParagraphCount();
+                event.paragraphsRemoved = paragraphsRemoved;
+                event.paragraphsAdded = paragraphsAdded;
+                event.commit();
+            }
+        }
+
+        static void commitPropagate(Object e, ReadOnlyStyledDocument<?, ?, ?> newValue, int changeCount,
+                                    List<? extends MaterializedListModification<?>> parChanges) {
+            Propagate event = (Propagate) e;
+            event.end();
+            if (event.shouldCommit()) {
+                event.documentLength = newValue.length();
+                event.paragraphCount = newValue.getParagraphCount();
+                event.changeCount = changeCount;
+                for (MaterializedListModification<?> mod : parChanges) {
+                    event.paragraphsAffected += mod.getRemovedSize() + mod.getAddedSize();
+                }
+                event.commit();
+            }
+        }
+    }
+
+    @Name("org.fxmisc.richtext.DocumentReplace")
+    @Label("Document Replace")
+    @Description("Computation of the new version of a document for a replacement of a range of it")
+    @Category({ "RichTextFX", "Document" })
+    @StackTrace(false)
+    static final class Replace extends Event {
+        @Label("Document Length")
+        int documentLength;
+
+        @Label("Paragraph Count")
+        int paragraphCount;
+
+        @Label("Paragraphs Removed")
+        int paragraphsRemoved;
+
+        @Label("Paragraphs Added")
+        int paragraphsAdded;
+    }
+
+    @Name("org.fxmisc.richtext.ChangePropagation")
+    @Label("Change Propagation")
+    @Description("Update of an editable document's anchors and summaries, and emission of its change events "
+            + "to the areas that show it (including caret and selection rebasing, and cell updates)")
+    @Category({ "RichTextFX", "Document" })
+    @StackTrace(false)
+    static final class Propagate extends Event {
+        @Label("Document Length")
+        int documentLength;
+
+        @Label("Paragraph Count")
+        int paragraphCount;
+
+        @Label("Changes")
+        int changeCount;
+
+        @Label("Paragraphs Affected")
+        @Description("Number of paragraphs removed and added by the changes")
+        int paragraphsAffected;
+    }
+}
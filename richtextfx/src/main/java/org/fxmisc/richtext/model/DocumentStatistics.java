@@ -0,0 +1,106 @@
+package org.fxmisc.richtext.model;
+
+import org.reactfx.util.ToSemigroup;
+import org.reactfx.value.Val;
+
+/**
+ * The word, code point and non-whitespace character counts of an {@link EditableStyledDocument}, e.g. for a
+ * status bar. The counts of each paragraph are cached in a {@link DocumentSummary}, so that an edit only counts
+ * the paragraphs it added, instead of scanning the whole text of the document. The observable counts are updated
+ * once per change of the document's text.
+ *
+ * <p>A word is a maximal run of non-whitespace code points, as determined by {@link Character#isWhitespace(int)}.
+ * Since paragraphs are separated by line terminators, words never span paragraphs. Line terminators are not
+ * counted as code points.</p>
+ *
+ * @see EditableStyledDocument#getStatistics()
+ */
+public final class DocumentStatistics {
+
+    /**
+     * The counts of a range of paragraphs.
+     */
+    private static final class Counts {
+        private final int words;
+        private final int codePoints;
+        private final int nonWhitespace;
+
+        Counts(int words, int codePoints, int nonWhitespace) {
+            this.words = words;
+            this.codePoints = codePoints;
+            this.nonWhitespace = nonWhitespace;
+        }
+    }
+
+    private static final ToSemigroup<Paragraph<?, ?, ?>, Counts> COUNTER = new ToSemigroup<Paragraph<?, ?, ?>, Counts>() {
+
+        @Override
+        public Counts apply(Paragraph<?, ?, ?> paragraph) {
+            return count(paragraph.getText());
+        }
+
+        @Override
+        public Counts reduce(Counts left, Counts right) {
+            return new Counts(
+                    left.words + right.words,
+                    left.codePoints + right.codePoints,
+                    left.nonWhitespace + right.nonWhitespace);
+        }
+    };
+
+    private final DocumentSummary<Counts> summary;
+
+    private final Val<Integer> wordCount;
+    public int getWordCount() { return wordCount.getValue(); }
+    public Val<Integer> wordCountProperty() { return wordCount; }
+
+    private final Val<Integer> codePointCount;
+    public int getCodePointCount() { return codePointCount.getValue(); }
+    public Val<Integer> codePointCountProperty() { return codePointCount; }
+
+    private final Val<Integer> nonWhitespaceCount;
+    public int getNonWhitespaceCount() { return nonWhitespaceCount.getValue(); }
+    public Val<Integer> nonWhitespaceCountProperty() { return nonWhitespaceCount; }
+
+    private final Val<Integer> paragraphCount;
+    public int getParagraphCount() { return paragraphCount.getValue(); }
+    public Val<Integer> paragraphCountProperty() { return paragraphCount; }
+
+    DocumentStatistics(EditableStyledDocument<?, ?, ?> document) {
+        summary = document.addSummary(COUNTER);
+        wordCount = Val.create(() -> summary.getTotal().words, document.multiPlainChanges());
+        codePointCount = Val.create(() -> summary.getTotal().codePoints, document.multiPlainChanges());
+        nonWhitespaceCount = Val.create(() -> summary.getTotal().nonWhitespace, document.multiPlainChanges());
+        paragraphCount = Val.create(summary::getParagraphCount, document.multiPlainChanges());
+    }
+
+    /**
+     * Gets the number of words in the paragraphs from {@code startParagraph} (inclusive) to {@code endParagraph}
+     * (exclusive), in O(log n) time, where n is the number of paragraphs.
+     */
+    public int getWordCount(int startParagraph, int endParagraph) {
+        return summary.getSummaryBetween(startParagraph, endParagraph).map(counts -> counts.words).orElse(0);
+    }
+
+    private static Counts count(String text) {
+        int words = 0;
+        int codePoints = 0;
+        int nonWhitespace = 0;
+        boolean inWord = false;
+        for (int i = 0; i < text.length(); ) {
+            int cp = text.codePointAt(i);
+            i += Character.charCount(cp);
+            codePoints++;
+            if (Character.isWhitespace(cp)) {
+                inWord = false;
+            } else {
+                nonWhitespace++;
+                if (!inWord) {
+                    words++;
+                    inWord = true;
+                }
+            }
+        }
+        return new Counts(words, codePoints, nonWhitespace);
+    }
+}
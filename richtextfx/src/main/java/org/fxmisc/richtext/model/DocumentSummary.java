@@ -0,0 +1,76 @@
+package org.fxmisc.richtext.model;
+
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.ToIntFunction;
+
+import org.reactfx.util.BiIndex;
+import org.reactfx.util.Either;
+
+/**
+ * An aggregate of the paragraphs of an {@link EditableStyledDocument} (e.g. a word count, the number of error
+ * markers, bracket depths) that is kept up to date as the document is edited. It is created via
+ * {@link EditableStyledDocument#addSummary(org.reactfx.util.ToSemigroup)} from a function that summarizes one
+ * paragraph and an associative operation that combines the summaries of consecutive paragraphs.
+ *
+ * <p>The summaries are kept in a balanced tree alongside the document's paragraphs, so that an edit only
+ * summarizes the paragraphs it added, and so that the summary of any range of paragraphs, or the paragraph at
+ * which a prefix of the summaries reaches a given value, is found in O(log n) time, where n is the number of
+ * paragraphs. The summary is updated before the change events of an edit are emitted.</p>
+ *
+ * <p>The aggregate of a prefix of the document that ends at a given offset can be obtained by combining
+ * {@link #getSummaryBetween(int, int) the summary of the paragraphs before} the offset's paragraph (see
+ * {@link TwoDimensional#offsetToPosition(int, TwoDimensional.Bias)}) with the summary of the start of that
+ * paragraph.</p>
+ *
+ * @param <T> the type of the summary
+ */
+public interface DocumentSummary<T> {
+
+    int getParagraphCount();
+
+    /**
+     * Gets the summary of the whole document.
+     */
+    T getTotal();
+
+    /**
+     * Gets the summary of the given paragraph.
+     */
+    T getParagraphSummary(int paragraph);
+
+    /**
+     * Gets the summary of the paragraphs from {@code startParagraph} (inclusive) to {@code endParagraph}
+     * (exclusive), or nothing if the range is empty.
+     */
+    Optional<T> getSummaryBetween(int startParagraph, int endParagraph);
+
+    /**
+     * Finds the paragraph in which the sum of the {@code metric} of the summaries, starting from the first
+     * paragraph, exceeds {@code position}. Returns the index of that paragraph as {@code major}, and the remainder
+     * of {@code position} within it as {@code minor}. For example, if the summary counts the error markers of the
+     * paragraphs, {@code locateProgressively(s -> s.markerCount, n)} returns the paragraph of the n-th marker.
+     *
+     * @throws IndexOutOfBoundsException if {@code position} is negative or is not less than the metric of
+     * {@link #getTotal()}
+     */
+    BiIndex locateProgressively(ToIntFunction<? super T> metric, int position);
+
+    /**
+     * Finds a paragraph by descending through the tree of summaries, starting from {@code startParagraph}.
+     * {@code navigate} is given the summary of a range of paragraphs and the current position, and returns
+     * {@link Either#left(Object) left} with the position to use within that range if the searched paragraph
+     * is in it, or {@link Either#right(Object) right} with the position to use after that range otherwise.
+     * Returns the index of the found paragraph as {@code major} and the position within it as {@code minor}.
+     *
+     * @throws IndexOutOfBoundsException if the searched paragraph is not at or after {@code startParagraph}
+     */
+    BiIndex locate(int startParagraph, BiFunction<? super T, Integer, Either<Integer, Integer>> navigate, int position);
+
+    /**
+     * Stops updating this summary. Does nothing if it was already disposed.
+     */
+    void dispose();
+
+    boolean isDisposed();
+}
@@ -0,0 +1,130 @@
+package org.fxmisc.richtext.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+import org.reactfx.util.BiIndex;
+import org.reactfx.util.Either;
+import org.reactfx.util.FingerTree;
+import org.reactfx.util.FingerTree.NonEmptyFingerTree;
+import org.reactfx.util.ToSemigroup;
+
+/**
+ * A {@link DocumentSummary} that stores the summary of each paragraph as a leaf of a {@link FingerTree}, whose
+ * nodes cache the combined summaries of their leaves.
+ */
+final class DocumentSummaryTree<PS, SEG, S, T> implements DocumentSummary<T> {
+
+    private final ToSemigroup<? super Paragraph<PS, SEG, S>, T> summarizer;
+    private final ToSemigroup<T, T> semigroup;
+    private final Consumer<? super DocumentSummaryTree<PS, SEG, S, T>> onDispose;
+    private FingerTree<T, T> tree;
+    private boolean disposed = false;
+
+    /**
+     * @param paragraphs the current paragraphs of the document
+     * @param summarizer summarizes a paragraph and combines summaries
+     * @param onDispose stops the document from updating this summary
+     */
+    DocumentSummaryTree(List<Paragraph<PS, SEG, S>> paragraphs, ToSemigroup<? super Paragraph<PS, SEG, S>, T> summarizer,
+                        Consumer<? super DocumentSummaryTree<PS, SEG, S, T>> onDispose) {
+        this.summarizer = summarizer;
+        this.onDispose = onDispose;
+        this.semigroup = new ToSemigroup<T, T>() {
+            @Override
+            public T apply(T summary) {
+                return summary;
+            }
+
+            @Override
+            public T reduce(T left, T right) {
+                return summarizer.reduce(left, right);
+            }
+        };
+        this.tree = FingerTree.mkTree(summarize(paragraphs), semigroup);
+    }
+
+    @Override
+    public int getParagraphCount() {
+        return tree.getLeafCount();
+    }
+
+    @Override
+    public T getTotal() {
+        return nonEmpty(tree).getSummary();
+    }
+
+    @Override
+    public T getParagraphSummary(int paragraph) {
+        checkIndex(paragraph);
+        return nonEmpty(tree).getLeaf(paragraph);
+    }
+
+    @Override
+    public Optional<T> getSummaryBetween(int startParagraph, int endParagraph) {
+        if (startParagraph < 0 || endParagraph > getParagraphCount() || startParagraph > endParagraph) {
+            throw new IndexOutOfBoundsException("Paragraph range [" + startParagraph + ", " + endParagraph + ") is out of bounds [0, " + getParagraphCount() + ")");
+        }
+        return tree.getSummaryBetween(startParagraph, endParagraph);
+    }
+
+    @Override
+    public BiIndex locateProgressively(ToIntFunction<? super T> metric, int position) {
+        return nonEmpty(tree).locateProgressively(metric, position);
+    }
+
+    @Override
+    public BiIndex locate(int startParagraph, BiFunction<? super T, Integer, Either<Integer, Integer>> navigate, int position) {
+        checkIndex(startParagraph);
+        FingerTree<T, T> following = startParagraph == 0 ? tree : tree.split(startParagraph)._2;
+        BiIndex at = nonEmpty(following).locate(navigate, position);
+        return new BiIndex(startParagraph + at.major, at.minor);
+    }
+
+    @Override
+    public void dispose() {
+        if (!disposed) {
+            onDispose.accept(this);
+            disposed = true;
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    /**
+     * Updates the summaries for the replacement of {@code removedCount} paragraphs at {@code from}
+     * by the given paragraphs.
+     */
+    void replace(int from, int removedCount, List<Paragraph<PS, SEG, S>> added) {
+        tree = tree.split(from)._1
+                .join(FingerTree.mkTree(summarize(added), semigroup))
+                .join(tree.split(from + removedCount)._2);
+    }
+
+    private List<T> summarize(List<Paragraph<PS, SEG, S>> paragraphs) {
+        List<T> summaries = new ArrayList<>(paragraphs.size());
+        for (Paragraph<PS, SEG, S> paragraph : paragraphs) {
+            summaries.add(summarizer.apply(paragraph));
+        }
+        return summaries;
+    }
+
+    private void checkIndex(int paragraph) {
+        if (paragraph < 0 || paragraph >= getParagraphCount()) {
+            throw new IndexOutOfBoundsException("Paragraph " + paragraph + " is out of bounds [0, " + getParagraphCount() + ")");
+        }
+    }
+
+    private static <T> NonEmptyFingerTree<T, T> nonEmpty(FingerTree<T, T> tree) {
+        return tree.caseEmpty().unify(
+                emptyTree -> { throw new AssertionError("Unreachable code"); },
+                neTree -> neTree);
+    }
+}
@@ -7,6 +7,7 @@ import org.reactfx.EventStreamBase;
 import org.reactfx.Subscription;
 import org.reactfx.SuspendableNo;
 import org.reactfx.collection.LiveList;
+import org.reactfx.util.ToSemigroup;
 import org.reactfx.value.Val;
 
 import java.util.Arrays;
@@ -79,7 +80,8 @@ public interface EditableStyledDocument<PS, SEG, S> extends StyledDocument<PS, S
 
     /**
      * Returns an {@link EventStream} that emits each {@link PlainTextChange} in {@link #multiPlainChanges()}'s
-     * emitted list.
+     * emitted list. The text of the emitted changes is only created when requested, so listeners that only need
+     * the positions and lengths of the changes do not pay for the size of the removed or inserted text.
      */
     default EventStream<PlainTextChange> plainChanges() {
         return new EventStreamBase<PlainTextChange>() {
@@ -106,6 +108,54 @@ public interface EditableStyledDocument<PS, SEG, S> extends StyledDocument<PS, S
     SuspendableNo beingUpdatedProperty();
     boolean isBeingUpdated();
 
+    /**
+     * Creates an {@link Anchor} at the given position that moves with the subsequent edits of this document.
+     * Anchors are updated before the change events of an edit are emitted. An edit costs O(log n) however
+     * many anchors exist, so this is preferred over shifting markers by hand in a {@link #plainChanges()}
+     * subscriber.
+     *
+     * <p>The default implementation throws an {@link UnsupportedOperationException}, so that implementations
+     * written before this method was added still compile; the documents of this library implement it.</p>
+     *
+     * @param position the initial position of the anchor, between 0 and {@link #getLength()} (inclusive)
+     * @param stickiness whether the anchor stays before ({@link TwoDimensional.Bias#Backward}) or moves after
+     *                   ({@link TwoDimensional.Bias#Forward}) text inserted at its position
+     * @throws IndexOutOfBoundsException if the position is not within this document
+     * @throws UnsupportedOperationException if this document does not support anchors
+     */
+    default Anchor createAnchor(int position, TwoDimensional.Bias stickiness) {
+        throw new UnsupportedOperationException("Anchors are not supported by " + getClass().getName());
+    }
+
+    /**
+     * Starts keeping an aggregate of this document's paragraphs up to date: {@code summarizer} summarizes each
+     * paragraph, and its {@link ToSemigroup#reduce(Object, Object) reduce} operation, which must be associative,
+     * combines the summaries of consecutive paragraphs. An edit only summarizes the paragraphs it adds, and the
+     * summary is updated before the change events of the edit are emitted. Dispose the returned summary once
+     * it is no longer needed.
+     *
+     * <p>The default implementation throws an {@link UnsupportedOperationException}, so that implementations
+     * written before this method was added still compile; the documents of this library implement it.</p>
+     *
+     * @throws UnsupportedOperationException if this document does not support summaries
+     */
+    default <T> DocumentSummary<T> addSummary(ToSemigroup<? super Paragraph<PS, SEG, S>, T> summarizer) {
+        throw new UnsupportedOperationException("Summaries are not supported by " + getClass().getName());
+    }
+
+    /**
+     * Gets the word, code point and paragraph counts of this document, which are kept up to date incrementally
+     * once this method has been called for the first time.
+     *
+     * <p>The default implementation throws an {@link UnsupportedOperationException}, so that implementations
+     * written before this method was added still compile; the documents of this library implement it.</p>
+     *
+     * @throws UnsupportedOperationException if this document does not support statistics
+     */
+    default DocumentStatistics getStatistics() {
+        throw new UnsupportedOperationException("Statistics are not supported by " + getClass().getName());
+    }
+
     /* ********************************************************************** *
      *                                                                        *
      * Actions                                                                *
@@ -20,6 +20,7 @@ import org.reactfx.collection.MaterializedListModification;
 import org.reactfx.collection.QuasiListModification;
 import org.reactfx.collection.SuspendableList;
 import org.reactfx.collection.UnmodifiableByDefaultLiveList;
+import org.reactfx.util.ToSemigroup;
 import org.reactfx.util.Tuple2;
 import org.reactfx.util.Tuples;
 import org.reactfx.value.SuspendableVal;
@@ -92,6 +93,12 @@ class GenericEditableStyledDocumentBase<PS, SEG, S> implements EditableStyledDoc
     @Override public final SuspendableNo beingUpdatedProperty() { return beingUpdated; }
     @Override public final boolean isBeingUpdated() { return beingUpdated.get(); }
 
+    private final AnchorTree backwardAnchors = new AnchorTree(Backward);
+    private final AnchorTree forwardAnchors = new AnchorTree(Forward);
+
+    private final List<DocumentSummaryTree<PS, SEG, S, ?>> summaries = new ArrayList<>();
+    private DocumentStatistics statistics;
+
     /**
      * Creates an {@link EditableStyledDocument} with the given document as its initial content
      */
@@ -135,6 +142,29 @@ class GenericEditableStyledDocumentBase<PS, SEG, S> implements EditableStyledDoc
         return doc.offsetToPosition(offset, bias);
     }
 
+    @Override
+    public Anchor createAnchor(int position, Bias stickiness) {
+        if (position < 0 || position > doc.length()) {
+            throw new IndexOutOfBoundsException("Anchor position " + position + " is out of bounds [0, " + doc.length() + "]");
+        }
+        return (stickiness == Forward ? forwardAnchors : backwardAnchors).add(position);
+    }
+
+    @Override
+    public <T> DocumentSummary<T> addSummary(ToSemigroup<? super Paragraph<PS, SEG, S>, T> summarizer) {
+        DocumentSummaryTree<PS, SEG, S, T> summary = new DocumentSummaryTree<>(doc.getParagraphs(), summarizer, summaries::remove);
+        summaries.add(summary);
+        return summary;
+    }
+
+    @Override
+    public DocumentStatistics getStatistics() {
+        if (statistics == null) {
+            statistics = new DocumentStatistics(this);
+        }
+        return statistics;
+    }
+
     @Override
     public void replaceMulti(List<Replacement<PS, SEG, S>> replacements) {
         doc.replaceMulti(replacements).exec(this::updateMulti);
@@ -214,11 +244,45 @@ class GenericEditableStyledDocumentBase<PS, SEG, S> implements EditableStyledDoc
             ReadOnlyStyledDocument<PS, SEG, S> newValue,
             List<RichTextChange<PS, SEG, S>> richChanges,
             List<MaterializedListModification<Paragraph<PS, SEG, S>>> parChanges) {
+        Object event = DocumentEvents.beginPropagate();
         this.doc = newValue;
+        rebaseAnchors(richChanges);
+        updateSummaries(parChanges);
         beingUpdated.suspendWhile(() -> {
             internalRichChangeList.push(richChanges);
             parChangesList.push(parChanges);
         });
+        DocumentEvents.commitPropagate(event, newValue, richChanges.size(), parChanges);
     }
 
+    /**
+     * Updates the summaries so that they are up to date by the time the changes are emitted.
+     */
+    private void updateSummaries(List<MaterializedListModification<Paragraph<PS, SEG, S>>> parChanges) {
+        for (DocumentSummaryTree<PS, SEG, S, ?> summary : summaries) {
+            for (MaterializedListModification<Paragraph<PS, SEG, S>> mod : parChanges) {
+                summary.replace(mod.getFrom(), mod.getRemovedSize(), mod.getAdded());
+            }
+        }
+    }
+
+    /**
+     * Moves the anchors so that they are up to date by the time the changes are emitted.
+     */
+    private void rebaseAnchors(List<RichTextChange<PS, SEG, S>> richChanges) {
+        if (backwardAnchors.isEmpty() && forwardAnchors.isEmpty()) {
+            return;
+        }
+
+        for (RichTextChange<PS, SEG, S> change : richChanges) {
+            // style changes do not move anchors
+            if (!change.isPlainTextIdentity()) {
+                int position = change.getPosition();
+                int removedLength = change.getRemovalEnd() - position;
+                int insertedLength = change.getInsertionEnd() - position;
+                backwardAnchors.replace(position, removedLength, insertedLength);
+                forwardAnchors.replace(position, removedLength, insertedLength);
+            }
+        }
+    }
 }
@@ -1,22 +1,71 @@
 package org.fxmisc.richtext.model;
 
+import java.util.function.Supplier;
+
 /**
  * An object that specifies where a non-style change occurred in a {@link org.fxmisc.richtext.GenericStyledArea}.
+ *
+ * <p>The changes emitted by an {@link EditableStyledDocument} only create their removed and inserted text when
+ * {@link #getRemoved()} or {@link #getInserted()} is called, so listeners that only need the position and
+ * lengths of a change (e.g. {@link #getRemovalEnd()} and {@link #getNetLength()}) stay cheap regardless of how
+ * much text the change removed or inserted.</p>
  */
 public class PlainTextChange extends TextChange<String, PlainTextChange> {
 
+    private final int removedLength;
+    private final int insertedLength;
+
+    // the text of a change created from suppliers, which is only created on the first request
+    private String lazyRemoved;
+    private String lazyInserted;
+    private Supplier<String> removedSupplier;
+    private Supplier<String> insertedSupplier;
+
     public PlainTextChange(int position, String removed, String inserted) {
         super(position, removed, inserted);
+        this.removedLength = removed.length();
+        this.insertedLength = inserted.length();
+    }
+
+    /**
+     * Creates a change whose removed and inserted text, of the given lengths, are only created when requested
+     * through {@link #getRemoved()} and {@link #getInserted()}. The {@link #removed} and {@link #inserted} fields
+     * of such a change stay {@code null}, which is why this constructor is not available to subclasses.
+     */
+    PlainTextChange(int position, int removedLength, Supplier<String> removed, int insertedLength, Supplier<String> inserted) {
+        super(position, null, null);
+        this.removedLength = removedLength;
+        this.insertedLength = insertedLength;
+        this.removedSupplier = removed;
+        this.insertedSupplier = inserted;
+    }
+
+    @Override
+    public String getRemoved() {
+        if (removedSupplier != null) {
+            lazyRemoved = removedSupplier.get();
+            removedSupplier = null;
+        }
+        return removed != null ? removed : lazyRemoved;
+    }
+
+    @Override
+    public String getInserted() {
+        if (insertedSupplier != null) {
+            lazyInserted = insertedSupplier.get();
+            insertedSupplier = null;
+        }
+        return inserted != null ? inserted : lazyInserted;
     }
 
     @Override
     protected int removedLength() {
-        return removed.length();
+        return removedLength;
     }
 
     @Override
     protected int insertedLength() {
-        return inserted.length();
+        return insertedLength;
     }
 
     @Override
@@ -12,9 +12,9 @@ import java.util.List;
 import java.util.Objects;
 import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.UnaryOperator;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.reactfx.collection.MaterializedListModification;
 import org.reactfx.util.BiIndex;
@@ -79,7 +79,8 @@ public final class ReadOnlyStyledDocument<PS, SEG, S> implements StyledDocument<
 
     }
 
-    private static final Pattern LINE_TERMINATOR = Pattern.compile("\r\n|\r|\n");
+    /** Number of chars below which {@link #fromStringInParallel} does not split the text any further */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
 
     private static final BiFunction<Summary, Integer, Either<Integer, Integer>> NAVIGATE =
             (s, i) -> i <= s.length() ? left(i) : right(i - (s.length() + 1));
@@ -96,23 +97,112 @@ public final class ReadOnlyStyledDocument<PS, SEG, S> implements StyledDocument<
      * @param <S> The type of the style of individual segments.
      */
     public static <PS, SEG, S> ReadOnlyStyledDocument<PS, SEG, S> fromString(String str, PS paragraphStyle, S style, TextOps<SEG, S> segmentOps) {
-        Matcher m = LINE_TERMINATOR.matcher(str);
-
-        int n = 1;
-        while(m.find()) ++n;
-        List<Paragraph<PS, SEG, S>> res = new ArrayList<>(n);
-
-        int start = 0;
-        m.reset();
-        while(m.find()) {
-            String s = str.substring(start, m.start());
-            res.add(new Paragraph<>(paragraphStyle, segmentOps, segmentOps.create(s), style));
-            start = m.end();
+        List<Paragraph<PS, SEG, S>> res = new ArrayList<>();
+        addLines(str, 0, str.length(), paragraphStyle, style, segmentOps, res);
+        return new ReadOnlyStyledDocument<>(res);
+    }
+
+    /**
+     * Same as {@link #fromString(String, Object, Object, TextOps)}, except that the paragraphs of a large text are
+     * created in parallel, in the common {@link ForkJoinPool}: the text is split into chunks of whole lines,
+     * each chunk is turned into a tree of paragraphs, and the trees are joined into the tree of the document.
+     * It is meant for loading large files, and thus requires {@code segmentOps} to be safe to call
+     * from several threads at once, which the stateless {@link TextOps} of this library are.
+     *
+     * @param str the text to use to create the segments
+     * @param paragraphStyle the paragraph style to use for each paragraph in the returned document
+     * @param style the style to use for each segment in the document
+     * @param segmentOps the operations object that can create a segment from a given text
+     * @param <PS> The type of the paragraph style.
+     * @param <SEG> The type of the segments in the paragraph (e.g. {@link String}).
+     * @param <S> The type of the style of individual segments.
+     */
+    public static <PS, SEG, S> ReadOnlyStyledDocument<PS, SEG, S> fromStringInParallel(String str, PS paragraphStyle, S style, TextOps<SEG, S> segmentOps) {
+        if (str.length() <= PARALLEL_THRESHOLD) {
+            return fromString(str, paragraphStyle, style, segmentOps);
         }
-        String last = str.substring(start);
-        res.add(new Paragraph<>(paragraphStyle, segmentOps, segmentOps.create(last), style));
+        FingerTree<Paragraph<PS, SEG, S>, Summary> tree = ForkJoinPool.commonPool().invoke(
+                new LinesTask<>(str, 0, str.length(), paragraphStyle, style, segmentOps));
+        return new ReadOnlyStyledDocument<>(tree.caseEmpty().unify(
+                emptyTree -> { throw new AssertionError("Unreachable code"); },
+                neTree -> neTree));
+    }
 
-        return new ReadOnlyStyledDocument<>(res);
+    /**
+     * Adds to {@code res} a paragraph for each line of {@code str} between {@code from} and {@code to}, which
+     * start a line. The line that starts at {@code to} is only added if it is the last one of {@code str}.
+     */
+    private static <PS, SEG, S> void addLines(String str, int from, int to, PS paragraphStyle, S style,
+                                              TextOps<SEG, S> segmentOps, List<Paragraph<PS, SEG, S>> res) {
+        int start = from;
+        for (int i = from; i < to; i++) {
+            char c = str.charAt(i);
+            if (c == '\n' || c == '\r') {
+                res.add(new Paragraph<>(paragraphStyle, segmentOps, segmentOps.create(str.substring(start, i)), style));
+                if (c == '\r' && i + 1 < to && str.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                start = i + 1;
+            }
+        }
+        if (to == str.length()) {
+            res.add(new Paragraph<>(paragraphStyle, segmentOps, segmentOps.create(str.substring(start, to)), style));
+        }
+    }
+
+    /**
+     * Returns the start of the first line that starts after {@code from} and not after {@code to},
+     * or -1 if there is none.
+     */
+    private static int nextLineStart(String str, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = str.charAt(i);
+            if (c == '\n') {
+                return i + 1;
+            } else if (c == '\r') {
+                return i + 1 < to && str.charAt(i + 1) == '\n' ? i + 2 : i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Creates the tree of the paragraphs of the lines between two line starts, see
+     * {@link #fromStringInParallel(String, Object, Object, TextOps)}.
+     */
+    private static final class LinesTask<PS, SEG, S> extends RecursiveTask<FingerTree<Paragraph<PS, SEG, S>, Summary>> {
+        private final String str;
+        private final int from;
+        private final int to;
+        private final PS paragraphStyle;
+        private final S style;
+        private final TextOps<SEG, S> segmentOps;
+
+        LinesTask(String str, int from, int to, PS paragraphStyle, S style, TextOps<SEG, S> segmentOps) {
+            this.str = str;
+            this.from = from;
+            this.to = to;
+            this.paragraphStyle = paragraphStyle;
+            this.style = style;
+            this.segmentOps = segmentOps;
+        }
+
+        @Override
+        protected FingerTree<Paragraph<PS, SEG, S>, Summary> compute() {
+            if (to - from > PARALLEL_THRESHOLD) {
+                int mid = nextLineStart(str, from + (to - from) / 2, to);
+                if (mid != -1) {
+                    LinesTask<PS, SEG, S> leftTask = new LinesTask<>(str, from, mid, paragraphStyle, style, segmentOps);
+                    leftTask.fork();
+                    FingerTree<Paragraph<PS, SEG, S>, Summary> right =
+                            new LinesTask<>(str, mid, to, paragraphStyle, style, segmentOps).compute();
+                    return leftTask.join().join(right);
+                }
+            }
+            List<Paragraph<PS, SEG, S>> lines = new ArrayList<>();
+            addLines(str, from, to, paragraphStyle, style, segmentOps, lines);
+            return FingerTree.mkTree(lines, summaryProvider());
+        }
     }
 
     /**
@@ -413,23 +503,27 @@ public final class ReadOnlyStyledDocument<PS, SEG, S> implements StyledDocument<
     // Note: there must be a "ensureValid_()" call preceding the call of this method
     private Tuple3<ReadOnlyStyledDocument<PS, SEG, S>, RichTextChange<PS, SEG, S>, MaterializedListModification<Paragraph<PS, SEG, S>>> replace(
             BiIndex start, BiIndex end, UnaryOperator<ReadOnlyStyledDocument<PS, SEG, S>> f) {
+        Object event = DocumentEvents.beginReplace();
         int pos = tree.getSummaryBetween(0, start.major).map(s -> s.length() + 1).orElse(0) + start.minor;
 
         List<Paragraph<PS, SEG, S>> removedPars =
                 getParagraphs().subList(start.major, end.major + 1);
 
-        return end.map(this::split).map((l0, r) -> {
-            return start.map(l0::split).map((l, removed) -> {
-                ReadOnlyStyledDocument<PS, SEG, S> replacement = f.apply(removed);
-                ReadOnlyStyledDocument<PS, SEG, S> doc = l.concatR(replacement).concat(r);
-                // Next we use doc.subSequence instead of replacement because Paragraph.concat's returned paragraph style can vary.
-                RichTextChange<PS, SEG, S> change = new RichTextChange<>(pos, removed, doc.subSequence(pos, pos+replacement.length()));
-                List<Paragraph<PS, SEG, S>> addedPars = doc.getParagraphs().subList(start.major, start.major + replacement.getParagraphCount());
-                MaterializedListModification<Paragraph<PS, SEG, S>> parChange =
-                        MaterializedListModification.create(start.major, removedPars, addedPars);
-                return t(doc, change, parChange);
-            });
-        });
+        Tuple3<ReadOnlyStyledDocument<PS, SEG, S>, RichTextChange<PS, SEG, S>, MaterializedListModification<Paragraph<PS, SEG, S>>> result =
+                end.map(this::split).map((l0, r) -> {
+                    return start.map(l0::split).map((l, removed) -> {
+                        ReadOnlyStyledDocument<PS, SEG, S> replacement = f.apply(removed);
+                        ReadOnlyStyledDocument<PS, SEG, S> doc = l.concatR(replacement).concat(r);
+                        // Next we use doc.subSequence instead of replacement because Paragraph.concat's returned paragraph style can vary.
+                        RichTextChange<PS, SEG, S> change = new RichTextChange<>(pos, removed, doc.subSequence(pos, pos+replacement.length()));
+                        List<Paragraph<PS, SEG, S>> addedPars = doc.getParagraphs().subList(start.major, start.major + replacement.getParagraphCount());
+                        MaterializedListModification<Paragraph<PS, SEG, S>> parChange =
+                                MaterializedListModification.create(start.major, removedPars, addedPars);
+                        return t(doc, change, parChange);
+                    });
+                });
+        DocumentEvents.commitReplace(event, result._1, result._3.getRemovedSize(), result._3.getAddedSize());
+        return result;
     }
 
     /**
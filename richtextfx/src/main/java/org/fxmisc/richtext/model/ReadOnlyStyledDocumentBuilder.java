@@ -3,6 +3,7 @@ package org.fxmisc.richtext.model;
 import org.reactfx.util.Tuple2;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -195,17 +196,38 @@ public final class ReadOnlyStyledDocumentBuilder<PS, SEG, S> {
             ));
         }
 
-        int styleOffset = 0;
+        // cut the document's spans into the paragraphs' spans in a single pass, rather than creating
+        // a view of the document's spans for each paragraph, which costs a search from its first span
+        Iterator<StyleSpan<S>> spanIterator = spansThroughoutDocument.iterator();
+        StyleSpan<S> span = spanIterator.next(); // remember that all StyleSpans have at least one StyleSpan
+        int spanRemaining = span.getLength();
         for (T paragraphContent : paragraphContentList) {
             PS paragraphStyle = argumentOrDefault(getStyle.apply(paragraphContent));
             List<SEG> segList = getSegList.apply(paragraphContent);
 
             int paragraphLength = segList.stream().mapToInt(segmentOps::length).sum();
-            int styleEnd = styleOffset + paragraphLength;
-            StyleSpans<S> spans = spansThroughoutDocument.subView(styleOffset, styleEnd);
+            while (spanRemaining == 0 && spanIterator.hasNext()) {
+                span = spanIterator.next();
+                spanRemaining = span.getLength();
+            }
+            StyleSpans<S> spans;
+            if (paragraphLength <= spanRemaining) {
+                spans = StyleSpans.singleton(span.getStyle(), paragraphLength);
+                spanRemaining -= paragraphLength;
+            } else {
+                StyleSpansBuilder<S> builder = new StyleSpansBuilder<>();
+                builder.add(span.getStyle(), spanRemaining);
+                int remaining = paragraphLength - spanRemaining;
+                while (remaining > 0) {
+                    span = spanIterator.next();
+                    int length = Math.min(remaining, span.getLength());
+                    builder.add(span.getStyle(), length);
+                    remaining -= length;
+                    spanRemaining = span.getLength() - length;
+                }
+                spans = builder.create();
+            }
             addPar(new Paragraph<>(paragraphStyle, segmentOps, segList, spans));
-
-            styleOffset = styleEnd;
         }
         return this;
     }
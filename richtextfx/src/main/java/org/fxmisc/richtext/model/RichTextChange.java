@@ -1,5 +1,7 @@
 package org.fxmisc.richtext.model;
 
+import java.util.List;
+
 /**
  * An object that specifies where a change occurred in a {@link org.fxmisc.richtext.GenericStyledArea}.
  */
@@ -34,16 +36,35 @@ public class RichTextChange<PS, SEG, S> extends TextChange<StyledDocument<PS, SE
         return new RichTextChange<>(position, removed, inserted);
     }
 
+    /**
+     * Returns the plain text version of this change. Its removed and inserted text are only created when requested.
+     */
     public final PlainTextChange toPlainTextChange() {
-        return new PlainTextChange(position, removed.getText(), inserted.getText());
+        return new PlainTextChange(position,
+                removed.length(), removed::getText,
+                inserted.length(), inserted::getText);
     }
 
     /**
      * Equivalent to {@code richChange.toPlainTextChange().isIdentity()} but without the additional object
-     * creation via {@link #toPlainTextChange()}.
+     * creation via {@link #toPlainTextChange()}. Changes of different lengths are told apart without looking at
+     * their text, and the text of other changes is compared paragraph by paragraph.
      */
     public final boolean isPlainTextIdentity() {
-        return removed.getText().equals(inserted.getText());
+        if (removed.length() != inserted.length()) {
+            return false;
+        }
+        List<Paragraph<PS, SEG, S>> removedPars = removed.getParagraphs();
+        List<Paragraph<PS, SEG, S>> insertedPars = inserted.getParagraphs();
+        if (removedPars.size() != insertedPars.size()) {
+            return false;
+        }
+        for (int i = 0; i < removedPars.size(); i++) {
+            if (!removedPars.get(i).getText().equals(insertedPars.get(i).getText())) {
+                return false;
+            }
+        }
+        return true;
     }
     
     private static boolean skipStyleComparison = false;
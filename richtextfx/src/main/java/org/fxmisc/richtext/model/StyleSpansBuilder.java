@@ -191,18 +191,26 @@ public class StyleSpansBuilder<S> {
 
 
 abstract class StyleSpansBase<S> implements StyleSpans<S> {
-    protected final TwoLevelNavigator navigator = new TwoLevelNavigator(
-            this::getSpanCount,
-            i -> getStyleSpan(i).getLength());
+    /** Created on first use, since most style spans (e.g. those of each paragraph of a document) never navigate */
+    private TwoLevelNavigator navigator;
+
+    private TwoLevelNavigator navigator() {
+        if (navigator == null) {
+            navigator = new TwoLevelNavigator(
+                    this::getSpanCount,
+                    i -> getStyleSpan(i).getLength());
+        }
+        return navigator;
+    }
 
     @Override
     public Position position(int major, int minor) {
-        return navigator.position(major, minor);
+        return navigator().position(major, minor);
     }
 
     @Override
     public Position offsetToPosition(int offset, Bias bias) {
-        return navigator.offsetToPosition(offset, bias);
+        return navigator().offsetToPosition(offset, bias);
     }
 
     @Override
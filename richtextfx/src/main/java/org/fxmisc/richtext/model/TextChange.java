@@ -34,7 +34,7 @@ public abstract class TextChange<S, Self extends TextChange<S, Self>> {
      * Returns a new subclass of {@link TextChange} that makes the {@code inserted} the removed object and
      * the {@code removed} the inserted object
      */
-    public Self invert() { return create(position, inserted, removed); }
+    public Self invert() { return create(position, getInserted(), getRemoved()); }
 
     /** Returns the position where the removal ends (e.g. {@code position + removedLength())} */
     public int getRemovalEnd() { return position + removedLength(); }
@@ -58,7 +58,7 @@ public abstract class TextChange<S, Self extends TextChange<S, Self>> {
      * See also {@link java.util.function.Function#identity()}
      */
     public final boolean isIdentity() {
-        return removed.equals(inserted);
+        return removedLength() == insertedLength() && getRemoved().equals(getInserted());
     }
 
     /**
@@ -76,17 +76,17 @@ public abstract class TextChange<S, Self extends TextChange<S, Self>> {
      */
     public Optional<Self> mergeWith(Self latter) {
         if(latter.position == this.position + this.insertedLength()) {
-            S removedText = concat(this.removed, latter.removed);
-            S addedText = concat(this.inserted, latter.inserted);
+            S removedText = concat(this.getRemoved(), latter.getRemoved());
+            S addedText = concat(this.getInserted(), latter.getInserted());
             return Optional.of(create(this.position, removedText, addedText));
         } else if(latter.position + latter.removedLength() == this.position + this.insertedLength()) {
             if(this.position <= latter.position) {
-                S addedText = concat(sub(this.inserted, 0, latter.position - this.position), latter.inserted);
-                return Optional.of(create(this.position, this.removed, addedText));
+                S addedText = concat(sub(this.getInserted(), 0, latter.position - this.position), latter.getInserted());
+                return Optional.of(create(this.position, this.getRemoved(), addedText));
             }
             else {
-                S removedText = concat(sub(latter.removed, 0, this.position - latter.position), this.removed);
-                return Optional.of(create(latter.position, removedText, latter.inserted));
+                S removedText = concat(sub(latter.getRemoved(), 0, this.position - latter.position), this.getRemoved());
+                return Optional.of(create(latter.position, removedText, latter.getInserted()));
             }
         } else {
             return Optional.empty();
@@ -98,8 +98,8 @@ public abstract class TextChange<S, Self extends TextChange<S, Self>> {
         if(other instanceof TextChange) {
             TextChange<?, ?> that = (TextChange<?, ?>) other;
             return Objects.equals(this.position, that.position)
-                && Objects.equals(this.removed,  that.removed )
-                && Objects.equals(this.inserted, that.inserted);
+                && Objects.equals(this.getRemoved(),  that.getRemoved() )
+                && Objects.equals(this.getInserted(), that.getInserted());
         } else {
             return false;
         }
@@ -107,7 +107,7 @@ public abstract class TextChange<S, Self extends TextChange<S, Self>> {
 
     @Override
     public int hashCode() {
-        return Objects.hash(position, removed, inserted);
+        return Objects.hash(position, getRemoved(), getInserted());
     }
 
     @Override
@@ -115,8 +115,8 @@ public abstract class TextChange<S, Self extends TextChange<S, Self>> {
         return
                 this.getClass().getSimpleName() + "{\n" +
                 "\tposition: "  + position  + "\n" +
-                "\tremoved: "   + removed   + "\n" +
-                "\tinserted: "  + inserted  + "\n" +
+                "\tremoved: "   + getRemoved()   + "\n" +
+                "\tinserted: "  + getInserted()  + "\n" +
                 "}";
     }
 }
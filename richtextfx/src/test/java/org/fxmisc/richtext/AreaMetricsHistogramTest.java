@@ -0,0 +1,87 @@
+package org.fxmisc.richtext;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AreaMetricsHistogramTest {
+
+    private static AreaMetrics.Histogram histogram(long... nanos) {
+        AreaMetrics.Histogram histogram = new AreaMetrics.Histogram();
+        for (long n : nanos) {
+            histogram.record(n);
+        }
+        return histogram;
+    }
+
+    @Test
+    public void emptyHistogramHasNoPercentiles() {
+        AreaMetrics.Histogram histogram = histogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMeanNanos());
+        assertEquals(0, histogram.getPercentileNanos(0));
+        assertEquals(0, histogram.getPercentileNanos(50));
+        assertEquals(0, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    public void zeroAndOneAreInTheFirstBucket() {
+        AreaMetrics.Histogram histogram = histogram(0, 1);
+        assertEquals(2, histogram.getBucketCounts()[0]);
+        assertEquals(0, histogram.getBucketCounts()[1]);
+        assertEquals(1, histogram.getPercentileNanos(100));
+
+        // a percentile never exceeds the largest duration
+        assertEquals(0, histogram(0).getPercentileNanos(50));
+    }
+
+    @Test
+    public void powersOfTwoStartTheirBucket() {
+        for (int k = 1; k < 63; k++) {
+            long[] buckets = histogram(1L << k, (1L << k) - 1).getBucketCounts();
+            assertEquals(1, buckets[k], "2^" + k);
+            assertEquals(1, buckets[k - 1], "2^" + k + " - 1");
+        }
+    }
+
+    @Test
+    public void negativeDurationsAreRecordedAsZero() {
+        AreaMetrics.Histogram histogram = histogram(-5);
+        assertEquals(1, histogram.getBucketCounts()[0]);
+        assertEquals(0, histogram.getTotalNanos());
+        assertEquals(0, histogram.getMaxNanos());
+    }
+
+    @Test
+    public void percentilesAreTheUpperBoundsOfTheirBuckets() {
+        AreaMetrics.Histogram histogram = histogram(1, 2, 4, 8);
+        assertEquals(4, histogram.getCount());
+        assertEquals(15, histogram.getTotalNanos());
+        assertEquals(3.75, histogram.getMeanNanos());
+
+        // p0 is the first recorded bucket
+        assertEquals(1, histogram.getPercentileNanos(0));
+        assertEquals(1, histogram.getPercentileNanos(25));
+        assertEquals(3, histogram.getPercentileNanos(50));
+        assertEquals(7, histogram.getPercentileNanos(75));
+        // the last bucket is capped by the largest duration
+        assertEquals(8, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    public void lastBucketReportsTheLargestDuration() {
+        AreaMetrics.Histogram histogram = histogram(Long.MAX_VALUE);
+        assertEquals(1, histogram.getBucketCounts()[62]);
+        assertEquals(Long.MAX_VALUE, histogram.getPercentileNanos(50));
+    }
+
+    @Test
+    public void resetClearsEverything() {
+        AreaMetrics.Histogram histogram = histogram(3, 300, 30_000);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getTotalNanos());
+        assertEquals(0, histogram.getMaxNanos());
+        assertArrayEquals(new long[64], histogram.getBucketCounts());
+    }
+}
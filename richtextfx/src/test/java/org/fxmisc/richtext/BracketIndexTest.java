@@ -0,0 +1,78 @@
+package org.fxmisc.richtext;
+
+import org.fxmisc.richtext.model.ReadOnlyStyledDocument;
+import org.fxmisc.richtext.model.SegmentOps;
+import org.fxmisc.richtext.model.SimpleEditableStyledDocument;
+import org.junit.jupiter.api.Test;
+import org.reactfx.util.BiIndex;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BracketIndexTest {
+
+    private static SimpleEditableStyledDocument<String, String> document(String... lines) {
+        SimpleEditableStyledDocument<String, String> document = new SimpleEditableStyledDocument<>("", "");
+        replaceText(document, 0, 0, String.join("\n", lines));
+        return document;
+    }
+
+    private static void replaceText(SimpleEditableStyledDocument<String, String> document, int start, int end, String text) {
+        document.replace(start, end, ReadOnlyStyledDocument.fromString(text, "", "", SegmentOps.styledTextOps()));
+    }
+
+    private static String match(BracketIndex index, int paragraph, int column) {
+        Optional<BiIndex> match = index.findMatchingBracket(paragraph, column);
+        return match.map(m -> m.major + ":" + m.minor).orElse("none");
+    }
+
+    @Test
+    public void bracketsAreMatchedWithinAParagraph() {
+        BracketIndex index = new BracketIndex("(){}[]", document("f(a[0], (b))"));
+        assertEquals("0:11", match(index, 0, 1));
+        assertEquals("0:1", match(index, 0, 11));
+        assertEquals("0:5", match(index, 0, 3));
+        assertEquals("0:10", match(index, 0, 8));
+        assertEquals("none", match(index, 0, 0));
+    }
+
+    @Test
+    public void bracketsAreMatchedAcrossParagraphs() {
+        BracketIndex index = new BracketIndex("(){}[]", document(
+                "class A {",
+                "  void f() {",
+                "    if (x) { y(); }",
+                "  }",
+                "}"));
+        assertEquals("4:0", match(index, 0, 8));
+        assertEquals("0:8", match(index, 4, 0));
+        assertEquals("3:2", match(index, 1, 11));
+        assertEquals("1:11", match(index, 3, 2));
+    }
+
+    @Test
+    public void unbalancedBracketsHaveNoMatch() {
+        BracketIndex index = new BracketIndex("()", document("(", "((", ")"));
+        assertEquals("none", match(index, 0, 0));
+        assertEquals("none", match(index, 1, 0));
+        assertEquals("2:0", match(index, 1, 1));
+    }
+
+    @Test
+    public void indexFollowsDocumentEdits() {
+        SimpleEditableStyledDocument<String, String> document = document("{", "a", "}");
+        BracketIndex index = new BracketIndex("{}", document);
+        assertEquals("2:0", match(index, 0, 0));
+
+        // paragraph "a" is replaced by "{" and "b"
+        replaceText(document, 2, 3, "{\nb");
+        assertEquals("none", match(index, 0, 0));
+        assertEquals("3:0", match(index, 1, 0));
+
+        replaceText(document, document.getLength(), document.getLength(), "\n}");
+        assertEquals("4:0", match(index, 0, 0));
+
+        index.dispose();
+    }
+}
@@ -0,0 +1,120 @@
+package org.fxmisc.richtext;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DecorationLayerTest {
+
+    /** A layer for the text "hello world\nfoo bar\nbaz" */
+    private static DecorationLayer<String> layer() {
+        int[] lengths = { 11, 7, 3 };
+        return new DecorationLayer<>(lengths.length, i -> lengths[i]);
+    }
+
+    private static String decorations(DecorationLayer<String> layer, int paragraph) {
+        return layer.getDecorations(paragraph).stream()
+                .map(d -> d.getStart() + "-" + d.getEnd() + ":" + d.getStyle())
+                .collect(Collectors.joining(" "));
+    }
+
+    /** Replaces {@code removed} by {@code inserted} at {@code position}, as the area would */
+    private static void replace(DecorationLayer<String> layer, int position, String removed, String inserted) {
+        String[] lines = inserted.split("\n", -1);
+        layer.replace(position, removed.length(), lines.length, i -> lines[i].length());
+    }
+
+    @Test
+    public void decorationsAreSplitAtParagraphBoundaries() {
+        DecorationLayer<String> layer = layer();
+        layer.add(6, 15, "hit");
+        assertEquals(2, layer.size());
+        assertEquals("6-11:hit", decorations(layer, 0));
+        assertEquals("0-3:hit", decorations(layer, 1));
+        assertEquals("", decorations(layer, 2));
+    }
+
+    @Test
+    public void insertionMovesAndExtendsDecorations() {
+        DecorationLayer<String> layer = layer();
+        layer.add(0, 5, "a");
+        layer.add(6, 11, "b");
+
+        // inserted at the start of "world": "b" moves, "a" does not grow
+        replace(layer, 6, "", "big ");
+        assertEquals("0-5:a 10-15:b", decorations(layer, 0));
+
+        // inserted inside "hello": "a" grows
+        replace(layer, 2, "", "--");
+        assertEquals("0-7:a 12-17:b", decorations(layer, 0));
+    }
+
+    @Test
+    public void removalShrinksAndRemovesDecorations() {
+        DecorationLayer<String> layer = layer();
+        layer.add(0, 5, "a");
+        layer.add(6, 11, "b");
+
+        // removes "lo wor"
+        replace(layer, 3, "lo wor", "");
+        assertEquals("0-3:a 3-5:b", decorations(layer, 0));
+
+        // removes everything "b" covered
+        replace(layer, 3, "ld", "");
+        assertEquals("0-3:a", decorations(layer, 0));
+        assertEquals(1, layer.size());
+    }
+
+    @Test
+    public void decorationsFollowParagraphSplitsAndMerges() {
+        DecorationLayer<String> layer = layer();
+        layer.add(12, 15, "foo");
+        layer.add(20, 23, "baz");
+
+        // splits "hello world" into two paragraphs
+        replace(layer, 5, " ", "\n");
+        assertEquals(4, layer.getParagraphCount());
+        assertEquals("0-3:foo", decorations(layer, 2));
+        assertEquals("0-3:baz", decorations(layer, 3));
+
+        // merges "foo bar" and "baz"
+        replace(layer, 19, "\n", "");
+        assertEquals(3, layer.getParagraphCount());
+        assertEquals("0-3:foo 7-10:baz", decorations(layer, 2));
+    }
+
+    @Test
+    public void batchedChangesAreEmittedOnce() {
+        DecorationLayer<String> layer = layer();
+        List<String> changes = new ArrayList<>();
+        layer.changes().subscribe(r -> changes.add(r.getStart() + "-" + r.getEnd()));
+
+        layer.batch(() -> {
+            layer.add(0, 1, "a");
+            layer.add(20, 21, "b");
+        });
+        assertEquals(List.of("0-3"), changes);
+
+        layer.remove(0, 1);
+        assertEquals("", decorations(layer, 0));
+        assertEquals(1, layer.size());
+    }
+
+    @Test
+    public void removingNothingEmitsNoChange() {
+        DecorationLayer<String> layer = layer();
+        layer.add(0, 5, "a");
+        List<String> changes = new ArrayList<>();
+        layer.changes().subscribe(r -> changes.add(r.getStart() + "-" + r.getEnd()));
+
+        layer.remove(6, 23);
+        assertEquals(List.of(), changes);
+
+        layer.remove(2, 15);
+        assertEquals(List.of("0-1"), changes);
+    }
+}
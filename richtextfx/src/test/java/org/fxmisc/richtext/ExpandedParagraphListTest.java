@@ -0,0 +1,129 @@
+package org.fxmisc.richtext;
+
+import org.fxmisc.richtext.model.Paragraph;
+import org.fxmisc.richtext.model.ReadOnlyStyledDocument;
+import org.fxmisc.richtext.model.SegmentOps;
+import org.fxmisc.richtext.model.SimpleEditableStyledDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactfx.collection.ListModification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpandedParagraphListTest {
+
+    private SimpleEditableStyledDocument<String, String> document;
+    private FoldModel foldModel;
+    private ExpandedParagraphList<String, String, String> list;
+
+    /** The expanded paragraphs, as known by an observer that only applies the changes of the list */
+    private List<Paragraph<String, String, String>> mirror;
+    private int changeCount;
+
+    @BeforeEach
+    public void setup() {
+        document = new SimpleEditableStyledDocument<>("", "");
+        replaceText(0, 0, "0\n1\n2\n3\n4\n5\n6\n7\n8\n9");
+        foldModel = new FoldModel(document.getParagraphs().size());
+        list = new ExpandedParagraphList<>(document.getParagraphs(), foldModel);
+        document.getParagraphs().changes().subscribe(list::paragraphsChanged);
+
+        mirror = new ArrayList<>(list);
+        changeCount = 0;
+        list.changes().subscribe(change -> {
+            changeCount++;
+            for (ListModification<? extends Paragraph<String, String, String>> mod : change.getModifications()) {
+                mirror.subList(mod.getFrom(), mod.getFrom() + mod.getRemovedSize()).clear();
+                mirror.addAll(mod.getFrom(), mod.getAddedSubList());
+            }
+        });
+    }
+
+    private void replaceText(int start, int end, String text) {
+        document.replace(start, end, ReadOnlyStyledDocument.fromString(text, "", "", SegmentOps.styledTextOps()));
+    }
+
+    private static String texts(List<Paragraph<String, String, String>> paragraphs) {
+        return paragraphs.stream().map(Paragraph::getText).collect(Collectors.joining(","));
+    }
+
+    private void assertExpanded(String expected) {
+        assertEquals(expected, texts(list));
+        assertEquals(expected, texts(mirror));
+    }
+
+    @Test
+    public void collapsedParagraphsAreRemovedAndExpandedOnesAreAddedBack() {
+        list.setFolded(2, 5, true);
+        assertExpanded("0,1,5,6,7,8,9");
+        assertEquals(1, changeCount);
+
+        list.setFolded(2, 5, false);
+        assertExpanded("0,1,2,3,4,5,6,7,8,9");
+        assertEquals(2, changeCount);
+    }
+
+    @Test
+    public void onlyTheParagraphsWhoseStateChangesArePartOfTheChange() {
+        list.setFolded(2, 4, true);
+        list.setFolded(6, 8, true);
+        assertExpanded("0,1,4,5,8,9");
+
+        // collapsing a range that is already partly collapsed removes the other paragraphs at once
+        list.setFolded(1, 9, true);
+        assertExpanded("0,9");
+
+        list.setFolded(6, 8, false);
+        assertExpanded("0,6,7,9");
+
+        // expanding everything only inserts the collapsed runs, so the cells of 0, 6, 7 and 9 are kept
+        list.setFolded(0, 10, false);
+        assertExpanded("0,1,2,3,4,5,6,7,8,9");
+
+        int changes = changeCount;
+        list.setFolded(0, 10, false);
+        assertEquals(changes, changeCount);
+    }
+
+    @Test
+    public void editsInsideACollapsedBlockDoNotChangeTheExpandedParagraphs() {
+        list.setFolded(3, 6, true);
+        int changes = changeCount;
+
+        // paragraph 4 is collapsed
+        int start = document.getAbsolutePosition(4, 0);
+        replaceText(start, start + 1, "x\ny");
+        assertEquals(11, document.getParagraphs().size());
+        assertEquals(changes, changeCount);
+        assertExpanded("0,1,2,6,7,8,9");
+        assertTrue(foldModel.isFolded(5));
+        assertEquals(7, foldModel.fromUnfoldedIndex(3));
+    }
+
+    @Test
+    public void editsOfExpandedParagraphsAreTranslated() {
+        list.setFolded(3, 6, true);
+
+        int start = document.getAbsolutePosition(8, 0);
+        replaceText(start, start + 1, "a\nb");
+        assertExpanded("0,1,2,6,7,a,b,9");
+
+        start = document.getAbsolutePosition(1, 0);
+        replaceText(start, start + 1, "c");
+        assertExpanded("0,c,2,6,7,a,b,9");
+    }
+
+    @Test
+    public void removingACollapsedBlockWithItsNeighboursOnlyRemovesTheExpandedOnes() {
+        list.setFolded(3, 6, true);
+
+        // removes paragraphs 2 to 6, of which 3 to 5 are collapsed
+        replaceText(document.getAbsolutePosition(2, 0), document.getAbsolutePosition(7, 0), "");
+        assertExpanded("0,1,7,8,9");
+        assertEquals(0, foldModel.getFoldedCount());
+    }
+}
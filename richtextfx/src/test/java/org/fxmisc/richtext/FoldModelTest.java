@@ -0,0 +1,128 @@
+package org.fxmisc.richtext;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FoldModelTest {
+
+    private static List<Boolean> states(FoldModel model) {
+        List<Boolean> states = new ArrayList<>();
+        for (int i = 0; i < model.getParagraphCount(); i++) {
+            states.add(model.isFolded(i));
+        }
+        return states;
+    }
+
+    @Test
+    public void foldingAndUnfoldingARange() {
+        FoldModel model = new FoldModel(10);
+        model.setFolded(3, 7, true);
+        assertEquals(4, model.getFoldedCount());
+        assertFalse(model.isFolded(2));
+        assertTrue(model.isFolded(3));
+        assertTrue(model.isFolded(6));
+        assertFalse(model.isFolded(7));
+        assertEquals(7, model.getRunEnd(4));
+
+        model.setFolded(4, 5, false);
+        assertEquals(3, model.getFoldedCount());
+        assertFalse(model.isFolded(4));
+        assertTrue(model.isFolded(5));
+    }
+
+    @Test
+    public void foldChangesAreEmitted() {
+        FoldModel model = new FoldModel(10);
+        List<String> ranges = new ArrayList<>();
+        model.foldChanges().subscribe(r -> ranges.add(r.getStart() + "-" + r.getEnd()));
+        model.setFolded(2, 5, true);
+        model.setFolded(3, 3, true);
+        assertEquals(List.of("2-5"), ranges);
+    }
+
+    @Test
+    public void insertingParagraphsInsideAFoldedBlockKeepsThemFolded() {
+        FoldModel model = new FoldModel(10);
+        model.setFolded(3, 7, true);
+
+        // paragraph 4 is split into 3 paragraphs
+        model.replace(4, 1, 3);
+        assertEquals(12, model.getParagraphCount());
+        assertEquals(6, model.getFoldedCount());
+        assertTrue(model.isFolded(8));
+        assertFalse(model.isFolded(9));
+    }
+
+    @Test
+    public void splittingTheParagraphBeforeAFoldedBlockDoesNotFoldTheNewParagraph() {
+        FoldModel model = new FoldModel(10);
+        model.setFolded(3, 7, true);
+
+        // paragraph 2 is split in two
+        model.replace(2, 1, 2);
+        assertEquals(List.of(false, false, false, false, true, true, true, true, false, false, false), states(model));
+    }
+
+    @Test
+    public void removingParagraphsShrinksTheFoldedBlock() {
+        FoldModel model = new FoldModel(10);
+        model.setFolded(3, 7, true);
+
+        // paragraphs 2 to 4 are merged into one
+        model.replace(2, 3, 1);
+        assertEquals(8, model.getParagraphCount());
+        assertEquals(List.of(false, false, false, true, true, false, false, false), states(model));
+    }
+
+    @Test
+    public void outOfBoundsParagraphIsRejected() {
+        FoldModel model = new FoldModel(3);
+        assertThrows(IndexOutOfBoundsException.class, () -> model.isFolded(3));
+    }
+
+    @Test
+    public void mappingBetweenAllAndUnfoldedIndexes() {
+        FoldModel model = new FoldModel(10);
+        model.setFolded(0, 2, true);
+        model.setFolded(4, 7, true);
+        // unfolded paragraphs: 2, 3, 7, 8, 9
+        assertEquals(5, model.getUnfoldedCount());
+
+        assertEquals(0, model.toUnfoldedIndex(0));
+        assertEquals(0, model.toUnfoldedIndex(2));
+        assertEquals(2, model.toUnfoldedIndex(5));
+        assertEquals(2, model.toUnfoldedIndex(7));
+        assertEquals(4, model.toUnfoldedIndex(9));
+        assertEquals(5, model.toUnfoldedIndex(10));
+
+        assertEquals(2, model.fromUnfoldedIndex(0));
+        assertEquals(3, model.fromUnfoldedIndex(1));
+        assertEquals(7, model.fromUnfoldedIndex(2));
+        assertEquals(9, model.fromUnfoldedIndex(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> model.fromUnfoldedIndex(5));
+
+        for (int i = 0; i < model.getUnfoldedCount(); i++) {
+            assertEquals(i, model.toUnfoldedIndex(model.fromUnfoldedIndex(i)));
+        }
+    }
+
+    @Test
+    public void nextUnfoldedParagraphSkipsTheFoldedBlock() {
+        FoldModel model = new FoldModel(10);
+        model.setFolded(0, 2, true);
+        model.setFolded(4, 7, true);
+
+        assertEquals(3, model.nextUnfolded(3, true));
+        assertEquals(7, model.nextUnfolded(5, true));
+        assertEquals(3, model.nextUnfolded(5, false));
+        assertEquals(2, model.nextUnfolded(1, true));
+        assertEquals(-1, model.nextUnfolded(1, false));
+
+        model.setFolded(8, 10, true);
+        assertEquals(-1, model.nextUnfolded(9, true));
+    }
+}
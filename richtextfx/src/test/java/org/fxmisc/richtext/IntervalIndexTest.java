@@ -0,0 +1,91 @@
+package org.fxmisc.richtext;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntervalIndexTest {
+
+    @Test
+    public void queryReportsOverlappingIntervalsInStartOrder() {
+        IntervalIndex<String> index = new IntervalIndex<>();
+        index.put("c", 10, 20);
+        index.put("a", 0, 2);
+        index.put("b", 3, 15);
+        index.put("d", 21, 21);
+
+        assertEquals(Arrays.asList("a"), index.getOverlapping(1, 1));
+        assertEquals(Arrays.asList("b", "c"), index.getOverlapping(12, 12));
+        assertEquals(Arrays.asList("c", "d"), index.getOverlapping(16, 30));
+        assertEquals(Arrays.asList("a", "b", "c", "d"), index.getOverlapping(0, 21));
+        assertTrue(index.getOverlapping(22, 40).isEmpty());
+    }
+
+    @Test
+    public void moveAndRemoveUpdateQueries() {
+        IntervalIndex<String> index = new IntervalIndex<>();
+        index.put("a", 0, 5);
+        index.put("b", 3, 4);
+
+        index.put("a", 7, 9);
+        assertEquals(7, index.getStart("a"));
+        assertEquals(9, index.getEnd("a"));
+        assertEquals(Arrays.asList("b"), index.getOverlapping(0, 5));
+
+        assertTrue(index.remove("b"));
+        assertFalse(index.remove("b"));
+        assertTrue(index.getOverlapping(0, 5).isEmpty());
+        assertEquals(1, index.size());
+        assertThrows(NoSuchElementException.class, () -> index.getStart("b"));
+    }
+
+    @Test
+    public void invalidIntervalIsRejected() {
+        IntervalIndex<String> index = new IntervalIndex<>();
+        assertThrows(IllegalArgumentException.class, () -> index.put("a", 2, 1));
+    }
+
+    @Test
+    public void randomOperationsMatchLinearScan() {
+        Random random = new Random(42);
+        IntervalIndex<Integer> index = new IntervalIndex<>();
+        Map<Integer, int[]> expected = new HashMap<>();
+
+        for (int i = 0; i < 5_000; i++) {
+            int element = random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(element) != null, index.remove(element));
+            } else {
+                int start = random.nextInt(1_000);
+                int end = start + random.nextInt(50);
+                index.put(element, start, end);
+                expected.put(element, new int[] { start, end });
+            }
+
+            int from = random.nextInt(1_050);
+            int to = from + random.nextInt(20);
+            List<Integer> actual = index.getOverlapping(from, to);
+            List<Integer> brute = new ArrayList<>();
+            expected.forEach((e, range) -> {
+                if (range[0] <= to && range[1] >= from) {
+                    brute.add(e);
+                }
+            });
+            assertEquals(brute.size(), actual.size(), "Wrong number of hits for [" + from + ", " + to + "]");
+            assertTrue(actual.containsAll(brute), "Missing hits for [" + from + ", " + to + "]");
+            for (int j = 1; j < actual.size(); j++) {
+                assertTrue(expected.get(actual.get(j - 1))[0] <= expected.get(actual.get(j))[0],
+                        "Hits are not in start order");
+            }
+        }
+        assertEquals(expected.size(), index.size());
+    }
+}
@@ -0,0 +1,67 @@
+package org.fxmisc.richtext;
+
+import org.junit.jupiter.api.Test;
+import org.reactfx.util.BiIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchHitsTest {
+
+    private static SearchHits sample() {
+        SearchHits hits = new SearchHits(5);
+        hits.setParagraphHits(1, new int[] { 0, 2, 5, 7 });
+        hits.setParagraphHits(3, new int[] { 4, 6 });
+        return hits;
+    }
+
+    @Test
+    public void hitsAreCountedAndLocated() {
+        SearchHits hits = sample();
+        assertEquals(5, hits.getParagraphCount());
+        assertEquals(3, hits.getHitCount());
+
+        BiIndex first = hits.locateHit(0);
+        assertEquals(1, first.major);
+        assertEquals(0, first.minor);
+        BiIndex second = hits.locateHit(1);
+        assertEquals(1, second.major);
+        assertEquals(1, second.minor);
+        BiIndex third = hits.locateHit(2);
+        assertEquals(3, third.major);
+        assertEquals(0, third.minor);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> hits.locateHit(3));
+    }
+
+    @Test
+    public void hitsBeforeAPositionAreCounted() {
+        SearchHits hits = sample();
+        assertEquals(0, hits.countHitsBefore(0, 0));
+        assertEquals(0, hits.countHitsBefore(1, 0));
+        assertEquals(1, hits.countHitsBefore(1, 1));
+        assertEquals(1, hits.countHitsBefore(1, 5));
+        assertEquals(2, hits.countHitsBefore(1, 6));
+        assertEquals(2, hits.countHitsBefore(3, 4));
+        assertEquals(3, hits.countHitsBefore(4, 0));
+    }
+
+    @Test
+    public void replacingParagraphsMovesTheFollowingHits() {
+        SearchHits hits = sample();
+
+        // paragraphs 1 and 2 are merged into one paragraph without hits
+        hits.replace(1, 2, List.of(SearchHits.NO_HITS));
+        assertEquals(4, hits.getParagraphCount());
+        assertEquals(1, hits.getHitCount());
+        assertEquals(2, hits.locateHit(0).major);
+        assertEquals(List.of(2), hits.getParagraphsWithHits());
+
+        // a paragraph with a hit is inserted at the start
+        hits.replace(0, 0, List.of(new int[] { 1, 3 }));
+        assertEquals(5, hits.getParagraphCount());
+        assertEquals(List.of(0, 3), hits.getParagraphsWithHits());
+        assertArrayEquals(new int[] { 4, 6 }, hits.getParagraphHits(3));
+    }
+}
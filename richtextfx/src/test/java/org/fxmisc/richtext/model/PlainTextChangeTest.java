@@ -34,6 +34,22 @@ public class PlainTextChangeTest {
         assertNotEquals("test", change);
     }
 
+    @Test
+    public void lazy_text_is_only_created_when_requested() {
+        int[] created = { 0 };
+        PlainTextChange change = new PlainTextChange(2,
+                3, () -> { created[0]++; return "art"; },
+                4, () -> { created[0]++; return "umbl"; });
+        assertEquals(5, change.getRemovalEnd());
+        assertEquals(1, change.getNetLength());
+        assertFalse(change.isIdentity());
+        assertEquals(0, created[0]);
+
+        checkContent(change, 2, "art", "umbl");
+        checkContent(change, 2, "art", "umbl");
+        assertEquals(2, created[0]);
+    }
+
     @Test
     public void invert_text_change() {
         // Invert removal : st[art]ing => sting
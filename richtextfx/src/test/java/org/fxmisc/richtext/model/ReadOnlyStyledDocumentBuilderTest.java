@@ -175,6 +175,34 @@ public class ReadOnlyStyledDocumentBuilderTest {
         }
     }
 
+    @Test
+    public void adding_paragraphs_cuts_the_document_style_spans_at_paragraph_boundaries() {
+        List<List<String>> segLists = Arrays.asList(
+                Collections.singletonList("ab"),
+                Arrays.asList("c", "de"),
+                Collections.singletonList(""),
+                Collections.singletonList("fgh")
+        );
+        StyleSpans<String> spans = new StyleSpansBuilder<String>()
+                .add("x", 1)
+                .add("y", 3)
+                .add("z", 4)
+                .create();
+
+        ReadOnlyStyledDocument<String, String, String> doc = ReadOnlyStyledDocumentBuilder.constructDocument(
+                SEGMENT_OPS, "ps style", builder -> builder.addParagraphs(segLists, spans));
+
+        assertEquals(4, doc.getParagraphs().size());
+        assertEquals(
+                new StyleSpansBuilder<String>().add("x", 1).add("y", 1).create(),
+                doc.getParagraph(0).getStyleSpans());
+        assertEquals(
+                new StyleSpansBuilder<String>().add("y", 2).add("z", 1).create(),
+                doc.getParagraph(1).getStyleSpans());
+        assertEquals(StyleSpans.singleton("z", 0), doc.getParagraph(2).getStyleSpans());
+        assertEquals(StyleSpans.singleton("z", 3), doc.getParagraph(3).getStyleSpans());
+    }
+
     @Test
     public void creating_paragraph_with_different_segment_and_style_length_throws_exception() {
         String text = "a";
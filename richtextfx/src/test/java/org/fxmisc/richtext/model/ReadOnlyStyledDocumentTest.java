@@ -107,6 +107,33 @@ public class ReadOnlyStyledDocumentTest {
         assertEquals(171, document.position(3, 43).clamp().toOffset());
     }
 
+    @Test
+    public void fromStringSplitsAtEachLineTerminator() {
+        TextOps<String, Void> segOps = SegmentOps.styledTextOps();
+        ReadOnlyStyledDocument<Void, String, Void> document = fromString("a\r\nb\rc\n\nd\n", NULL, NULL, segOps);
+        assertEquals(6, document.getParagraphs().size());
+        assertEquals("a\nb\nc\n\nd\n", document.getText());
+    }
+
+    @Test
+    public void fromStringInParallelCreatesTheSameParagraphsAsFromString() {
+        TextOps<String, Void> segOps = SegmentOps.styledTextOps();
+        String[] terminators = { "\n", "\r\n", "\r" };
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 50_000; i++) {
+            sb.append("line ").append(i).append(terminators[i % terminators.length]);
+        }
+        String text = sb.toString();
+
+        ReadOnlyStyledDocument<Void, String, Void> expected = fromString(text, NULL, NULL, segOps);
+        ReadOnlyStyledDocument<Void, String, Void> actual = fromStringInParallel(text, NULL, NULL, segOps);
+        assertEquals(expected.getParagraphs().size(), actual.getParagraphs().size());
+        assertEquals(expected.length(), actual.length());
+        assertEquals(expected.getText(), actual.getText());
+        assertEquals("line 12345", actual.getParagraph(12345).getText());
+        assertEquals("", actual.getParagraph(50_000).getText());
+    }
+
     @Test
     public void replaceTextContent() {
         TextOps<String, Void> segOps = SegmentOps.styledTextOps();
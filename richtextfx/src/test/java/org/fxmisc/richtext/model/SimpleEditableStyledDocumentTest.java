@@ -2,8 +2,14 @@ package org.fxmisc.richtext.model;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import javafx.scene.control.IndexRange;
 import org.junit.jupiter.api.Test;
+import org.reactfx.util.BiIndex;
+import org.reactfx.util.ToSemigroup;
 
 public class SimpleEditableStyledDocumentTest {
 
@@ -133,4 +139,141 @@ public class SimpleEditableStyledDocumentTest {
         expected = new IndexRange(first.length(), (first + second).length());
         assertEquals(expected, range);
     }
+
+    @Test
+    public void testAnchorsMoveWithEdits() {
+        SimpleEditableStyledDocument<String, String> document = new SimpleEditableStyledDocument<>("", "");
+        replaceText(document, 0, 0, "abc def ghi");
+        Anchor backward = document.createAnchor(4, TwoDimensional.Bias.Backward);
+        Anchor forward = document.createAnchor(4, TwoDimensional.Bias.Forward);
+        Anchor end = document.createAnchor(11, TwoDimensional.Bias.Backward);
+
+        // insertion at the anchors' position
+        replaceText(document, 4, 4, "XY");
+        assertEquals(4, backward.getPosition());
+        assertEquals(6, forward.getPosition());
+        assertEquals(13, end.getPosition());
+
+        // removal of the range around the anchors
+        replaceText(document, 2, 8, "");
+        assertEquals(2, backward.getPosition());
+        assertEquals(2, forward.getPosition());
+        assertEquals(7, end.getPosition());
+
+        // style changes do not move anchors
+        document.setStyle(0, document.getLength(), "style");
+        assertEquals(2, backward.getPosition());
+        assertEquals(7, end.getPosition());
+    }
+
+    @Test
+    public void testDisposedAnchorIsNoLongerUpdated() {
+        SimpleEditableStyledDocument<String, String> document = new SimpleEditableStyledDocument<>("", "");
+        replaceText(document, 0, 0, "some text");
+        Anchor anchor = document.createAnchor(5, TwoDimensional.Bias.Backward);
+        anchor.dispose();
+        assertTrue(anchor.isDisposed());
+
+        replaceText(document, 0, 0, "more ");
+        assertEquals(5, anchor.getPosition());
+    }
+
+    @Test
+    public void testAnchorIsUpToDateWhenChangeIsEmitted() {
+        SimpleEditableStyledDocument<String, String> document = new SimpleEditableStyledDocument<>("", "");
+        replaceText(document, 0, 0, "some text");
+        Anchor anchor = document.createAnchor(5, TwoDimensional.Bias.Backward);
+
+        int[] seen = new int[1];
+        document.plainChanges().subscribe(change -> seen[0] = anchor.getPosition());
+        replaceText(document, 0, 0, "more ");
+        assertEquals(10, seen[0]);
+    }
+
+    @Test
+    public void testAnchorOutsideOfDocumentIsRejected() {
+        SimpleEditableStyledDocument<String, String> document = new SimpleEditableStyledDocument<>("", "");
+        replaceText(document, 0, 0, "text");
+        assertThrows(IndexOutOfBoundsException.class, () -> document.createAnchor(5, TwoDimensional.Bias.Forward));
+    }
+
+    /** Counts the '!' markers of the paragraphs */
+    private static final ToSemigroup<Paragraph<?, ?, ?>, Integer> MARKER_COUNT = new ToSemigroup<Paragraph<?, ?, ?>, Integer>() {
+        @Override
+        public Integer apply(Paragraph<?, ?, ?> paragraph) {
+            return (int) paragraph.getText().chars().filter(c -> c == '!').count();
+        }
+
+        @Override
+        public Integer reduce(Integer left, Integer right) {
+            return left + right;
+        }
+    };
+
+    @Test
+    public void summaryFollowsEdits() {
+        SimpleEditableStyledDocument<String, String> document = new SimpleEditableStyledDocument<>("", "");
+        replaceText(document, 0, 0, "a!\nb\n!c!");
+        DocumentSummary<Integer> markers = document.addSummary(MARKER_COUNT);
+        assertEquals(3, markers.getTotal().intValue());
+        assertEquals(2, markers.getParagraphSummary(2).intValue());
+
+        // "b" is replaced by two paragraphs with a marker each
+        replaceText(document, 3, 4, "!\n!");
+        assertEquals(4, markers.getParagraphCount());
+        assertEquals(5, markers.getTotal().intValue());
+        assertEquals(2, markers.getSummaryBetween(1, 3).get().intValue());
+
+        // the second paragraph is merged with the first one
+        replaceText(document, 2, 3, "");
+        assertEquals(3, markers.getParagraphCount());
+        assertEquals(2, markers.getParagraphSummary(0).intValue());
+    }
+
+    @Test
+    public void summaryLocatesTheParagraphOfTheNthMarker() {
+        SimpleEditableStyledDocument<String, String> document = new SimpleEditableStyledDocument<>("", "");
+        replaceText(document, 0, 0, "a!\nb\n!c!");
+        DocumentSummary<Integer> markers = document.addSummary(MARKER_COUNT);
+        BiIndex third = markers.locateProgressively(Integer::intValue, 2);
+        assertEquals(2, third.major);
+        assertEquals(1, third.minor);
+    }
+
+    @Test
+    public void disposedSummaryIsNotUpdated() {
+        SimpleEditableStyledDocument<String, String> document = new SimpleEditableStyledDocument<>("", "");
+        replaceText(document, 0, 0, "a!");
+        DocumentSummary<Integer> markers = document.addSummary(MARKER_COUNT);
+        markers.dispose();
+        replaceText(document, 0, 0, "!\n!");
+        assertTrue(markers.isDisposed());
+        assertEquals(1, markers.getTotal().intValue());
+    }
+
+    @Test
+    public void statisticsFollowEdits() {
+        SimpleEditableStyledDocument<String, String> document = new SimpleEditableStyledDocument<>("", "");
+        replaceText(document, 0, 0, "one two\n  three\n");
+        DocumentStatistics statistics = document.getStatistics();
+        assertEquals(3, statistics.getWordCount());
+        assertEquals(14, statistics.getCodePointCount());
+        assertEquals(11, statistics.getNonWhitespaceCount());
+        assertEquals(3, statistics.getParagraphCount());
+
+        List<Integer> wordCounts = new ArrayList<>();
+        statistics.wordCountProperty().addListener((obs, oldCount, newCount) -> wordCounts.add(newCount));
+
+        // splits "two" into two words and adds a word with a surrogate pair
+        replaceText(document, 5, 5, " \uD83D\uDE00 ");
+        assertEquals(5, statistics.getWordCount());
+        assertEquals(17, statistics.getCodePointCount());
+        assertEquals(1, statistics.getWordCount(1, 3));
+
+        // removes the line break between "two" and "three"
+        replaceText(document, 11, 12, "");
+        assertEquals(5, statistics.getWordCount());
+        assertEquals(2, statistics.getParagraphCount());
+        assertEquals(Arrays.asList(5), wordCounts);
+    }
 }